@@ -0,0 +1,49 @@
+-- Phase 10: optimistic-lock version columns behind @Version on flows, flow_steps and step_candidates
+-- (no-op where phase 1 already added them)
+
+DELIMITER $$
+
+DROP PROCEDURE IF EXISTS sp_phase10_add_entity_versions $$
+CREATE PROCEDURE sp_phase10_add_entity_versions()
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1
+        FROM information_schema.columns
+        WHERE table_schema = DATABASE()
+          AND table_name = 'flows'
+          AND column_name = 'version'
+    ) THEN
+        ALTER TABLE flows
+            ADD COLUMN version BIGINT NOT NULL DEFAULT 0
+            COMMENT 'バージョン';
+    END IF;
+
+    IF NOT EXISTS (
+        SELECT 1
+        FROM information_schema.columns
+        WHERE table_schema = DATABASE()
+          AND table_name = 'flow_steps'
+          AND column_name = 'version'
+    ) THEN
+        ALTER TABLE flow_steps
+            ADD COLUMN version BIGINT NOT NULL DEFAULT 0
+            COMMENT 'バージョン';
+    END IF;
+
+    IF NOT EXISTS (
+        SELECT 1
+        FROM information_schema.columns
+        WHERE table_schema = DATABASE()
+          AND table_name = 'step_candidates'
+          AND column_name = 'version'
+    ) THEN
+        ALTER TABLE step_candidates
+            ADD COLUMN version BIGINT NOT NULL DEFAULT 0
+            COMMENT 'バージョン';
+    END IF;
+END $$
+
+CALL sp_phase10_add_entity_versions() $$
+DROP PROCEDURE sp_phase10_add_entity_versions $$
+
+DELIMITER ;
@@ -0,0 +1,7 @@
+-- Phase 11: booking lock rows for BookingLockService
+
+-- Only used where MySQL named locks are unavailable; created so every environment has the same schema.
+CREATE TABLE IF NOT EXISTS booking_locks (
+    lock_key VARCHAR(64) NOT NULL,
+    PRIMARY KEY (lock_key)
+);
@@ -0,0 +1,24 @@
+-- Phase 12: pooled id generators for flow_steps, step_candidates, flow_template_steps and the reservation tables
+
+CREATE TABLE IF NOT EXISTS id_generators (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val BIGINT NULL,
+    PRIMARY KEY (sequence_name)
+);
+
+-- Start each pooled generator one full block (50) past the ids already in use, including the phase 8
+-- reservation backfill. Re-running only ever moves a generator forward.
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT seed.sequence_name, seed.next_val
+FROM (
+    SELECT 'flow_steps' AS sequence_name, COALESCE(MAX(id), 0) + 51 AS next_val FROM flow_steps
+    UNION ALL
+    SELECT 'step_candidates', COALESCE(MAX(id), 0) + 51 FROM step_candidates
+    UNION ALL
+    SELECT 'flow_template_steps', COALESCE(MAX(id), 0) + 51 FROM flow_template_steps
+    UNION ALL
+    SELECT 'participant_slot_reservations', COALESCE(MAX(id), 0) + 51 FROM participant_slot_reservations
+    UNION ALL
+    SELECT 'owner_slot_reservations', COALESCE(MAX(id), 0) + 51 FROM owner_slot_reservations
+) AS seed
+ON DUPLICATE KEY UPDATE next_val = GREATEST(COALESCE(id_generators.next_val, 0), seed.next_val);
@@ -0,0 +1,129 @@
+-- Phase 8: slot reservation tables and a reservation backfill
+
+CREATE TABLE IF NOT EXISTS participant_slot_reservations (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    participant_id BIGINT NOT NULL,
+    slot_start DATETIME(6) NOT NULL,
+    flow_step_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_participant_slot_reservations_participant_slot UNIQUE (participant_id, slot_start)
+);
+
+CREATE TABLE IF NOT EXISTS owner_slot_reservations (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    owner_user_id BIGINT NOT NULL,
+    slot_start DATETIME(6) NOT NULL,
+    flow_step_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_owner_slot_reservations_owner_slot UNIQUE (owner_user_id, slot_start)
+);
+
+DELIMITER $$
+
+DROP PROCEDURE IF EXISTS sp_phase8_slot_reservations $$
+CREATE PROCEDURE sp_phase8_slot_reservations()
+BEGIN
+    -- foreign keys: reservations go away with their step
+    IF NOT EXISTS (
+        SELECT 1
+        FROM information_schema.table_constraints
+        WHERE table_schema = DATABASE()
+          AND table_name = 'participant_slot_reservations'
+          AND constraint_name = 'fk_participant_slot_reservations_flow_step'
+          AND constraint_type = 'FOREIGN KEY'
+    ) THEN
+        ALTER TABLE participant_slot_reservations
+            ADD CONSTRAINT fk_participant_slot_reservations_flow_step
+            FOREIGN KEY (flow_step_id) REFERENCES flow_steps(id)
+            ON DELETE CASCADE;
+    END IF;
+
+    IF NOT EXISTS (
+        SELECT 1
+        FROM information_schema.table_constraints
+        WHERE table_schema = DATABASE()
+          AND table_name = 'owner_slot_reservations'
+          AND constraint_name = 'fk_owner_slot_reservations_flow_step'
+          AND constraint_type = 'FOREIGN KEY'
+    ) THEN
+        ALTER TABLE owner_slot_reservations
+            ADD CONSTRAINT fk_owner_slot_reservations_flow_step
+            FOREIGN KEY (flow_step_id) REFERENCES flow_steps(id)
+            ON DELETE CASCADE;
+    END IF;
+
+    -- indexes: reservations are released by step
+    IF NOT EXISTS (
+        SELECT 1
+        FROM information_schema.statistics
+        WHERE table_schema = DATABASE()
+          AND table_name = 'participant_slot_reservations'
+          AND index_name = 'idx_participant_slot_reservations_flow_step_id'
+    ) THEN
+        CREATE INDEX idx_participant_slot_reservations_flow_step_id
+            ON participant_slot_reservations(flow_step_id);
+    END IF;
+
+    IF NOT EXISTS (
+        SELECT 1
+        FROM information_schema.statistics
+        WHERE table_schema = DATABASE()
+          AND table_name = 'owner_slot_reservations'
+          AND index_name = 'idx_owner_slot_reservations_flow_step_id'
+    ) THEN
+        CREATE INDEX idx_owner_slot_reservations_flow_step_id
+            ON owner_slot_reservations(flow_step_id);
+    END IF;
+END $$
+
+CALL sp_phase8_slot_reservations() $$
+DROP PROCEDURE sp_phase8_slot_reservations $$
+
+DELIMITER ;
+
+-- Backfill: one row per 30-minute slot touched by each already confirmed step, for its participant and
+-- for its flow's owner. Slots start on :00/:30, as in SlotReservationService.slotStarts. A slot that is
+-- already double-booked keeps the first row (INSERT IGNORE), so the migration does not stop on old data.
+-- Re-running is harmless: the unique keys skip rows that exist.
+INSERT IGNORE INTO participant_slot_reservations (participant_id, slot_start, flow_step_id)
+WITH RECURSIVE slots AS (
+    SELECT
+        fs.id AS flow_step_id,
+        fs.participant_id AS participant_id,
+        TIMESTAMP(DATE(fs.confirmed_start_at))
+            + INTERVAL (HOUR(fs.confirmed_start_at) * 60 + MINUTE(fs.confirmed_start_at)) DIV 30 * 30 MINUTE AS slot_start,
+        fs.confirmed_end_at AS end_at
+    FROM flow_steps fs
+    WHERE fs.participant_id IS NOT NULL
+      AND fs.confirmed_start_at IS NOT NULL
+      AND fs.confirmed_end_at > fs.confirmed_start_at
+    UNION ALL
+    SELECT flow_step_id, participant_id, slot_start + INTERVAL 30 MINUTE, end_at
+    FROM slots
+    WHERE slot_start + INTERVAL 30 MINUTE < end_at
+)
+SELECT participant_id, slot_start, flow_step_id
+FROM slots
+ORDER BY flow_step_id, slot_start;
+
+INSERT IGNORE INTO owner_slot_reservations (owner_user_id, slot_start, flow_step_id)
+WITH RECURSIVE slots AS (
+    SELECT
+        fs.id AS flow_step_id,
+        f.created_by_user_id AS owner_user_id,
+        TIMESTAMP(DATE(fs.confirmed_start_at))
+            + INTERVAL (HOUR(fs.confirmed_start_at) * 60 + MINUTE(fs.confirmed_start_at)) DIV 30 * 30 MINUTE AS slot_start,
+        fs.confirmed_end_at AS end_at
+    FROM flow_steps fs
+    INNER JOIN flows f ON f.id = fs.flow_id
+    WHERE f.created_by_user_id IS NOT NULL
+      AND fs.confirmed_start_at IS NOT NULL
+      AND fs.confirmed_end_at > fs.confirmed_start_at
+    UNION ALL
+    SELECT flow_step_id, owner_user_id, slot_start + INTERVAL 30 MINUTE, end_at
+    FROM slots
+    WHERE slot_start + INTERVAL 30 MINUTE < end_at
+)
+SELECT owner_user_id, slot_start, flow_step_id
+FROM slots
+ORDER BY flow_step_id, slot_start;
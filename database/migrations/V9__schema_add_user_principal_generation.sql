@@ -0,0 +1,24 @@
+-- Phase 9: per-user principal generation, bumped when a user's roles, enabled flag or display name change
+
+DELIMITER $$
+
+DROP PROCEDURE IF EXISTS sp_phase9_add_user_principal_generation $$
+CREATE PROCEDURE sp_phase9_add_user_principal_generation()
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1
+        FROM information_schema.columns
+        WHERE table_schema = DATABASE()
+          AND table_name = 'users'
+          AND column_name = 'principal_generation'
+    ) THEN
+        ALTER TABLE users
+            ADD COLUMN principal_generation BIGINT NOT NULL DEFAULT 0
+            COMMENT 'ログイン情報の世代（権限・有効状態・表示名の変更で加算）';
+    END IF;
+END $$
+
+CALL sp_phase9_add_user_principal_generation() $$
+DROP PROCEDURE sp_phase9_add_user_principal_generation $$
+
+DELIMITER ;
@@ -0,0 +1,188 @@
+package com.example.backend_spring.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.backend_spring.BackendSpringApplication;
+import com.example.backend_spring.domain.Flow;
+import com.example.backend_spring.domain.FlowStep;
+import com.example.backend_spring.domain.Participant;
+import com.example.backend_spring.domain.StepCandidate;
+import com.example.backend_spring.repository.FlowRepository;
+import com.example.backend_spring.repository.FlowStepRepository;
+import com.example.backend_spring.repository.ParticipantRepository;
+import com.example.backend_spring.repository.StepCandidateRepository;
+
+/**
+ * FlowService hot paths against an in-memory H2 database seeded with {@code flows} flows of
+ * {@code stepsPerFlow} steps; every step but the last is confirmed and the last is ACTIVE with
+ * {@code candidatesPerStep} PROPOSED candidates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FlowServiceBenchmark {
+
+    private static final int OWNERS = 5;
+    private static final int PARTICIPANTS = 20;
+
+    @Param({ "200" })
+    public int flows;
+
+    @Param({ "3" })
+    public int stepsPerFlow;
+
+    @Param({ "2" })
+    public int candidatesPerStep;
+
+    @Param({ "true", "false" })
+    public boolean conflictIndex;
+
+    private ConfigurableApplicationContext context;
+    private FlowService flowService;
+    private List<Flow> firstPage;
+    private Flow probeFlow;
+    private FlowStep probeStep;
+    private LocalDate cursorDate;
+    private LocalDateTime freeStartAt;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BackendSpringApplication.class)
+                // SecurityConfig needs HttpSecurity, so keep the servlet stack but bind an ephemeral port.
+                .web(WebApplicationType.SERVLET)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "logging.level.root=WARN",
+                        "app.conflict-index.enabled=" + conflictIndex)
+                .run();
+        flowService = context.getBean(FlowService.class);
+
+        seed(
+                context.getBean(FlowRepository.class),
+                context.getBean(FlowStepRepository.class),
+                context.getBean(StepCandidateRepository.class),
+                context.getBean(ParticipantRepository.class));
+        // The index warmed on startup before seeding; rebuild it from the seeded rows.
+        context.getBean(ScheduleConflictIndex.class).warmUp();
+
+        firstPage = flowService.listFlowPage(null, null, "created_asc", null, FlowService.DEFAULT_FLOW_PAGE_SIZE).getFlows();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public FlowService.WeeklyCalendarView buildWeeklyCalendarView() {
+        return flowService.buildWeeklyCalendarView(null, null, cursorDate);
+    }
+
+    @Benchmark
+    public FlowService.MonthlyCalendarView buildMonthlyCalendarView() {
+        return flowService.buildMonthlyCalendarView(null, null, cursorDate);
+    }
+
+    @Benchmark
+    public Map<Long, String> buildFlowScheduleLabels() {
+        return flowService.buildFlowScheduleLabels(firstPage);
+    }
+
+    @Benchmark
+    public List<Flow> listFlows() {
+        return flowService.listFlows(null, null, "created_asc");
+    }
+
+    @Benchmark
+    public FlowService.FlowListPage listFlowPage() {
+        return flowService.listFlowPage(null, null, "created_desc", null, FlowService.DEFAULT_FLOW_PAGE_SIZE);
+    }
+
+    // The check every booking runs: one findBookingConflicts statement for owner, participant and previous step.
+    @Benchmark
+    public Flow bookingConflictCheck() {
+        LocalDateTime endAt = freeStartAt.plusMinutes(probeFlow.getDurationMinutes());
+        flowService.assertBookable(probeFlow, probeStep, probeStep.getParticipantId(), freeStartAt, endAt, null, "benchmark");
+        return probeFlow;
+    }
+
+    private void seed(
+            FlowRepository flowRepo,
+            FlowStepRepository stepRepo,
+            StepCandidateRepository candidateRepo,
+            ParticipantRepository participantRepo) {
+        List<Participant> participants = new ArrayList<>();
+        for (int i = 0; i < PARTICIPANTS; i++) {
+            participants.add(new Participant("USER", 1000L + i, "participant-" + i));
+        }
+        participants = participantRepo.saveAll(participants);
+
+        LocalDate firstDay = flowService.getReservableMinDate();
+        cursorDate = firstDay.plusDays(7);
+        // Nothing is seeded before 08:00, so this start never conflicts.
+        freeStartAt = cursorDate.atTime(6, 0);
+
+        for (int f = 0; f < flows; f++) {
+            Flow flow = flowRepo.save(new Flow(
+                    "benchmark flow " + f,
+                    60,
+                    firstDay.atTime(8, 0),
+                    (long) (f % OWNERS) + 1));
+            // Spread flows over roughly two months, one meeting slot per step.
+            LocalDate day = firstDay.plusDays(f % 60);
+            List<FlowStep> steps = new ArrayList<>();
+            for (int s = 1; s <= stepsPerFlow; s++) {
+                Participant participant = participants.get((f + s) % PARTICIPANTS);
+                FlowStep step = new FlowStep(flow.getId(), s, participant.getId(), participant.getDisplayName());
+                LocalDateTime startAt = day.atTime(8, 0).plusHours(s - 1L).plusMinutes((f / 60) % 4 * 15L);
+                if (s < stepsPerFlow) {
+                    step.confirm(startAt, startAt.plusMinutes(60));
+                } else {
+                    step.activate();
+                }
+                steps.add(step);
+            }
+            steps = stepRepo.saveAll(steps);
+
+            FlowStep active = steps.get(steps.size() - 1);
+            flow.moveToStep(active.getStepOrder());
+            flowRepo.save(flow);
+            List<StepCandidate> candidates = new ArrayList<>();
+            for (int c = 0; c < candidatesPerStep; c++) {
+                LocalDateTime startAt = day.plusDays(c + 1L).atTime(12, 0).plusMinutes(f % 8 * 30L);
+                candidates.add(new StepCandidate(active.getId(), startAt, startAt.plusMinutes(60)));
+            }
+            candidateRepo.saveAll(candidates);
+
+            if (f == 0) {
+                probeFlow = flow;
+                probeStep = active;
+            }
+        }
+    }
+}
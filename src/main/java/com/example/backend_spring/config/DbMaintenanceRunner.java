@@ -14,6 +14,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import com.example.backend_spring.domain.IdGenerators;
+
 @Configuration
 public class DbMaintenanceRunner {
 
@@ -46,11 +48,34 @@ public class DbMaintenanceRunner {
                     "idx_flow_steps_flow_id_step_order",
                     "CREATE INDEX idx_flow_steps_flow_id_step_order ON flow_steps (flow_id, step_order)");
 
+            // Calendar window queries: confirmed steps by start time.
+            ensureIndex(jdbcTemplate,
+                    "flow_steps",
+                    "idx_flow_steps_status_confirmed_start_at",
+                    "CREATE INDEX idx_flow_steps_status_confirmed_start_at ON flow_steps (status, confirmed_start_at)");
+
+            // Participant calendars: a participant's steps by status and confirmed start time.
+            ensureIndex(jdbcTemplate,
+                    "flow_steps",
+                    "idx_flow_steps_participant_status_start",
+                    "CREATE INDEX idx_flow_steps_participant_status_start ON flow_steps (participant_id, status, confirmed_start_at)");
+
             ensureIndex(jdbcTemplate,
                     "flows",
                     "idx_flows_created_by_user_id",
                     "CREATE INDEX idx_flows_created_by_user_id ON flows (created_by_user_id)");
 
+            // Keyset pagination of the flow list: ORDER BY created_at, id with optional status filter.
+            ensureIndex(jdbcTemplate,
+                    "flows",
+                    "idx_flows_created_at_id",
+                    "CREATE INDEX idx_flows_created_at_id ON flows (created_at, id)");
+
+            ensureIndex(jdbcTemplate,
+                    "flows",
+                    "idx_flows_status_created_at_id",
+                    "CREATE INDEX idx_flows_status_created_at_id ON flows (status, created_at, id)");
+
             ensureForeignKey(jdbcTemplate,
                     "flow_steps",
                     "fk_flow_steps_flow",
@@ -61,6 +86,27 @@ public class DbMaintenanceRunner {
                     "fk_step_candidates_flow_step",
                     "ALTER TABLE step_candidates ADD CONSTRAINT fk_step_candidates_flow_step FOREIGN KEY (flow_step_id) REFERENCES flow_steps(id) ON DELETE CASCADE");
 
+            // Slot reservations go away with their step, so deleting a flow frees its slots.
+            ensureForeignKey(jdbcTemplate,
+                    "participant_slot_reservations",
+                    "fk_participant_slot_reservations_flow_step",
+                    "ALTER TABLE participant_slot_reservations ADD CONSTRAINT fk_participant_slot_reservations_flow_step FOREIGN KEY (flow_step_id) REFERENCES flow_steps(id) ON DELETE CASCADE");
+
+            ensureForeignKey(jdbcTemplate,
+                    "owner_slot_reservations",
+                    "fk_owner_slot_reservations_flow_step",
+                    "ALTER TABLE owner_slot_reservations ADD CONSTRAINT fk_owner_slot_reservations_flow_step FOREIGN KEY (flow_step_id) REFERENCES flow_steps(id) ON DELETE CASCADE");
+
+            // Tables that moved from AUTO_INCREMENT to pooled table ids keep their existing rows.
+            for (String table : List.of(
+                    "flow_steps",
+                    "step_candidates",
+                    "flow_template_steps",
+                    "participant_slot_reservations",
+                    "owner_slot_reservations")) {
+                ensureIdGeneratorAboveExistingIds(jdbcTemplate, table);
+            }
+
             // Remove legacy/incorrect constraints (e.g. fk_candidates_step) and keep only CASCADE FK.
             reconcileCascadeForeignKey(
                     jdbcTemplate,
@@ -103,6 +149,33 @@ public class DbMaintenanceRunner {
         }
     }
 
+    // A pooled block ends at next_val, so next_val must stay a full block above the largest id in use.
+    private void ensureIdGeneratorAboveExistingIds(JdbcTemplate jdbcTemplate, String table) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        long floor = (maxId == null ? 0 : maxId) + IdGenerators.ALLOCATION_SIZE + 1;
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + IdGenerators.TABLE + " WHERE " + IdGenerators.SEGMENT_COLUMN + " = ?",
+                Integer.class,
+                table);
+        if (rows != null && rows == 0) {
+            jdbcTemplate.update(
+                    "INSERT INTO " + IdGenerators.TABLE + " (" + IdGenerators.SEGMENT_COLUMN + ", " + IdGenerators.VALUE_COLUMN + ") VALUES (?, ?)",
+                    table,
+                    floor);
+            log.info("Initialized id generator [{}] at {}", table, floor);
+            return;
+        }
+        int updated = jdbcTemplate.update(
+                "UPDATE " + IdGenerators.TABLE + " SET " + IdGenerators.VALUE_COLUMN + " = ? WHERE "
+                        + IdGenerators.SEGMENT_COLUMN + " = ? AND " + IdGenerators.VALUE_COLUMN + " < ?",
+                floor,
+                table,
+                floor);
+        if (updated > 0) {
+            log.info("Moved id generator [{}] past existing ids to {}", table, floor);
+        }
+    }
+
     private void reconcileCascadeForeignKey(
             JdbcTemplate jdbcTemplate,
             String table,
@@ -0,0 +1,38 @@
+package com.example.backend_spring.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.backend_spring.service.ParticipantNameCache;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Configuration
+public class MetricsConfig {
+
+    // Enables @Timed on service classes (FlowService); controllers are covered by http.server.requests.
+    @Bean
+    TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    MeterBinder participantNameCacheMetrics(ParticipantNameCache cache) {
+        return registry -> {
+            FunctionCounter.builder("participant.name.cache.requests", cache, c -> c.getStats().getHits())
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("participant.name.cache.requests", cache, c -> c.getStats().getMisses())
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("participant.name.cache.evictions", cache, c -> c.getStats().getEvictions())
+                    .register(registry);
+            Gauge.builder("participant.name.cache.size", cache, c -> c.getStats().getSize())
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.backend_spring.config;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded retry for {@link com.example.backend_spring.service.OptimisticRetry} methods. Ordered ahead of
+ * the transaction interceptor, so each attempt runs in its own transaction and re-reads the rows that
+ * another request changed. Attempts are spaced by a short, growing, jittered backoff; when they run out
+ * the caller gets the usual user-facing {@link IllegalArgumentException}.
+ *
+ * Calls made inside an existing transaction are not retried here: the persistence context is already
+ * stale, so only the outermost transaction can start over.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class OptimisticRetryAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetryAspect.class);
+
+    private final MeterRegistry registry;
+    private final int maxAttempts;
+    private final Duration backoff;
+
+    public OptimisticRetryAspect(
+            MeterRegistry registry,
+            @Value("${app.optimistic-retry.max-attempts:3}") int maxAttempts,
+            @Value("${app.optimistic-retry.backoff:25ms}") Duration backoff) {
+        this.registry = registry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoff = backoff;
+    }
+
+    @Around("@annotation(com.example.backend_spring.service.OptimisticRetry)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException ex) {
+                boolean exhausted = attempt >= maxAttempts;
+                Counter.builder("flow.optimistic.conflicts")
+                        .description("Optimistic version conflicts in state transitions, by what happened next")
+                        .tag("method", method)
+                        .tag("outcome", exhausted ? "exhausted" : "retried")
+                        .register(registry)
+                        .increment();
+                if (exhausted) {
+                    log.warn("{} lost {} optimistic version checks in a row", method, attempt);
+                    throw new IllegalArgumentException("他のユーザーが同時に更新しました。画面を更新して再度お試しください。", ex);
+                }
+                sleep(attempt);
+            }
+        }
+    }
+
+    private void sleep(int attempt) {
+        long base = backoff.toMillis() * attempt;
+        if (base <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(base + ThreadLocalRandom.current().nextLong(base));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.example.backend_spring.controller;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -22,6 +24,8 @@ import com.example.backend_spring.domain.Participant;
 import com.example.backend_spring.domain.UserAccount;
 import com.example.backend_spring.repository.ParticipantRepository;
 import com.example.backend_spring.repository.UserAccountRepository;
+import com.example.backend_spring.security.PrincipalRefresher;
+import com.example.backend_spring.service.ParticipantNameCache;
 
 @Controller
 @RequestMapping("/admin/users")
@@ -32,26 +36,37 @@ public class AdminUserController {
     private final ParticipantRepository participantRepo;
     private final JdbcTemplate jdbcTemplate;
     private final PasswordEncoder passwordEncoder;
+    private final ParticipantNameCache participantNameCache;
+    private final PrincipalRefresher principalRefresher;
 
     public AdminUserController(
             UserAccountRepository userRepo,
             ParticipantRepository participantRepo,
             JdbcTemplate jdbcTemplate,
-            PasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder,
+            ParticipantNameCache participantNameCache,
+            PrincipalRefresher principalRefresher) {
         this.userRepo = userRepo;
         this.participantRepo = participantRepo;
         this.jdbcTemplate = jdbcTemplate;
         this.passwordEncoder = passwordEncoder;
+        this.participantNameCache = participantNameCache;
+        this.principalRefresher = principalRefresher;
     }
 
     @GetMapping
     public String users(Model model) {
+        // Load every user's roles in one query instead of one query per user.
+        Map<Long, List<String>> rolesByUserId = new HashMap<>();
+        for (UserAccountRepository.UserRoleNameView role : userRepo.findAllUserRoleNames()) {
+            rolesByUserId.computeIfAbsent(role.getUserId(), id -> new ArrayList<>()).add(role.getRoleName());
+        }
         List<UserRow> rows = userRepo.findAll().stream()
                 .map(u -> new UserRow(
                         u.getId(),
                         u.getUsername(),
                         u.isEnabled(),
-                        userRepo.findRoleNamesByUserId(u.getId())))
+                        rolesByUserId.getOrDefault(u.getId(), List.of())))
                 .toList();
         model.addAttribute("users", rows);
         return "admin/users";
@@ -65,6 +80,7 @@ public class AdminUserController {
         var user = userRepo.findById(id).orElseThrow();
         user.setEnabled(enabled);
         userRepo.save(user);
+        principalRefresher.markStale(id);
         redirectAttributes.addFlashAttribute("message", "ユーザー状態を更新しました。");
         return "redirect:/admin/users";
     }
@@ -99,17 +115,23 @@ public class AdminUserController {
                     """, id, role);
         }
 
+        principalRefresher.markStale(id);
         redirectAttributes.addFlashAttribute("message", "ロールを更新しました。");
         return "redirect:/admin/users";
     }
 
     @PostMapping("/{id}/delete")
     public String deleteUser(@PathVariable Long id, RedirectAttributes redirectAttributes) {
+        Long participantId = participantRepo.findByParticipantTypeAndUserId("USER", id)
+                .map(Participant::getId)
+                .orElse(null);
         jdbcTemplate.update(
                 "DELETE FROM participants WHERE participant_type = 'USER' AND user_id = ?",
                 id);
+        participantNameCache.invalidate(participantId);
         var user = userRepo.findById(id).orElseThrow();
         userRepo.delete(user);
+        principalRefresher.markStale(id);
         redirectAttributes.addFlashAttribute("message", "ユーザーを削除しました。");
         return "redirect:/admin/users";
     }
@@ -182,8 +204,9 @@ public class AdminUserController {
                   )
                 """, savedUserId, savedUserId);
 
-        participantRepo.findByParticipantTypeAndUserId("USER", savedUserId)
+        Participant participant = participantRepo.findByParticipantTypeAndUserId("USER", savedUserId)
                 .orElseGet(() -> participantRepo.save(new Participant("USER", savedUserId, participantDisplayName)));
+        participantNameCache.invalidate(participant.getId());
 
         redirectAttributes.addFlashAttribute(
                 "message",
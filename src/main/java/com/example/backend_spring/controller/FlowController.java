@@ -7,7 +7,10 @@ import java.time.LocalTime;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.security.core.Authentication;
@@ -19,12 +22,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.example.backend_spring.domain.Participant;
 import com.example.backend_spring.repository.ParticipantRepository;
 import com.example.backend_spring.repository.UserAccountRepository;
+import com.example.backend_spring.security.AppUserPrincipal;
 import com.example.backend_spring.security.FlowAuthorization;
+import com.example.backend_spring.service.CommonAvailabilityService;
 import com.example.backend_spring.service.FlowService;
 
 @Controller
@@ -35,16 +41,19 @@ public class FlowController {
     private final UserAccountRepository userRepo;
     private final ParticipantRepository participantRepo;
     private final FlowAuthorization flowAuthorization;
+    private final CommonAvailabilityService commonAvailabilityService;
 
     public FlowController(
             FlowService flowService,
             UserAccountRepository userRepo,
             ParticipantRepository participantRepo,
-            FlowAuthorization flowAuthorization) {
+            FlowAuthorization flowAuthorization,
+            CommonAvailabilityService commonAvailabilityService) {
         this.flowService = flowService;
         this.userRepo = userRepo;
         this.participantRepo = participantRepo;
         this.flowAuthorization = flowAuthorization;
+        this.commonAvailabilityService = commonAvailabilityService;
     }
 
     @GetMapping
@@ -55,20 +64,24 @@ public class FlowController {
             @RequestParam(required = false, defaultValue = "week") String view,
             @RequestParam(required = false) String cursor,
             @RequestParam(required = false) String weekStart,
+            @RequestParam(required = false) String after,
             Authentication authentication,
             Model model) {
         String normalizedSort = "created_desc".equals(sort) ? "created_desc" : "created_asc";
         String toggleSort = "created_asc".equals(normalizedSort) ? "created_desc" : "created_asc";
         String normalizedView = "month".equals(view) ? "month" : "week";
-        var flows = flowService.listFlows(status, keyword, normalizedSort);
+        var flowPage = flowService.listFlowPage(status, keyword, normalizedSort, after, FlowService.DEFAULT_FLOW_PAGE_SIZE);
+        var flows = flowPage.getFlows();
         var flowScheduleLabels = flowService.buildFlowScheduleLabels(flows);
         LocalDate requestedCursor = parseDate(cursor != null ? cursor : weekStart);
 
         model.addAttribute("flows", flows);
         model.addAttribute("flowScheduleLabels", flowScheduleLabels);
+        model.addAttribute("pageCursor", after == null ? "" : after);
+        model.addAttribute("nextPageCursor", flowPage.getNextCursor());
         model.addAttribute("viewMode", normalizedView);
         if ("month".equals(normalizedView)) {
-            var monthCalendar = flowService.buildMonthlyCalendarView(flows, requestedCursor);
+            var monthCalendar = flowService.buildMonthlyCalendarView(status, keyword, requestedCursor);
             model.addAttribute("monthCalendar", monthCalendar);
             model.addAttribute("viewLabel", monthCalendar.getMonthLabel());
             model.addAttribute("currentCursor", monthCalendar.getMonthStart());
@@ -76,7 +89,7 @@ public class FlowController {
             model.addAttribute("nextCursor", monthCalendar.getNextMonthStart());
             model.addAttribute("todayCursor", LocalDate.now().withDayOfMonth(1).toString());
         } else {
-            var weekCalendar = flowService.buildWeeklyCalendarView(flows, requestedCursor);
+            var weekCalendar = flowService.buildWeeklyCalendarView(status, keyword, requestedCursor);
             model.addAttribute("weekCalendar", weekCalendar);
             model.addAttribute("viewLabel", weekCalendar.getWeekLabel());
             model.addAttribute("currentCursor", weekCalendar.getWeekStart());
@@ -139,12 +152,7 @@ public class FlowController {
                         .collect(Collectors.toList());
             }
 
-            Long createdByUserId = null;
-            if (principal != null) {
-                createdByUserId = userRepo.findByUsername(principal.getName())
-                        .map(u -> u.getId())
-                        .orElse(null);
-            }
+            Long createdByUserId = resolveCurrentUserId(principal);
 
             Long flowId;
             if (stepParticipantIds != null && !stepParticipantIds.isEmpty()) {
@@ -179,22 +187,29 @@ public class FlowController {
             Authentication authentication,
             Principal principal) {
 
-        var flow = flowService.getFlow(id);
-        var steps = flowService.getSteps(id);
-        var activeOpt = flowService.findActiveStep(id);
-        var candidates = activeOpt.map(step -> flowService.getCandidates(step.getId())).orElse(List.of());
+        var aggregate = flowService.loadFlowAggregate(id);
+        var access = flowAuthorization.accessTo(aggregate, authentication);
         LocalDate userCalendarCursor = parseDate(calendarCursor);
-
-        model.addAttribute("flow", flow);
-        model.addAttribute("steps", steps);
-        model.addAttribute("activeStep", activeOpt.orElse(null));
-        model.addAttribute("candidates", candidates);
+        var availableSlots = access.canOperateActiveStep()
+                ? flowService.findAvailableSlotsForActiveStep(aggregate, null, FlowService.DEFAULT_AVAILABLE_SLOT_COUNT)
+                : List.<FlowService.AvailableSlot>of();
+
+        model.addAttribute("flow", aggregate.getFlow());
+        model.addAttribute("steps", aggregate.getSteps());
+        model.addAttribute("activeStep", aggregate.getActiveStep().orElse(null));
+        model.addAttribute("candidates", aggregate.getActiveStepCandidates());
         model.addAttribute("minDate", flowService.getReservableMinDate());
         model.addAttribute("maxDate", flowService.getReservableMaxDate());
-        model.addAttribute("canManageFlow", flowAuthorization.canManageFlow(id, authentication));
-        model.addAttribute("canOperateActiveStep", flowAuthorization.canOperateActiveStep(id, authentication));
-        model.addAttribute("isAdmin", flowAuthorization.isAdmin(authentication));
-        addFlowParticipantWeekCalendarModel(model, id, userCalendarCursor);
+        model.addAttribute("canManageFlow", access.canManageFlow());
+        model.addAttribute("canOperateActiveStep", access.canOperateActiveStep());
+        model.addAttribute("availableSlots", availableSlots);
+        model.addAttribute("isAdmin", access.isAdmin());
+        var userWeekCalendar = flowService.buildWeeklyCalendarViewForFlowParticipants(aggregate, userCalendarCursor);
+        addFlowParticipantWeekCalendarModel(model, userWeekCalendar);
+        model.addAttribute("commonFreeWindows", groupByDate(commonAvailabilityService.findCommonFreeWindows(
+                aggregate,
+                LocalDate.parse(userWeekCalendar.getWeekStart()),
+                LocalDate.parse(userWeekCalendar.getWeekStart()).plusDays(6))));
 
         return "flows/detail";
     }
@@ -213,7 +228,7 @@ public class FlowController {
         model.addAttribute("userParticipants", loadUserParticipants());
         model.addAttribute("minDate", flowService.getReservableMinDate());
         model.addAttribute("maxDate", flowService.getReservableMaxDate());
-        addFlowParticipantWeekCalendarModel(model, id, userCalendarCursor);
+        addFlowParticipantWeekCalendarModel(model, flowService.buildWeeklyCalendarViewForFlowParticipants(id, userCalendarCursor));
         return "flows/edit";
     }
 
@@ -353,6 +368,20 @@ public class FlowController {
         return "redirect:/flows/" + id;
     }
 
+    @GetMapping("/{id}/available-slots")
+    @PreAuthorize("@flowAuthorization.canOperateActiveStep(#id, authentication)")
+    @ResponseBody
+    public List<FlowService.AvailableSlot> availableSlots(
+            @PathVariable Long id,
+            @RequestParam(required = false) String from,
+            @RequestParam(defaultValue = "5") int limit) {
+        LocalDate fromDate = parseDate(from);
+        return flowService.findAvailableSlotsForActiveStep(
+                id,
+                fromDate == null ? null : fromDate.atStartOfDay(),
+                limit);
+    }
+
     @PostMapping("/{id}/candidates")
     @PreAuthorize("@flowAuthorization.canOperateActiveStep(#id, authentication)")
     public String addCandidate(
@@ -476,6 +505,10 @@ public class FlowController {
         if (principal == null) {
             return null;
         }
+        Optional<AppUserPrincipal> appUser = AppUserPrincipal.from(principal);
+        if (appUser.isPresent()) {
+            return appUser.get().getUserId();
+        }
         return userRepo.findByUsername(principal.getName())
                 .map(u -> u.getId())
                 .orElse(null);
@@ -485,6 +518,10 @@ public class FlowController {
         if (authentication == null || authentication.getName() == null) {
             return "";
         }
+        Optional<AppUserPrincipal> appUser = AppUserPrincipal.from(authentication);
+        if (appUser.isPresent()) {
+            return appUser.get().getDisplayName();
+        }
 
         return userRepo.findByUsername(authentication.getName())
                 .map(u -> participantRepo.findByParticipantTypeAndUserId("USER", u.getId())
@@ -494,8 +531,16 @@ public class FlowController {
                 .orElse(authentication.getName());
     }
 
-    private void addFlowParticipantWeekCalendarModel(Model model, Long flowId, LocalDate cursor) {
-        var userWeekCalendar = flowService.buildWeeklyCalendarViewForFlowParticipants(flowId, cursor);
+    private Map<String, List<CommonAvailabilityService.FreeWindow>> groupByDate(
+            List<CommonAvailabilityService.FreeWindow> windows) {
+        Map<String, List<CommonAvailabilityService.FreeWindow>> byDate = new LinkedHashMap<>();
+        for (CommonAvailabilityService.FreeWindow window : windows) {
+            byDate.computeIfAbsent(window.getStartAt().toLocalDate().toString(), date -> new ArrayList<>()).add(window);
+        }
+        return byDate;
+    }
+
+    private void addFlowParticipantWeekCalendarModel(Model model, FlowService.WeeklyCalendarView userWeekCalendar) {
         model.addAttribute("userWeekCalendar", userWeekCalendar);
         model.addAttribute("userWeekLabel", userWeekCalendar.getWeekLabel());
         model.addAttribute("userWeekCurrentCursor", userWeekCalendar.getWeekStart());
@@ -0,0 +1,161 @@
+package com.example.backend_spring.controller;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import com.example.backend_spring.service.CommonAvailabilityService;
+import com.example.backend_spring.service.FlowChainScheduler;
+import com.example.backend_spring.service.FlowService;
+import com.example.backend_spring.service.InterviewDayPlanner;
+
+/** JSON endpoints for scheduling many steps in one call and for finding common free time. */
+@Controller
+@RequestMapping("/flows")
+public class FlowPlanningController {
+
+    private static final int MAX_RESCHEDULE_ALTERNATIVES = 500;
+
+    private final InterviewDayPlanner interviewDayPlanner;
+    private final FlowChainScheduler flowChainScheduler;
+    private final CommonAvailabilityService commonAvailabilityService;
+    private final FlowService flowService;
+
+    public FlowPlanningController(
+            InterviewDayPlanner interviewDayPlanner,
+            FlowChainScheduler flowChainScheduler,
+            CommonAvailabilityService commonAvailabilityService,
+            FlowService flowService) {
+        this.interviewDayPlanner = interviewDayPlanner;
+        this.flowChainScheduler = flowChainScheduler;
+        this.commonAvailabilityService = commonAvailabilityService;
+        this.flowService = flowService;
+    }
+
+    @PostMapping("/interview-day-plan")
+    @PreAuthorize("@flowAuthorization.canManageFlows(#flowIds, authentication)")
+    @ResponseBody
+    public ResponseEntity<?> planInterviewDay(
+            @RequestParam List<Long> flowIds,
+            @RequestParam List<Long> interviewerParticipantIds,
+            @RequestParam(required = false) String from,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        try {
+            return ResponseEntity.ok(interviewDayPlanner.plan(flowIds, interviewerParticipantIds, parseDate(from), dryRun));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/auto-schedule")
+    @PreAuthorize("@flowAuthorization.canManageFlow(#id, authentication)")
+    @ResponseBody
+    public ResponseEntity<?> autoSchedule(
+            @PathVariable Long id,
+            @RequestParam(required = false) String from,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        try {
+            return ResponseEntity.ok(flowChainScheduler.autoSchedule(id, parseDate(from), dryRun));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/steps/{stepId}/reschedule-preview")
+    @PreAuthorize("@flowAuthorization.canManageFlow(#id, authentication)")
+    @ResponseBody
+    public ResponseEntity<?> previewReschedule(
+            @PathVariable Long id,
+            @PathVariable Long stepId,
+            @RequestParam List<String> startAt) {
+        if (startAt.size() > MAX_RESCHEDULE_ALTERNATIVES) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "候補日時は" + MAX_RESCHEDULE_ALTERNATIVES + "件まで指定できます。"));
+        }
+        try {
+            List<LocalDateTime> alternatives = new ArrayList<>(startAt.size());
+            for (String text : startAt) {
+                alternatives.add(parseDateTime(text));
+            }
+            return ResponseEntity.ok(flowChainScheduler.simulateReschedules(id, stepId, alternatives));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/steps/{stepId}/reschedule")
+    @PreAuthorize("@flowAuthorization.canManageFlow(#id, authentication)")
+    @ResponseBody
+    public ResponseEntity<?> applyReschedule(
+            @PathVariable Long id,
+            @PathVariable Long stepId,
+            @RequestParam String startAt) {
+        try {
+            return ResponseEntity.ok(flowChainScheduler.applyReschedule(id, stepId, parseDateTime(startAt)));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}/common-free-windows")
+    @ResponseBody
+    public ResponseEntity<?> commonFreeWindows(
+            @PathVariable Long id,
+            @RequestParam String from,
+            @RequestParam String to) {
+        try {
+            return ResponseEntity.ok(commonAvailabilityService.findCommonFreeWindows(id, parseDate(from), parseDate(to)));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/candidates/proposals")
+    @PreAuthorize("@flowAuthorization.canOperateActiveStep(#id, authentication)")
+    @ResponseBody
+    public ResponseEntity<?> proposeCandidates(
+            @PathVariable Long id,
+            @RequestParam List<String> startAt) {
+        try {
+            List<LocalDateTime> startAts = new ArrayList<>(startAt.size());
+            for (String text : startAt) {
+                startAts.add(parseDateTime(text));
+            }
+            return ResponseEntity.ok(flowService.proposeCandidatesForActiveStep(id, startAts));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    private LocalDateTime parseDateTime(String text) {
+        try {
+            return LocalDateTime.parse(text);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("日時形式が不正です。value=" + text);
+        }
+    }
+
+    private LocalDate parseDate(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(text);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("日付形式が不正です。value=" + text);
+        }
+    }
+}
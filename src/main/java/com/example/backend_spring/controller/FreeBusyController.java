@@ -0,0 +1,62 @@
+package com.example.backend_spring.controller;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import com.example.backend_spring.service.FlowService;
+import com.example.backend_spring.service.FreeBusyService;
+
+/** Per-day busy bitmaps for date pickers, served from the conflict index or, when it is off, the database. */
+@Controller
+@RequestMapping("/free-busy")
+public class FreeBusyController {
+
+    private static final int MAX_PARTICIPANTS = 50;
+
+    private final FreeBusyService freeBusyService;
+    private final FlowService flowService;
+
+    public FreeBusyController(FreeBusyService freeBusyService, FlowService flowService) {
+        this.freeBusyService = freeBusyService;
+        this.flowService = flowService;
+    }
+
+    @GetMapping
+    @ResponseBody
+    public ResponseEntity<?> busyBitmaps(
+            @RequestParam List<Long> participantIds,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        Set<Long> ids = new LinkedHashSet<>();
+        participantIds.stream().filter(Objects::nonNull).forEach(ids::add);
+        LocalDate minDate = flowService.getReservableMinDate();
+        LocalDate maxDate = flowService.getReservableMaxDate();
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = from == null || from.isBlank() ? minDate : LocalDate.parse(from);
+            toDate = to == null || to.isBlank() ? maxDate : LocalDate.parse(to);
+        } catch (DateTimeParseException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", "日付形式が不正です。"));
+        }
+        if (ids.isEmpty() || ids.size() > MAX_PARTICIPANTS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "参加者は1〜" + MAX_PARTICIPANTS + "名で指定してください。"));
+        }
+        if (fromDate.isBefore(minDate) || toDate.isAfter(maxDate) || toDate.isBefore(fromDate)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "期間は予約可能期間内で指定してください。"));
+        }
+        return ResponseEntity.ok(freeBusyService.getBusyBitmaps(ids, fromDate, toDate));
+    }
+}
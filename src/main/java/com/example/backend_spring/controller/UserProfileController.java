@@ -1,6 +1,7 @@
 package com.example.backend_spring.controller;
 
 import java.security.Principal;
+import java.util.Optional;
 
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
@@ -14,6 +15,9 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import com.example.backend_spring.domain.Participant;
 import com.example.backend_spring.repository.ParticipantRepository;
 import com.example.backend_spring.repository.UserAccountRepository;
+import com.example.backend_spring.security.AppUserPrincipal;
+import com.example.backend_spring.security.PrincipalRefresher;
+import com.example.backend_spring.service.ParticipantNameCache;
 
 @Controller
 @RequestMapping("/users/me")
@@ -22,18 +26,31 @@ public class UserProfileController {
     private final UserAccountRepository userRepo;
     private final ParticipantRepository participantRepo;
     private final PasswordEncoder passwordEncoder;
+    private final ParticipantNameCache participantNameCache;
+    private final PrincipalRefresher principalRefresher;
 
     public UserProfileController(
             UserAccountRepository userRepo,
             ParticipantRepository participantRepo,
-            PasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder,
+            ParticipantNameCache participantNameCache,
+            PrincipalRefresher principalRefresher) {
         this.userRepo = userRepo;
         this.participantRepo = participantRepo;
         this.passwordEncoder = passwordEncoder;
+        this.participantNameCache = participantNameCache;
+        this.principalRefresher = principalRefresher;
     }
 
     @GetMapping
     public String profile(Principal principal, Model model) {
+        Optional<AppUserPrincipal> appUser = AppUserPrincipal.from(principal);
+        if (appUser.isPresent()) {
+            // The template only reads username and enabled, which the principal carries.
+            model.addAttribute("user", appUser.get());
+            model.addAttribute("currentDisplayName", appUser.get().getDisplayName());
+            return "users/me";
+        }
         var user = userRepo.findByUsername(principal.getName()).orElseThrow();
         String currentDisplayName = participantRepo.findByParticipantTypeAndUserId("USER", user.getId())
                 .map(Participant::getDisplayName)
@@ -48,7 +65,9 @@ public class UserProfileController {
             Principal principal,
             @RequestParam String displayName,
             RedirectAttributes redirectAttributes) {
-        var user = userRepo.findByUsername(principal.getName()).orElseThrow();
+        Long userId = AppUserPrincipal.from(principal)
+                .map(AppUserPrincipal::getUserId)
+                .orElseGet(() -> userRepo.findByUsername(principal.getName()).orElseThrow().getId());
         String normalizedDisplayName = displayName == null ? "" : displayName.trim();
 
         if (normalizedDisplayName.isEmpty()) {
@@ -60,10 +79,12 @@ public class UserProfileController {
             return "redirect:/users/me";
         }
 
-        Participant participant = participantRepo.findByParticipantTypeAndUserId("USER", user.getId())
-                .orElseGet(() -> new Participant("USER", user.getId(), normalizedDisplayName));
+        Participant participant = participantRepo.findByParticipantTypeAndUserId("USER", userId)
+                .orElseGet(() -> new Participant("USER", userId, normalizedDisplayName));
         participant.updateDisplayName(normalizedDisplayName);
-        participantRepo.save(participant);
+        participant = participantRepo.save(participant);
+        participantNameCache.invalidate(participant.getId());
+        principalRefresher.markStale(userId);
 
         redirectAttributes.addFlashAttribute("message", "表示名を更新しました。");
         return "redirect:/users/me";
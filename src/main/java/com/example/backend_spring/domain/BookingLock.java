@@ -0,0 +1,24 @@
+package com.example.backend_spring.domain;
+
+import jakarta.persistence.*;
+
+/**
+ * One lockable row per booking lock key, used by {@code BookingLockService} on databases without named
+ * locks (H2). Rows are created on first use and never deleted; the lock is the row lock, not the row.
+ */
+@Entity
+@Table(name = "booking_locks")
+public class BookingLock {
+
+    @Id
+    @Column(length = 64)
+    private String lockKey;
+
+    protected BookingLock() {}
+
+    public BookingLock(String lockKey) {
+        this.lockKey = lockKey;
+    }
+
+    public String getLockKey() { return lockKey; }
+}
@@ -30,6 +30,10 @@ public class Flow {
 
     private Integer stepCycleSize;
 
+    // Optimistic concurrency: a stale update fails instead of overwriting a concurrent transition.
+    @Version
+    private long version;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -9,7 +9,14 @@ import java.time.LocalDateTime;
 public class FlowStep {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "flowStepIds")
+    @TableGenerator(
+            name = "flowStepIds",
+            table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "flow_steps",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     private Long flowId;
@@ -38,6 +45,9 @@ public class FlowStep {
 
     private int allowedEndMinute = 1440;
 
+    @Version
+    private long version;
+
     protected FlowStep() {}
 
     public FlowStep(Long flowId, int stepOrder, String participantName) {
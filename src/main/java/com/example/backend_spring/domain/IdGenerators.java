@@ -0,0 +1,21 @@
+package com.example.backend_spring.domain;
+
+/**
+ * Shared settings of the pooled table generator used by entities that are written in bulk (steps,
+ * candidates, template steps, slot reservations).
+ *
+ * IDENTITY ids are only known after each INSERT, which makes Hibernate send those inserts one by one.
+ * Ids from {@code id_generators} are handed out in blocks of {@link #ALLOCATION_SIZE}, so a whole
+ * {@code saveAll} goes out as one JDBC batch and the generator table is touched once per block. The
+ * table works on MySQL and H2 alike, unlike sequences. Each entity has its own row ({@code sequence_name}
+ * = table name); {@code DbMaintenanceRunner} moves a row past the table's existing ids on MySQL.
+ */
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generators";
+    public static final String SEGMENT_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {}
+}
@@ -0,0 +1,47 @@
+package com.example.backend_spring.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/** Owner-side counterpart of {@link ParticipantSlotReservation}, keyed by the flow creator. */
+@Entity
+@Table(
+        name = "owner_slot_reservations",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_owner_slot_reservations_owner_slot",
+                columnNames = {"owner_user_id", "slot_start"}))
+public class OwnerSlotReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ownerSlotReservationIds")
+    @TableGenerator(
+            name = "ownerSlotReservationIds",
+            table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "owner_slot_reservations",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long ownerUserId;
+
+    @Column(nullable = false)
+    private LocalDateTime slotStart;
+
+    @Column(nullable = false)
+    private Long flowStepId;
+
+    protected OwnerSlotReservation() {}
+
+    public OwnerSlotReservation(Long ownerUserId, LocalDateTime slotStart, Long flowStepId) {
+        this.ownerUserId = ownerUserId;
+        this.slotStart = slotStart;
+        this.flowStepId = flowStepId;
+    }
+
+    public Long getId() { return id; }
+    public Long getOwnerUserId() { return ownerUserId; }
+    public LocalDateTime getSlotStart() { return slotStart; }
+    public Long getFlowStepId() { return flowStepId; }
+}
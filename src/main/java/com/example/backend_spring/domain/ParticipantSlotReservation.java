@@ -0,0 +1,50 @@
+package com.example.backend_spring.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One 30-minute slot held by a confirmed step for its participant. The unique key makes the database
+ * reject a second booking of the same slot even when both writers passed the overlap checks.
+ */
+@Entity
+@Table(
+        name = "participant_slot_reservations",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_participant_slot_reservations_participant_slot",
+                columnNames = {"participant_id", "slot_start"}))
+public class ParticipantSlotReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "participantSlotReservationIds")
+    @TableGenerator(
+            name = "participantSlotReservationIds",
+            table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "participant_slot_reservations",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long participantId;
+
+    @Column(nullable = false)
+    private LocalDateTime slotStart;
+
+    @Column(nullable = false)
+    private Long flowStepId;
+
+    protected ParticipantSlotReservation() {}
+
+    public ParticipantSlotReservation(Long participantId, LocalDateTime slotStart, Long flowStepId) {
+        this.participantId = participantId;
+        this.slotStart = slotStart;
+        this.flowStepId = flowStepId;
+    }
+
+    public Long getId() { return id; }
+    public Long getParticipantId() { return participantId; }
+    public LocalDateTime getSlotStart() { return slotStart; }
+    public Long getFlowStepId() { return flowStepId; }
+}
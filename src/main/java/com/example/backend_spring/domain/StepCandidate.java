@@ -8,7 +8,14 @@ import java.time.LocalDateTime;
 public class StepCandidate {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "stepCandidateIds")
+    @TableGenerator(
+            name = "stepCandidateIds",
+            table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "step_candidates",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     private Long flowStepId;
@@ -19,6 +26,9 @@ public class StepCandidate {
 
     private String status = "PROPOSED";
 
+    @Version
+    private long version;
+
     protected StepCandidate() {}
 
     public StepCandidate(Long flowStepId, LocalDateTime startAt, LocalDateTime endAt) {
@@ -19,6 +19,10 @@ public class UserAccount {
     @Column(nullable = false)
     private boolean enabled = true;
 
+    // Only changed through UserAccountRepository.incrementPrincipalGeneration, so entity saves never reset it.
+    @Column(name = "principal_generation", nullable = false, updatable = false)
+    private long principalGeneration;
+
     protected UserAccount() {}
 
     public UserAccount(String username, String password, boolean enabled) {
@@ -31,6 +35,7 @@ public class UserAccount {
     public String getUsername() { return username; }
     public String getPassword() { return password; }
     public boolean isEnabled() { return enabled; }
+    public long getPrincipalGeneration() { return principalGeneration; }
 
     public void changePassword(String password) { this.password = password; }
     public void setEnabled(boolean enabled) { this.enabled = enabled; }
@@ -1,12 +1,107 @@
 package com.example.backend_spring.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.backend_spring.domain.Flow;
 
 public interface FlowRepository extends JpaRepository<Flow, Long> {
 
     List<Flow> findAllByOrderByIdDesc();
+
+    long countByIdInAndCreatedByUserId(Collection<Long> ids, Long createdByUserId);
+
+    // Booking lock keys of a batch, read before the flows themselves are loaded.
+    @Query(value = """
+            SELECT DISTINCT f.created_by_user_id
+            FROM flows f
+            WHERE f.id IN (:ids)
+              AND f.created_by_user_id IS NOT NULL
+            """, nativeQuery = true)
+    List<Long> findOwnerUserIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset pages for the flow list. Empty status / keywordPattern means "no filter";
+    // keywordPattern is a lower-cased LIKE pattern escaped with '!'.
+    @Query("""
+            SELECT f
+            FROM Flow f
+            WHERE (:status = '' OR f.status = :status)
+              AND (:keywordPattern = '' OR LOWER(f.title) LIKE :keywordPattern ESCAPE '!')
+            ORDER BY f.createdAt ASC, f.id ASC
+            """)
+    List<Flow> findListPageOrderByCreatedAsc(
+            @Param("status") String status,
+            @Param("keywordPattern") String keywordPattern,
+            Limit limit);
+
+    @Query("""
+            SELECT f
+            FROM Flow f
+            WHERE (:status = '' OR f.status = :status)
+              AND (:keywordPattern = '' OR LOWER(f.title) LIKE :keywordPattern ESCAPE '!')
+              AND (f.createdAt > :afterCreatedAt
+                   OR (f.createdAt = :afterCreatedAt AND f.id > :afterId))
+            ORDER BY f.createdAt ASC, f.id ASC
+            """)
+    List<Flow> findListPageAfterOrderByCreatedAsc(
+            @Param("status") String status,
+            @Param("keywordPattern") String keywordPattern,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    @Query("""
+            SELECT f
+            FROM Flow f
+            WHERE (:status = '' OR f.status = :status)
+              AND (:keywordPattern = '' OR LOWER(f.title) LIKE :keywordPattern ESCAPE '!')
+            ORDER BY f.createdAt DESC, f.id DESC
+            """)
+    List<Flow> findListPageOrderByCreatedDesc(
+            @Param("status") String status,
+            @Param("keywordPattern") String keywordPattern,
+            Limit limit);
+
+    @Query("""
+            SELECT f
+            FROM Flow f
+            WHERE (:status = '' OR f.status = :status)
+              AND (:keywordPattern = '' OR LOWER(f.title) LIKE :keywordPattern ESCAPE '!')
+              AND (f.createdAt < :afterCreatedAt
+                   OR (f.createdAt = :afterCreatedAt AND f.id < :afterId))
+            ORDER BY f.createdAt DESC, f.id DESC
+            """)
+    List<Flow> findListPageAfterOrderByCreatedDesc(
+            @Param("status") String status,
+            @Param("keywordPattern") String keywordPattern,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    // Authorization facts for one flow: its owner and the user behind the ACTIVE current step
+    // (null when the current step is not ACTIVE or its participant is not a user).
+    @Query(value = """
+            SELECT f.created_by_user_id AS ownerUserId,
+                   p.user_id AS activeStepUserId
+            FROM flows f
+            LEFT JOIN flow_steps s
+                   ON s.flow_id = f.id
+                  AND s.step_order = f.current_step_order
+                  AND s.status = 'ACTIVE'
+            LEFT JOIN participants p ON p.id = s.participant_id
+            WHERE f.id = :flowId
+            """, nativeQuery = true)
+    Optional<FlowAccessView> findAccessViewById(@Param("flowId") Long flowId);
+
+    interface FlowAccessView {
+        Long getOwnerUserId();
+        Long getActiveStepUserId();
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.backend_spring.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,32 +16,369 @@ public interface FlowStepRepository extends JpaRepository<FlowStep, Long> {
 
     FlowStep findByFlowIdAndStepOrder(Long flowId, int stepOrder);
 
+    List<FlowStep> findByFlowIdInOrderByFlowIdAscStepOrderAsc(Collection<Long> flowIds);
+
     @Query(value = """
             SELECT
+                fs.flow_id AS flowId,
+                fs.confirmed_start_at AS startAt,
+                fs.confirmed_end_at AS endAt
+            FROM flow_steps fs
+            WHERE fs.flow_id IN (:flowIds)
+              AND fs.confirmed_start_at IS NOT NULL
+              AND fs.confirmed_end_at IS NOT NULL
+              AND fs.step_order = (
+                  SELECT MIN(first_fs.step_order)
+                  FROM flow_steps first_fs
+                  WHERE first_fs.flow_id = fs.flow_id
+                    AND first_fs.confirmed_start_at IS NOT NULL
+                    AND first_fs.confirmed_end_at IS NOT NULL
+              )
+            """, nativeQuery = true)
+    List<ScheduleSlotView> findFirstConfirmedSlotsByFlowIds(@Param("flowIds") Collection<Long> flowIds);
+
+    // Calendar events (confirmed steps and blocking candidates of ACTIVE steps) whose time range
+    // intersects [windowStart, windowEnd), already joined with flow title and participant name.
+    @Query(value = """
+            SELECT
+                f.id AS flowId,
                 f.title AS flowTitle,
-                COALESCE(p.display_name, CONCAT('participant#', fs.participant_id)) AS participantName,
+                COALESCE(p.display_name, 'Unknown') AS participantName,
+                'CONFIRMED' AS status,
                 fs.confirmed_start_at AS startAt,
                 fs.confirmed_end_at AS endAt
             FROM flow_steps fs
             INNER JOIN flows f ON f.id = fs.flow_id
             LEFT JOIN participants p ON p.id = fs.participant_id
-            WHERE ((:createdByUserId IS NULL AND f.created_by_user_id IS NULL) OR f.created_by_user_id = :createdByUserId)
+            WHERE f.id IN (:flowIds)
+              AND fs.status = 'CONFIRMED'
               AND fs.confirmed_start_at IS NOT NULL
               AND fs.confirmed_end_at IS NOT NULL
-              AND (:excludeStepId IS NULL OR fs.id <> :excludeStepId)
-              AND fs.confirmed_start_at < :newEndAt
-              AND fs.confirmed_end_at > :newStartAt
-            ORDER BY fs.confirmed_start_at ASC
-            LIMIT 1
+              AND fs.confirmed_start_at < :windowEnd
+              AND fs.confirmed_end_at > :windowStart
+            UNION ALL
+            SELECT
+                f.id AS flowId,
+                f.title AS flowTitle,
+                COALESCE(p.display_name, 'Unknown') AS participantName,
+                sc.status AS status,
+                sc.start_at AS startAt,
+                sc.end_at AS endAt
+            FROM step_candidates sc
+            INNER JOIN flow_steps fs ON fs.id = sc.flow_step_id
+            INNER JOIN flows f ON f.id = fs.flow_id
+            LEFT JOIN participants p ON p.id = fs.participant_id
+            WHERE f.id IN (:flowIds)
+              AND fs.status = 'ACTIVE'
+              AND sc.status IN ('PROPOSED', 'SELECTED')
+              AND sc.start_at < :windowEnd
+              AND sc.end_at > :windowStart
+            ORDER BY startAt ASC, endAt ASC
             """, nativeQuery = true)
-    Optional<ConflictStepView> findFirstConfirmedConflictForOwner(
-            @Param("createdByUserId") Long createdByUserId,
-            @Param("excludeStepId") Long excludeStepId,
-            @Param("newStartAt") LocalDateTime newStartAt,
-            @Param("newEndAt") LocalDateTime newEndAt);
+    List<CalendarEventView> findCalendarEventsByFlowIdsInWindow(
+            @Param("flowIds") Collection<Long> flowIds,
+            @Param("windowStart") LocalDateTime windowStart,
+            @Param("windowEnd") LocalDateTime windowEnd);
+
+    @Query(value = """
+            SELECT
+                f.id AS flowId,
+                f.title AS flowTitle,
+                COALESCE(p.display_name, 'Unknown') AS participantName,
+                'CONFIRMED' AS status,
+                fs.confirmed_start_at AS startAt,
+                fs.confirmed_end_at AS endAt
+            FROM flow_steps fs
+            INNER JOIN flows f ON f.id = fs.flow_id
+            LEFT JOIN participants p ON p.id = fs.participant_id
+            WHERE (:status = '' OR f.status = :status)
+              AND (:keywordPattern = '' OR LOWER(f.title) LIKE :keywordPattern ESCAPE '!')
+              AND fs.status = 'CONFIRMED'
+              AND fs.confirmed_start_at IS NOT NULL
+              AND fs.confirmed_end_at IS NOT NULL
+              AND fs.confirmed_start_at < :windowEnd
+              AND fs.confirmed_end_at > :windowStart
+            UNION ALL
+            SELECT
+                f.id AS flowId,
+                f.title AS flowTitle,
+                COALESCE(p.display_name, 'Unknown') AS participantName,
+                sc.status AS status,
+                sc.start_at AS startAt,
+                sc.end_at AS endAt
+            FROM step_candidates sc
+            INNER JOIN flow_steps fs ON fs.id = sc.flow_step_id
+            INNER JOIN flows f ON f.id = fs.flow_id
+            LEFT JOIN participants p ON p.id = fs.participant_id
+            WHERE (:status = '' OR f.status = :status)
+              AND (:keywordPattern = '' OR LOWER(f.title) LIKE :keywordPattern ESCAPE '!')
+              AND fs.status = 'ACTIVE'
+              AND sc.status IN ('PROPOSED', 'SELECTED')
+              AND sc.start_at < :windowEnd
+              AND sc.end_at > :windowStart
+            ORDER BY startAt ASC, endAt ASC
+            """, nativeQuery = true)
+    List<CalendarEventView> findCalendarEventsByFlowFilterInWindow(
+            @Param("status") String status,
+            @Param("keywordPattern") String keywordPattern,
+            @Param("windowStart") LocalDateTime windowStart,
+            @Param("windowEnd") LocalDateTime windowEnd);
+
+    @Query("""
+            SELECT DISTINCT fs.participantId
+            FROM FlowStep fs
+            WHERE fs.flowId = :flowId
+              AND fs.participantId IS NOT NULL
+            """)
+    List<Long> findDistinctParticipantIdsByFlowId(@Param("flowId") Long flowId);
+
+    // Same shape as the flow-based calendar queries, driven by idx_flow_steps_participant_status_start
+    // so the cost follows the participants' events in the window instead of the total flow count.
+    @Query(value = """
+            SELECT
+                f.id AS flowId,
+                f.title AS flowTitle,
+                COALESCE(p.display_name, 'Unknown') AS participantName,
+                'CONFIRMED' AS status,
+                fs.confirmed_start_at AS startAt,
+                fs.confirmed_end_at AS endAt
+            FROM flow_steps fs
+            INNER JOIN flows f ON f.id = fs.flow_id
+            LEFT JOIN participants p ON p.id = fs.participant_id
+            WHERE fs.participant_id IN (:participantIds)
+              AND fs.status = 'CONFIRMED'
+              AND fs.confirmed_start_at < :windowEnd
+              AND fs.confirmed_end_at > :windowStart
+            UNION ALL
+            SELECT
+                f.id AS flowId,
+                f.title AS flowTitle,
+                COALESCE(p.display_name, 'Unknown') AS participantName,
+                sc.status AS status,
+                sc.start_at AS startAt,
+                sc.end_at AS endAt
+            FROM flow_steps fs
+            INNER JOIN step_candidates sc ON sc.flow_step_id = fs.id
+            INNER JOIN flows f ON f.id = fs.flow_id
+            LEFT JOIN participants p ON p.id = fs.participant_id
+            WHERE fs.participant_id IN (:participantIds)
+              AND fs.status = 'ACTIVE'
+              AND sc.status IN ('PROPOSED', 'SELECTED')
+              AND sc.start_at < :windowEnd
+              AND sc.end_at > :windowStart
+            ORDER BY startAt ASC, endAt ASC
+            """, nativeQuery = true)
+    List<CalendarEventView> findCalendarEventsByParticipantIdsInWindow(
+            @Param("participantIds") Collection<Long> participantIds,
+            @Param("windowStart") LocalDateTime windowStart,
+            @Param("windowEnd") LocalDateTime windowEnd);
 
+    // Intervals that can block a booking (confirmed steps, PROPOSED/SELECTED candidates of ACTIVE steps),
+    // used to warm and refresh ScheduleConflictIndex.
     @Query(value = """
             SELECT
+                f.id AS flowId,
+                f.created_by_user_id AS ownerUserId,
+                fs.id AS stepId,
+                fs.participant_id AS participantId,
+                'CONFIRMED' AS status,
+                fs.confirmed_start_at AS startAt,
+                fs.confirmed_end_at AS endAt
+            FROM flow_steps fs
+            INNER JOIN flows f ON f.id = fs.flow_id
+            WHERE fs.confirmed_start_at IS NOT NULL
+              AND fs.confirmed_end_at > :endAfter
+            UNION ALL
+            SELECT
+                f.id AS flowId,
+                f.created_by_user_id AS ownerUserId,
+                fs.id AS stepId,
+                fs.participant_id AS participantId,
+                sc.status AS status,
+                sc.start_at AS startAt,
+                sc.end_at AS endAt
+            FROM step_candidates sc
+            INNER JOIN flow_steps fs ON fs.id = sc.flow_step_id
+            INNER JOIN flows f ON f.id = fs.flow_id
+            WHERE fs.status = 'ACTIVE'
+              AND sc.status IN ('PROPOSED', 'SELECTED')
+              AND sc.end_at > :endAfter
+            """, nativeQuery = true)
+    List<BlockingIntervalView> findBlockingIntervalsEndingAfter(@Param("endAfter") LocalDateTime endAfter);
+
+    @Query(value = """
+            SELECT
+                f.id AS flowId,
+                f.created_by_user_id AS ownerUserId,
+                fs.id AS stepId,
+                fs.participant_id AS participantId,
+                'CONFIRMED' AS status,
+                fs.confirmed_start_at AS startAt,
+                fs.confirmed_end_at AS endAt
+            FROM flow_steps fs
+            INNER JOIN flows f ON f.id = fs.flow_id
+            WHERE fs.flow_id = :flowId
+              AND fs.confirmed_start_at IS NOT NULL
+              AND fs.confirmed_end_at IS NOT NULL
+            UNION ALL
+            SELECT
+                f.id AS flowId,
+                f.created_by_user_id AS ownerUserId,
+                fs.id AS stepId,
+                fs.participant_id AS participantId,
+                sc.status AS status,
+                sc.start_at AS startAt,
+                sc.end_at AS endAt
+            FROM step_candidates sc
+            INNER JOIN flow_steps fs ON fs.id = sc.flow_step_id
+            INNER JOIN flows f ON f.id = fs.flow_id
+            WHERE fs.flow_id = :flowId
+              AND fs.status = 'ACTIVE'
+              AND sc.status IN ('PROPOSED', 'SELECTED')
+            """, nativeQuery = true)
+    List<BlockingIntervalView> findBlockingIntervalsByFlowId(@Param("flowId") Long flowId);
+
+    // Blocking intervals of one owner or one participant intersecting [windowStart, windowEnd),
+    // fetched in one round trip for the available-slot search.
+    @Query(value = """
+            SELECT
+                f.id AS flowId,
+                f.created_by_user_id AS ownerUserId,
+                fs.id AS stepId,
+                fs.participant_id AS participantId,
+                'CONFIRMED' AS status,
+                fs.confirmed_start_at AS startAt,
+                fs.confirmed_end_at AS endAt
+            FROM flow_steps fs
+            INNER JOIN flows f ON f.id = fs.flow_id
+            WHERE (f.created_by_user_id = :ownerUserId OR fs.participant_id = :participantId)
+              AND fs.confirmed_start_at < :windowEnd
+              AND fs.confirmed_end_at > :windowStart
+            UNION ALL
+            SELECT
+                f.id AS flowId,
+                f.created_by_user_id AS ownerUserId,
+                fs.id AS stepId,
+                fs.participant_id AS participantId,
+                sc.status AS status,
+                sc.start_at AS startAt,
+                sc.end_at AS endAt
+            FROM step_candidates sc
+            INNER JOIN flow_steps fs ON fs.id = sc.flow_step_id
+            INNER JOIN flows f ON f.id = fs.flow_id
+            WHERE (f.created_by_user_id = :ownerUserId OR fs.participant_id = :participantId)
+              AND fs.status = 'ACTIVE'
+              AND sc.status IN ('PROPOSED', 'SELECTED')
+              AND sc.start_at < :windowEnd
+              AND sc.end_at > :windowStart
+            ORDER BY startAt ASC
+            """, nativeQuery = true)
+    List<BlockingIntervalView> findBlockingIntervalsForOwnerOrParticipantInWindow(
+            @Param("ownerUserId") Long ownerUserId,
+            @Param("participantId") Long participantId,
+            @Param("windowStart") LocalDateTime windowStart,
+            @Param("windowEnd") LocalDateTime windowEnd);
+
+    /**
+     * Everything that can block one booking, in a single statement: the owner's and the participant's
+     * conflicting candidates and confirmed steps (every conflicting row, not only the first), plus the
+     * flow's previous step whatever its times are, so the caller can check the step-order boundary
+     * without another round trip.
+     *
+     * Every branch filters on plain equality so MySQL can use the owner, participant and flow indexes;
+     * there are no {@code :x IS NULL OR ...} escapes. Callers pass an id that never exists (-1) for a
+     * missing owner, participant or excluded step, which empties that branch or excludes nothing, and
+     * previous step order 0 to skip the boundary row. Flows without an owner share the owner rules with
+     * each other: with {@code ownerlessFlow} set, two more branches match {@code created_by_user_id IS NULL}.
+     */
+    @Query(value = """
+            SELECT
+                'OWNER_CANDIDATE' AS conflictType,
+                f.title AS flowTitle,
+                COALESCE(p.display_name, CONCAT('participant#', fs.participant_id)) AS participantName,
+                sc.start_at AS startAt,
+                sc.end_at AS endAt
+            FROM step_candidates sc
+            INNER JOIN flow_steps fs ON fs.id = sc.flow_step_id
+            INNER JOIN flows f ON f.id = fs.flow_id
+            LEFT JOIN participants p ON p.id = fs.participant_id
+            WHERE f.created_by_user_id = :ownerUserId
+              AND fs.status = 'ACTIVE'
+              AND sc.status = 'PROPOSED'
+              AND sc.flow_step_id <> :ownerExcludeStepId
+              AND sc.start_at < :newEndAt
+              AND sc.end_at > :newStartAt
+            UNION ALL
+            SELECT
+                'OWNER_CONFIRMED' AS conflictType,
+                f.title AS flowTitle,
+                COALESCE(p.display_name, CONCAT('participant#', fs.participant_id)) AS participantName,
+                fs.confirmed_start_at AS startAt,
+                fs.confirmed_end_at AS endAt
+            FROM flow_steps fs
+            INNER JOIN flows f ON f.id = fs.flow_id
+            LEFT JOIN participants p ON p.id = fs.participant_id
+            WHERE f.created_by_user_id = :ownerUserId
+              AND fs.confirmed_start_at IS NOT NULL
+              AND fs.confirmed_end_at IS NOT NULL
+              AND fs.id <> :ownerExcludeStepId
+              AND fs.confirmed_start_at < :newEndAt
+              AND fs.confirmed_end_at > :newStartAt
+            UNION ALL
+            SELECT
+                'OWNER_CANDIDATE' AS conflictType,
+                f.title AS flowTitle,
+                COALESCE(p.display_name, CONCAT('participant#', fs.participant_id)) AS participantName,
+                sc.start_at AS startAt,
+                sc.end_at AS endAt
+            FROM step_candidates sc
+            INNER JOIN flow_steps fs ON fs.id = sc.flow_step_id
+            INNER JOIN flows f ON f.id = fs.flow_id
+            LEFT JOIN participants p ON p.id = fs.participant_id
+            WHERE f.created_by_user_id IS NULL
+              AND :ownerlessFlow = TRUE
+              AND fs.status = 'ACTIVE'
+              AND sc.status = 'PROPOSED'
+              AND sc.flow_step_id <> :ownerExcludeStepId
+              AND sc.start_at < :newEndAt
+              AND sc.end_at > :newStartAt
+            UNION ALL
+            SELECT
+                'OWNER_CONFIRMED' AS conflictType,
+                f.title AS flowTitle,
+                COALESCE(p.display_name, CONCAT('participant#', fs.participant_id)) AS participantName,
+                fs.confirmed_start_at AS startAt,
+                fs.confirmed_end_at AS endAt
+            FROM flow_steps fs
+            INNER JOIN flows f ON f.id = fs.flow_id
+            LEFT JOIN participants p ON p.id = fs.participant_id
+            WHERE f.created_by_user_id IS NULL
+              AND :ownerlessFlow = TRUE
+              AND fs.confirmed_start_at IS NOT NULL
+              AND fs.confirmed_end_at IS NOT NULL
+              AND fs.id <> :ownerExcludeStepId
+              AND fs.confirmed_start_at < :newEndAt
+              AND fs.confirmed_end_at > :newStartAt
+            UNION ALL
+            SELECT
+                'PARTICIPANT_CANDIDATE' AS conflictType,
+                f.title AS flowTitle,
+                COALESCE(p.display_name, CONCAT('participant#', fs.participant_id)) AS participantName,
+                sc.start_at AS startAt,
+                sc.end_at AS endAt
+            FROM step_candidates sc
+            INNER JOIN flow_steps fs ON fs.id = sc.flow_step_id
+            INNER JOIN flows f ON f.id = fs.flow_id
+            LEFT JOIN participants p ON p.id = fs.participant_id
+            WHERE fs.participant_id = :participantId
+              AND fs.status = 'ACTIVE'
+              AND sc.status IN ('PROPOSED', 'SELECTED')
+              AND sc.flow_step_id <> :participantExcludeStepId
+              AND sc.start_at < :newEndAt
+              AND sc.end_at > :newStartAt
+            UNION ALL
+            SELECT
+                'PARTICIPANT_CONFIRMED' AS conflictType,
                 f.title AS flowTitle,
                 COALESCE(p.display_name, CONCAT('participant#', fs.participant_id)) AS participantName,
                 fs.confirmed_start_at AS startAt,
@@ -51,18 +389,211 @@ public interface FlowStepRepository extends JpaRepository<FlowStep, Long> {
             WHERE fs.participant_id = :participantId
               AND fs.confirmed_start_at IS NOT NULL
               AND fs.confirmed_end_at IS NOT NULL
-              AND (:excludeStepId IS NULL OR fs.id <> :excludeStepId)
+              AND fs.id <> :participantExcludeStepId
               AND fs.confirmed_start_at < :newEndAt
               AND fs.confirmed_end_at > :newStartAt
-            ORDER BY fs.confirmed_start_at ASC
-            LIMIT 1
+            UNION ALL
+            SELECT
+                'PREVIOUS_STEP' AS conflictType,
+                f.title AS flowTitle,
+                COALESCE(p.display_name, CONCAT('participant#', fs.participant_id)) AS participantName,
+                fs.confirmed_start_at AS startAt,
+                fs.confirmed_end_at AS endAt
+            FROM flow_steps fs
+            INNER JOIN flows f ON f.id = fs.flow_id
+            LEFT JOIN participants p ON p.id = fs.participant_id
+            WHERE fs.flow_id = :flowId
+              AND fs.step_order = :previousStepOrder
             """, nativeQuery = true)
-    Optional<ConflictStepView> findFirstConfirmedConflictForParticipant(
+    List<BookingConflictView> findBookingConflicts(
+            @Param("ownerUserId") Long ownerUserId,
+            @Param("ownerExcludeStepId") Long ownerExcludeStepId,
+            @Param("ownerlessFlow") boolean ownerlessFlow,
             @Param("participantId") Long participantId,
-            @Param("excludeStepId") Long excludeStepId,
+            @Param("participantExcludeStepId") Long participantExcludeStepId,
+            @Param("flowId") Long flowId,
+            @Param("previousStepOrder") int previousStepOrder,
             @Param("newStartAt") LocalDateTime newStartAt,
             @Param("newEndAt") LocalDateTime newEndAt);
 
+    // Multi-flow variant of findBlockingIntervalsByFlowId, used to refresh the conflict index after a batch.
+    @Query(value = """
+            SELECT
+                f.id AS flowId,
+                f.created_by_user_id AS ownerUserId,
+                fs.id AS stepId,
+                fs.participant_id AS participantId,
+                'CONFIRMED' AS status,
+                fs.confirmed_start_at AS startAt,
+                fs.confirmed_end_at AS endAt
+            FROM flow_steps fs
+            INNER JOIN flows f ON f.id = fs.flow_id
+            WHERE fs.flow_id IN (:flowIds)
+              AND fs.confirmed_start_at IS NOT NULL
+              AND fs.confirmed_end_at IS NOT NULL
+            UNION ALL
+            SELECT
+                f.id AS flowId,
+                f.created_by_user_id AS ownerUserId,
+                fs.id AS stepId,
+                fs.participant_id AS participantId,
+                sc.status AS status,
+                sc.start_at AS startAt,
+                sc.end_at AS endAt
+            FROM step_candidates sc
+            INNER JOIN flow_steps fs ON fs.id = sc.flow_step_id
+            INNER JOIN flows f ON f.id = fs.flow_id
+            WHERE fs.flow_id IN (:flowIds)
+              AND fs.status = 'ACTIVE'
+              AND sc.status IN ('PROPOSED', 'SELECTED')
+            """, nativeQuery = true)
+    List<BlockingIntervalView> findBlockingIntervalsByFlowIds(@Param("flowIds") Collection<Long> flowIds);
+
+    // Blocking intervals of any of the owners or participants intersecting [windowStart, windowEnd),
+    // fetched in one round trip for batch planning.
+    @Query(value = """
+            SELECT
+                f.id AS flowId,
+                f.created_by_user_id AS ownerUserId,
+                fs.id AS stepId,
+                fs.participant_id AS participantId,
+                'CONFIRMED' AS status,
+                fs.confirmed_start_at AS startAt,
+                fs.confirmed_end_at AS endAt
+            FROM flow_steps fs
+            INNER JOIN flows f ON f.id = fs.flow_id
+            WHERE (f.created_by_user_id IN (:ownerUserIds) OR fs.participant_id IN (:participantIds))
+              AND fs.confirmed_start_at < :windowEnd
+              AND fs.confirmed_end_at > :windowStart
+            UNION ALL
+            SELECT
+                f.id AS flowId,
+                f.created_by_user_id AS ownerUserId,
+                fs.id AS stepId,
+                fs.participant_id AS participantId,
+                sc.status AS status,
+                sc.start_at AS startAt,
+                sc.end_at AS endAt
+            FROM step_candidates sc
+            INNER JOIN flow_steps fs ON fs.id = sc.flow_step_id
+            INNER JOIN flows f ON f.id = fs.flow_id
+            WHERE (f.created_by_user_id IN (:ownerUserIds) OR fs.participant_id IN (:participantIds))
+              AND fs.status = 'ACTIVE'
+              AND sc.status IN ('PROPOSED', 'SELECTED')
+              AND sc.start_at < :windowEnd
+              AND sc.end_at > :windowStart
+            """, nativeQuery = true)
+    List<BlockingIntervalView> findBlockingIntervalsForOwnersOrParticipantsInWindow(
+            @Param("ownerUserIds") Collection<Long> ownerUserIds,
+            @Param("participantIds") Collection<Long> participantIds,
+            @Param("windowStart") LocalDateTime windowStart,
+            @Param("windowEnd") LocalDateTime windowEnd);
+
+    // Blocking intervals of any of the participants intersecting [windowStart, windowEnd), for free/busy
+    // bitmaps when the conflict index is off.
+    @Query(value = """
+            SELECT
+                f.id AS flowId,
+                f.created_by_user_id AS ownerUserId,
+                fs.id AS stepId,
+                fs.participant_id AS participantId,
+                'CONFIRMED' AS status,
+                fs.confirmed_start_at AS startAt,
+                fs.confirmed_end_at AS endAt
+            FROM flow_steps fs
+            INNER JOIN flows f ON f.id = fs.flow_id
+            WHERE fs.participant_id IN (:participantIds)
+              AND fs.confirmed_start_at < :windowEnd
+              AND fs.confirmed_end_at > :windowStart
+            UNION ALL
+            SELECT
+                f.id AS flowId,
+                f.created_by_user_id AS ownerUserId,
+                fs.id AS stepId,
+                fs.participant_id AS participantId,
+                sc.status AS status,
+                sc.start_at AS startAt,
+                sc.end_at AS endAt
+            FROM step_candidates sc
+            INNER JOIN flow_steps fs ON fs.id = sc.flow_step_id
+            INNER JOIN flows f ON f.id = fs.flow_id
+            WHERE fs.participant_id IN (:participantIds)
+              AND fs.status = 'ACTIVE'
+              AND sc.status IN ('PROPOSED', 'SELECTED')
+              AND sc.start_at < :windowEnd
+              AND sc.end_at > :windowStart
+            """, nativeQuery = true)
+    List<BlockingIntervalView> findBlockingIntervalsForParticipantsInWindow(
+            @Param("participantIds") Collection<Long> participantIds,
+            @Param("windowStart") LocalDateTime windowStart,
+            @Param("windowEnd") LocalDateTime windowEnd);
+
+    // Booking lock keys, read before anything else in a booking transaction: the flow's owner and the
+    // participant of its current step (none when the flow has no step at that position).
+    @Query(value = """
+            SELECT f.created_by_user_id AS ownerUserId, fs.participant_id AS participantId
+            FROM flows f
+            LEFT JOIN flow_steps fs ON fs.flow_id = f.id AND fs.step_order = f.current_step_order
+            WHERE f.id = :flowId
+            """, nativeQuery = true)
+    Optional<BookingKeyView> findBookingKeyOfActiveStep(@Param("flowId") Long flowId);
+
+    // Same, for one step of the flow.
+    @Query(value = """
+            SELECT f.created_by_user_id AS ownerUserId, fs.participant_id AS participantId
+            FROM flows f
+            LEFT JOIN flow_steps fs ON fs.flow_id = f.id AND fs.id = :stepId
+            WHERE f.id = :flowId
+            """, nativeQuery = true)
+    Optional<BookingKeyView> findBookingKeyOfStep(@Param("flowId") Long flowId, @Param("stepId") Long stepId);
+
+    // Same, one row per step of the flow, for bookings that may move any of them.
+    @Query(value = """
+            SELECT f.created_by_user_id AS ownerUserId, fs.participant_id AS participantId
+            FROM flows f
+            LEFT JOIN flow_steps fs ON fs.flow_id = f.id
+            WHERE f.id = :flowId
+            """, nativeQuery = true)
+    List<BookingKeyView> findBookingKeysOfFlow(@Param("flowId") Long flowId);
+
+    interface CalendarEventView {
+        Long getFlowId();
+
+        String getFlowTitle();
+
+        String getParticipantName();
+
+        String getStatus();
+
+        LocalDateTime getStartAt();
+
+        LocalDateTime getEndAt();
+    }
+
+    interface ScheduleSlotView {
+        Long getFlowId();
+
+        LocalDateTime getStartAt();
+
+        LocalDateTime getEndAt();
+    }
+
+    interface BlockingIntervalView {
+        Long getFlowId();
+
+        Long getOwnerUserId();
+
+        Long getStepId();
+
+        Long getParticipantId();
+
+        String getStatus();
+
+        LocalDateTime getStartAt();
+
+        LocalDateTime getEndAt();
+    }
+
     interface ConflictStepView {
         String getFlowTitle();
 
@@ -72,4 +603,20 @@ public interface FlowStepRepository extends JpaRepository<FlowStep, Long> {
 
         LocalDateTime getEndAt();
     }
+
+    interface BookingKeyView {
+        Long getOwnerUserId();
+
+        Long getParticipantId();
+    }
+
+    interface BookingConflictView extends ConflictStepView {
+        String CONFLICT_OWNER_CANDIDATE = "OWNER_CANDIDATE";
+        String CONFLICT_OWNER_CONFIRMED = "OWNER_CONFIRMED";
+        String CONFLICT_PARTICIPANT_CANDIDATE = "PARTICIPANT_CANDIDATE";
+        String CONFLICT_PARTICIPANT_CONFIRMED = "PARTICIPANT_CONFIRMED";
+        String CONFLICT_PREVIOUS_STEP = "PREVIOUS_STEP";
+
+        String getConflictType();
+    }
 }
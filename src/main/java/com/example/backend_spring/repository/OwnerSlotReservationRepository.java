@@ -0,0 +1,17 @@
+package com.example.backend_spring.repository;
+
+import java.util.Collection;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.backend_spring.domain.OwnerSlotReservation;
+
+public interface OwnerSlotReservationRepository extends JpaRepository<OwnerSlotReservation, Long> {
+
+    @Modifying
+    @Query("DELETE FROM OwnerSlotReservation r WHERE r.flowStepId IN (:flowStepIds)")
+    int deleteByFlowStepIds(@Param("flowStepIds") Collection<Long> flowStepIds);
+}
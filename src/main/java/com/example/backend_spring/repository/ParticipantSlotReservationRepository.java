@@ -0,0 +1,18 @@
+package com.example.backend_spring.repository;
+
+import java.util.Collection;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.backend_spring.domain.ParticipantSlotReservation;
+
+public interface ParticipantSlotReservationRepository extends JpaRepository<ParticipantSlotReservation, Long> {
+
+    // Bulk delete so the rows are gone before re-inserting the same slots in the same transaction.
+    @Modifying
+    @Query("DELETE FROM ParticipantSlotReservation r WHERE r.flowStepId IN (:flowStepIds)")
+    int deleteByFlowStepIds(@Param("flowStepIds") Collection<Long> flowStepIds);
+}
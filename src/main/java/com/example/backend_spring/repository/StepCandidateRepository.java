@@ -3,7 +3,6 @@ package com.example.backend_spring.repository;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -15,6 +14,8 @@ public interface StepCandidateRepository extends JpaRepository<StepCandidate, Lo
 
     List<StepCandidate> findByFlowStepIdOrderByStartAtAsc(Long flowStepId);
 
+    List<StepCandidate> findByFlowStepIdIn(Collection<Long> flowStepIds);
+
     boolean existsByStatusInAndStartAtGreaterThanEqualAndStartAtLessThan(
             Collection<String> statuses,
             LocalDateTime from,
@@ -27,58 +28,20 @@ public interface StepCandidateRepository extends JpaRepository<StepCandidate, Lo
 
     @Query(value = """
             SELECT
-                f.title AS flowTitle,
-                COALESCE(p.display_name, CONCAT('participant#', fs.participant_id)) AS participantName,
-                sc.start_at AS startAt,
-                sc.end_at AS endAt
-            FROM step_candidates sc
-            INNER JOIN flow_steps fs ON fs.id = sc.flow_step_id
-            INNER JOIN flows f ON f.id = fs.flow_id
-            LEFT JOIN participants p ON p.id = fs.participant_id
-            WHERE ((:createdByUserId IS NULL AND f.created_by_user_id IS NULL) OR f.created_by_user_id = :createdByUserId)
-              AND fs.status = 'ACTIVE'
-              AND sc.status = 'PROPOSED'
-              AND (:excludeFlowStepId IS NULL OR sc.flow_step_id <> :excludeFlowStepId)
-              AND sc.start_at < :newEndAt
-              AND sc.end_at > :newStartAt
-            ORDER BY sc.start_at ASC
-            LIMIT 1
-            """, nativeQuery = true)
-    Optional<ConflictCandidateView> findFirstTimeConflictForOwner(
-            @Param("createdByUserId") Long createdByUserId,
-            @Param("excludeFlowStepId") Long excludeFlowStepId,
-            @Param("newStartAt") LocalDateTime newStartAt,
-            @Param("newEndAt") LocalDateTime newEndAt);
-
-    @Query(value = """
-            SELECT
-                f.title AS flowTitle,
-                COALESCE(p.display_name, CONCAT('participant#', fs.participant_id)) AS participantName,
+                f.id AS flowId,
                 sc.start_at AS startAt,
                 sc.end_at AS endAt
-            FROM step_candidates sc
-            INNER JOIN flow_steps fs ON fs.id = sc.flow_step_id
-            INNER JOIN flows f ON f.id = fs.flow_id
-            LEFT JOIN participants p ON p.id = fs.participant_id
-            WHERE fs.participant_id = :participantId
-              AND fs.status = 'ACTIVE'
+            FROM flows f
+            INNER JOIN flow_steps fs ON fs.flow_id = f.id AND fs.step_order = f.current_step_order
+            INNER JOIN step_candidates sc ON sc.flow_step_id = fs.id
+            WHERE f.id IN (:flowIds)
               AND sc.status IN ('PROPOSED', 'SELECTED')
-              AND (:excludeFlowStepId IS NULL OR sc.flow_step_id <> :excludeFlowStepId)
-              AND sc.start_at < :newEndAt
-              AND sc.end_at > :newStartAt
-            ORDER BY sc.start_at ASC
-            LIMIT 1
+            ORDER BY f.id ASC, sc.start_at ASC
             """, nativeQuery = true)
-    Optional<ConflictCandidateView> findFirstTimeConflictForParticipant(
-            @Param("participantId") Long participantId,
-            @Param("excludeFlowStepId") Long excludeFlowStepId,
-            @Param("newStartAt") LocalDateTime newStartAt,
-            @Param("newEndAt") LocalDateTime newEndAt);
-
-    interface ConflictCandidateView {
-        String getFlowTitle();
+    List<ScheduleSlotView> findBlockingSlotsOfCurrentStepByFlowIds(@Param("flowIds") Collection<Long> flowIds);
 
-        String getParticipantName();
+    interface ScheduleSlotView {
+        Long getFlowId();
 
         LocalDateTime getStartAt();
 
@@ -4,8 +4,10 @@ import java.util.Optional;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.backend_spring.domain.UserAccount;
 
@@ -21,4 +23,56 @@ public interface UserAccountRepository extends JpaRepository<UserAccount, Long>
             ORDER BY r.name
             """, nativeQuery = true)
     List<String> findRoleNamesByUserId(@Param("userId") Long userId);
+
+    @Query(value = """
+            SELECT ur.user_id AS userId, r.name AS roleName
+            FROM user_roles ur
+            INNER JOIN roles r ON r.id = ur.role_id
+            ORDER BY ur.user_id, r.name
+            """, nativeQuery = true)
+    List<UserRoleNameView> findAllUserRoleNames();
+
+    // One row per role (or one row with a null role); the USER participant is joined onto every row.
+    @Query(value = """
+            SELECT u.id AS userId,
+                   u.username AS username,
+                   u.password AS password,
+                   u.enabled AS enabled,
+                   u.principal_generation AS principalGeneration,
+                   r.name AS roleName,
+                   p.id AS participantId,
+                   p.display_name AS displayName
+            FROM users u
+            LEFT JOIN user_roles ur ON ur.user_id = u.id
+            LEFT JOIN roles r ON r.id = ur.role_id
+            LEFT JOIN participants p ON p.participant_type = 'USER' AND p.user_id = u.id
+            WHERE u.username = :username
+            ORDER BY r.name
+            """, nativeQuery = true)
+    List<UserPrincipalRow> findPrincipalRowsByUsername(@Param("username") String username);
+
+    @Query(value = "SELECT u.principal_generation FROM users u WHERE u.id = :userId", nativeQuery = true)
+    Optional<Long> findPrincipalGenerationById(@Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE users SET principal_generation = principal_generation + 1 WHERE id = :userId",
+            nativeQuery = true)
+    int incrementPrincipalGeneration(@Param("userId") Long userId);
+
+    interface UserPrincipalRow {
+        Long getUserId();
+        String getUsername();
+        String getPassword();
+        Boolean getEnabled();
+        Long getPrincipalGeneration();
+        String getRoleName();
+        Long getParticipantId();
+        String getDisplayName();
+    }
+
+    interface UserRoleNameView {
+        Long getUserId();
+        String getRoleName();
+    }
 }
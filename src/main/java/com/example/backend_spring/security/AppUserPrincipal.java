@@ -0,0 +1,65 @@
+package com.example.backend_spring.security;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Principal built by {@link DbUserDetailsService} at login, so request handling can read the user id,
+ * participant and display name from the security context instead of querying by username.
+ * {@link #getGeneration()} ties it to {@link PrincipalRefresher} for reloading after profile or role changes.
+ */
+public class AppUserPrincipal extends User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long userId;
+    private final Long participantId;
+    private final String displayName;
+    private final long generation;
+
+    public AppUserPrincipal(
+            Long userId,
+            String username,
+            String password,
+            boolean enabled,
+            Collection<? extends GrantedAuthority> authorities,
+            Long participantId,
+            String displayName,
+            long generation) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.userId = userId;
+        this.participantId = participantId;
+        this.displayName = displayName == null || displayName.isBlank() ? username : displayName;
+        this.generation = generation;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    /** USER participant linked to this account, or null if none exists yet. */
+    public Long getParticipantId() {
+        return participantId;
+    }
+
+    /** Participant display name, falling back to the username. */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    /** The enriched principal of {@code authentication}, if it was created by {@link DbUserDetailsService}. */
+    public static Optional<AppUserPrincipal> from(Object authentication) {
+        if (authentication instanceof Authentication auth && auth.getPrincipal() instanceof AppUserPrincipal principal) {
+            return Optional.of(principal);
+        }
+        return Optional.empty();
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.backend_spring.security;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.*;
@@ -13,32 +15,47 @@ import com.example.backend_spring.repository.UserAccountRepository;
 public class DbUserDetailsService implements UserDetailsService {
 
     private final UserAccountRepository repo;
+    private final PrincipalRefresher refresher;
 
-    public DbUserDetailsService(UserAccountRepository repo) {
+    public DbUserDetailsService(UserAccountRepository repo, PrincipalRefresher refresher) {
         this.repo = repo;
+        this.refresher = refresher;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        var user = repo.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
-
-        List<String> roleNames = repo.findRoleNamesByUserId(user.getId());
+        List<UserAccountRepository.UserPrincipalRow> rows = repo.findPrincipalRowsByUsername(username);
+        if (rows.isEmpty()) {
+            throw new UsernameNotFoundException("User not found: " + username);
+        }
+        var user = rows.get(0);
+        // Read in the same statement as roles and name, so the principal matches the generation it carries.
+        long generation = user.getPrincipalGeneration() == null ? 0L : user.getPrincipalGeneration();
+        refresher.remember(user.getUserId(), generation);
+
+        Set<String> roleNames = new LinkedHashSet<>();
+        for (var row : rows) {
+            if (row.getRoleName() != null) {
+                roleNames.add(row.getRoleName().trim());
+            }
+        }
         if (roleNames.isEmpty()) {
-            roleNames = List.of("ROLE_USER");
+            roleNames.add("ROLE_USER");
         }
 
         var authorities = roleNames.stream()
-                .map(String::trim)
                 .filter(s -> !s.isEmpty())
                 .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toList());
 
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword())
-                .disabled(!user.isEnabled())
-                .authorities(authorities)
-                .build();
+        return new AppUserPrincipal(
+                user.getUserId(),
+                user.getUsername(),
+                user.getPassword(),
+                Boolean.TRUE.equals(user.getEnabled()),
+                authorities,
+                user.getParticipantId(),
+                user.getDisplayName(),
+                generation);
     }
 }
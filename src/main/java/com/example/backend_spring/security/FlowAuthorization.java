@@ -1,33 +1,38 @@
 package com.example.backend_spring.security;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
-import com.example.backend_spring.domain.Flow;
-import com.example.backend_spring.domain.FlowStep;
 import com.example.backend_spring.repository.FlowRepository;
-import com.example.backend_spring.repository.FlowStepRepository;
-import com.example.backend_spring.repository.ParticipantRepository;
+import com.example.backend_spring.repository.FlowRepository.FlowAccessView;
 import com.example.backend_spring.repository.UserAccountRepository;
+import com.example.backend_spring.service.FlowAggregate;
 
+/**
+ * Flow-level authorization rules used by {@code @PreAuthorize}. The owner and the ACTIVE step's user
+ * of a flow are read with one query and memoized for the rest of the current request, so several
+ * checks against the same flow within one request share a single lookup.
+ */
 @Component("flowAuthorization")
 public class FlowAuthorization {
 
+    private static final String ACCESS_MEMO_ATTRIBUTE = FlowAuthorization.class.getName() + ".accessMemo";
+
     private final FlowRepository flowRepo;
-    private final FlowStepRepository stepRepo;
-    private final ParticipantRepository participantRepo;
     private final UserAccountRepository userRepo;
 
-    public FlowAuthorization(
-            FlowRepository flowRepo,
-            FlowStepRepository stepRepo,
-            ParticipantRepository participantRepo,
-            UserAccountRepository userRepo) {
+    public FlowAuthorization(FlowRepository flowRepo, UserAccountRepository userRepo) {
         this.flowRepo = flowRepo;
-        this.stepRepo = stepRepo;
-        this.participantRepo = participantRepo;
         this.userRepo = userRepo;
     }
 
@@ -39,37 +44,49 @@ public class FlowAuthorization {
         if (currentUserId.isEmpty()) {
             return false;
         }
-        return flowRepo.findById(flowId)
-                .map(Flow::getCreatedByUserId)
-                .filter(currentUserId.get()::equals)
-                .isPresent();
+        return accessView(flowId)
+                .map(view -> currentUserId.get().equals(view.getOwnerUserId()))
+                .orElse(false);
     }
 
-    public boolean canOperateActiveStep(Long flowId, Authentication authentication) {
+    /** True when the user may manage every one of the flows; one count query regardless of their number. */
+    public boolean canManageFlows(Collection<Long> flowIds, Authentication authentication) {
         if (isAdmin(authentication)) {
             return true;
         }
         Optional<Long> currentUserId = currentUserId(authentication);
-        if (currentUserId.isEmpty()) {
+        if (currentUserId.isEmpty() || flowIds == null || flowIds.isEmpty()) {
             return false;
         }
+        Set<Long> distinctIds = new HashSet<>(flowIds);
+        return flowRepo.countByIdInAndCreatedByUserId(distinctIds, currentUserId.get()) == distinctIds.size();
+    }
 
-        Optional<Flow> flowOpt = flowRepo.findById(flowId);
-        if (flowOpt.isEmpty()) {
-            return false;
+    public boolean canOperateActiveStep(Long flowId, Authentication authentication) {
+        if (isAdmin(authentication)) {
+            return true;
         }
-
-        Flow flow = flowOpt.get();
-        FlowStep activeStep = stepRepo.findByFlowIdAndStepOrder(flowId, flow.getCurrentStepOrder());
-        if (activeStep == null || !"ACTIVE".equals(activeStep.getStatus()) || activeStep.getParticipantId() == null) {
+        Optional<Long> currentUserId = currentUserId(authentication);
+        if (currentUserId.isEmpty()) {
             return false;
         }
-
-        return participantRepo.findById(activeStep.getParticipantId())
-                .map(p -> p.getUserId() != null && p.getUserId().equals(currentUserId.get()))
+        return accessView(flowId)
+                .map(view -> Objects.equals(currentUserId.get(), view.getActiveStepUserId()))
                 .orElse(false);
     }
 
+    /**
+     * Evaluates canManageFlow/canOperateActiveStep against an already loaded aggregate, resolving the
+     * current user once instead of reloading the flow, step and participant per check.
+     */
+    public FlowAccess accessTo(FlowAggregate aggregate, Authentication authentication) {
+        if (isAdmin(authentication)) {
+            return new FlowAccess(true, true, true);
+        }
+        Long userId = currentUserId(authentication).orElse(null);
+        return new FlowAccess(false, aggregate.isOwnedBy(userId), aggregate.isActiveStepAssignedTo(userId));
+    }
+
     public boolean isAdmin(Authentication authentication) {
         if (authentication == null) {
             return false;
@@ -78,10 +95,62 @@ public class FlowAuthorization {
                 .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
     }
 
+    /**
+     * Loads the authorization facts of a flow, reusing the result of an earlier check in the same
+     * request. The memo lives only as long as the request, so a change made by the request itself is
+     * not re-read by later checks within it. Outside a request every call queries.
+     */
+    private Optional<FlowAccessView> accessView(Long flowId) {
+        if (flowId == null) {
+            return Optional.empty();
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return flowRepo.findAccessViewById(flowId);
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, Optional<FlowAccessView>> memo =
+                (Map<Long, Optional<FlowAccessView>>) request.getAttribute(ACCESS_MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new HashMap<>();
+            request.setAttribute(ACCESS_MEMO_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return memo.computeIfAbsent(flowId, flowRepo::findAccessViewById);
+    }
+
     private Optional<Long> currentUserId(Authentication authentication) {
         if (authentication == null || authentication.getName() == null) {
             return Optional.empty();
         }
+        Optional<AppUserPrincipal> principal = AppUserPrincipal.from(authentication);
+        if (principal.isPresent()) {
+            return Optional.of(principal.get().getUserId());
+        }
+        // Principals not built by DbUserDetailsService (e.g. test users) carry only the username.
         return userRepo.findByUsername(authentication.getName()).map(u -> u.getId());
     }
+
+    public static class FlowAccess {
+        private final boolean admin;
+        private final boolean canManageFlow;
+        private final boolean canOperateActiveStep;
+
+        public FlowAccess(boolean admin, boolean canManageFlow, boolean canOperateActiveStep) {
+            this.admin = admin;
+            this.canManageFlow = canManageFlow;
+            this.canOperateActiveStep = canOperateActiveStep;
+        }
+
+        public boolean isAdmin() {
+            return admin;
+        }
+
+        public boolean canManageFlow() {
+            return canManageFlow;
+        }
+
+        public boolean canOperateActiveStep() {
+            return canOperateActiveStep;
+        }
+    }
 }
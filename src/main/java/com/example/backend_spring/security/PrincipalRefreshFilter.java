@@ -0,0 +1,70 @@
+package com.example.backend_spring.security;
+
+import java.io.IOException;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Replaces a stale {@link AppUserPrincipal} with a freshly loaded one before authorization runs.
+ * A user that was deleted or disabled in the meantime loses the authentication.
+ * Registered by SecurityConfig only, not as a servlet filter bean.
+ */
+public class PrincipalRefreshFilter extends OncePerRequestFilter {
+
+    private final PrincipalRefresher refresher;
+    private final DbUserDetailsService userDetailsService;
+    private final SecurityContextRepository contextRepository = new HttpSessionSecurityContextRepository();
+    private final SecurityContextHolderStrategy contextHolder = SecurityContextHolder.getContextHolderStrategy();
+
+    public PrincipalRefreshFilter(PrincipalRefresher refresher, DbUserDetailsService userDetailsService) {
+        this.refresher = refresher;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Authentication authentication = contextHolder.getContext().getAuthentication();
+        AppUserPrincipal principal = AppUserPrincipal.from(authentication).orElse(null);
+        if (principal != null && refresher.isStale(principal)) {
+            SecurityContext context = contextHolder.createEmptyContext();
+            UserDetails reloaded = reload(principal.getUsername());
+            if (reloaded != null && reloaded.isEnabled()) {
+                // The session only needs the identity; keep the password hash out of it.
+                if (reloaded instanceof CredentialsContainer credentials) {
+                    credentials.eraseCredentials();
+                }
+                UsernamePasswordAuthenticationToken refreshed = UsernamePasswordAuthenticationToken.authenticated(
+                        reloaded, null, reloaded.getAuthorities());
+                refreshed.setDetails(authentication.getDetails());
+                context.setAuthentication(refreshed);
+            }
+            contextHolder.setContext(context);
+            contextRepository.saveContext(context, request, response);
+        }
+        chain.doFilter(request, response);
+    }
+
+    private UserDetails reload(String username) {
+        try {
+            return userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException ex) {
+            return null;
+        }
+    }
+}
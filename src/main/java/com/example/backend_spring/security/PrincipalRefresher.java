@@ -0,0 +1,85 @@
+package com.example.backend_spring.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.backend_spring.repository.UserAccountRepository;
+
+/**
+ * Tracks users whose logged-in principal is out of date (display name, roles or enabled flag changed).
+ * Each change bumps {@code users.principal_generation}, so every node sees it. Principals carry the
+ * generation they were loaded at; {@link PrincipalRefreshFilter} reloads any principal whose generation
+ * no longer matches the user's row, or whose user is gone, in every session of that user.
+ *
+ * To avoid a query per request, a node remembers each user's generation for
+ * {@code app.principal-refresh.check-interval}; a change made on another node is picked up within that
+ * time, one made on this node at once.
+ */
+@Component
+public class PrincipalRefresher {
+
+    private static final Duration DEFAULT_CHECK_INTERVAL = Duration.ofSeconds(10);
+
+    private final UserAccountRepository userRepo;
+    private final long checkIntervalMillis;
+    private final Clock clock;
+    private final Map<Long, KnownGeneration> known = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PrincipalRefresher(
+            UserAccountRepository userRepo,
+            @Value("${app.principal-refresh.check-interval:10s}") Duration checkInterval,
+            Clock clock) {
+        this.userRepo = userRepo;
+        this.checkIntervalMillis = checkInterval == null || checkInterval.isNegative()
+                ? DEFAULT_CHECK_INTERVAL.toMillis()
+                : checkInterval.toMillis();
+        this.clock = clock;
+    }
+
+    public void markStale(Long userId) {
+        if (userId != null) {
+            userRepo.incrementPrincipalGeneration(userId);
+            known.remove(userId);
+        }
+    }
+
+    /** Called with the generation read together with a freshly loaded principal. */
+    void remember(Long userId, long generation) {
+        if (userId != null) {
+            known.put(userId, new KnownGeneration(generation, clock.millis() + checkIntervalMillis));
+        }
+    }
+
+    public boolean isStale(AppUserPrincipal principal) {
+        Long userId = principal.getUserId();
+        KnownGeneration cached = known.get(userId);
+        if (cached == null || cached.expiresAtMillis <= clock.millis()) {
+            Long current = userRepo.findPrincipalGenerationById(userId).orElse(null);
+            if (current == null) {
+                // Deleted users have no row left to compare against.
+                known.remove(userId);
+                return true;
+            }
+            remember(userId, current);
+            return current != principal.getGeneration();
+        }
+        return cached.generation != principal.getGeneration();
+    }
+
+    private static final class KnownGeneration {
+        private final long generation;
+        private final long expiresAtMillis;
+
+        private KnownGeneration(long generation, long expiresAtMillis) {
+            this.generation = generation;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
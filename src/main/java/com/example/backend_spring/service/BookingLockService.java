@@ -0,0 +1,288 @@
+package com.example.backend_spring.service;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Serializes bookings that touch the same participant or flow owner, across application nodes.
+ *
+ * Each participant and owner is one lock key. On MySQL a key is a named lock ({@code GET_LOCK}) on the
+ * transaction's connection, released after commit or rollback. Elsewhere (H2) it is a row of
+ * {@code booking_locks} locked with {@code SELECT ... FOR UPDATE}, released by the transaction itself.
+ * Keys are always taken in the same sorted order, so two bookings that share keys queue instead of
+ * deadlocking; bookings with disjoint keys never wait on each other.
+ *
+ * A key is first tried without waiting; only when that fails is the booking counted as contended and
+ * left to wait up to {@code app.booking-lock.timeout}. Meters: {@code flow.booking.lock.wait} (wait time
+ * per key, by backend and outcome) and {@code flow.booking.lock.contended}.
+ *
+ * Callers lock before they read anything else: they resolve the keys with one small query and run the
+ * booking at READ COMMITTED, since under MySQL's REPEATABLE READ that first query would fix the snapshot
+ * and a booking that waited would still check overlaps against data from before the wait. The slot
+ * reservation unique keys ({@link SlotReservationService}) remain the final guard.
+ */
+@Service
+public class BookingLockService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingLockService.class);
+
+    static final String BACKEND_NAMED_LOCK = "named_lock";
+    static final String BACKEND_LOCK_TABLE = "lock_table";
+
+    // MySQL named locks are server-wide, so the prefix keeps them apart from other applications' locks.
+    private static final String NAMED_LOCK_PREFIX = "flow_booking:";
+    private static final int H2_LOCK_TIMEOUT_ERROR = 50200;
+
+    private final DataSource dataSource;
+    private final MeterRegistry registry;
+    private final Duration timeout;
+    private final boolean enabled;
+    private volatile String backend;
+
+    @Autowired
+    public BookingLockService(
+            DataSource dataSource,
+            MeterRegistry registry,
+            @Value("${app.booking-lock.timeout:5s}") Duration timeout,
+            @Value("${app.booking-lock.enabled:true}") boolean enabled) {
+        this.dataSource = dataSource;
+        this.registry = registry;
+        this.timeout = timeout;
+        this.enabled = enabled;
+    }
+
+    // Never locks: for unit tests that build services without a database.
+    public static BookingLockService disabled() {
+        return new BookingLockService(null, null, Duration.ZERO, false);
+    }
+
+    /** False when locking is switched off; callers can then skip reading the lock keys. */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void lockForBooking(Long ownerUserId, Long participantId) {
+        lockForBooking(ownerUserId, Collections.singletonList(participantId));
+    }
+
+    /**
+     * Locks the owner and every participant of one booking until the current transaction ends. Keys this
+     * transaction already holds are skipped, so nested bookings (adding a candidate also selects it) do
+     * not lock twice.
+     */
+    public void lockForBooking(Long ownerUserId, Collection<Long> participantIds) {
+        lockForBookings(Collections.singletonList(ownerUserId), participantIds);
+    }
+
+    /** Batch variant for bookings of several owners' flows at once; all keys are taken in one sorted pass. */
+    public void lockForBookings(Collection<Long> ownerUserIds, Collection<Long> participantIds) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Booking locks require an active transaction.");
+        }
+        HeldLocks held = heldLocks();
+        for (String key : lockKeysOf(ownerUserIds, participantIds)) {
+            if (held.keys.add(key)) {
+                acquire(held, key);
+            }
+        }
+    }
+
+    /** Lock keys in acquisition order; any fixed total order avoids deadlocks, so plain string order is used. */
+    static SortedSet<String> lockKeys(Long ownerUserId, Collection<Long> participantIds) {
+        return lockKeysOf(Collections.singletonList(ownerUserId), participantIds);
+    }
+
+    static SortedSet<String> lockKeysOf(Collection<Long> ownerUserIds, Collection<Long> participantIds) {
+        SortedSet<String> keys = new TreeSet<>();
+        for (Long ownerUserId : ownerUserIds) {
+            if (ownerUserId != null) {
+                keys.add("owner:" + ownerUserId);
+            }
+        }
+        for (Long participantId : participantIds) {
+            if (participantId != null) {
+                keys.add("participant:" + participantId);
+            }
+        }
+        return keys;
+    }
+
+    private HeldLocks heldLocks() {
+        HeldLocks held = (HeldLocks) TransactionSynchronizationManager.getResource(this);
+        if (held != null) {
+            return held;
+        }
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        HeldLocks created = new HeldLocks(connection, resolveBackend(connection));
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(BookingLockService.this);
+                release(created);
+            }
+        });
+        return created;
+    }
+
+    private void acquire(HeldLocks held, String key) {
+        long started = System.nanoTime();
+        boolean acquired = tryLock(held, key, Duration.ZERO);
+        if (!acquired) {
+            Counter.builder("flow.booking.lock.contended")
+                    .description("Booking lock keys that were held by another booking when requested")
+                    .tag("backend", held.backend)
+                    .register(registry)
+                    .increment();
+            acquired = tryLock(held, key, timeout);
+        }
+        Timer.builder("flow.booking.lock.wait")
+                .description("Time spent acquiring one booking lock key")
+                .tag("backend", held.backend)
+                .tag("outcome", acquired ? "acquired" : "timeout")
+                .register(registry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            held.keys.remove(key);
+            log.warn("Booking lock [{}] not acquired within {}", key, timeout);
+            throw new IllegalArgumentException("他の予約処理が混み合っています。しばらくしてから再度お試しください。");
+        }
+        if (BACKEND_NAMED_LOCK.equals(held.backend)) {
+            held.namedLocks.add(key);
+        }
+    }
+
+    private boolean tryLock(HeldLocks held, String key, Duration wait) {
+        try {
+            return BACKEND_NAMED_LOCK.equals(held.backend)
+                    ? tryNamedLock(held.connection, key, wait)
+                    : tryRowLock(held.connection, key, wait);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to acquire booking lock " + key, ex);
+        }
+    }
+
+    private boolean tryNamedLock(Connection connection, String key, Duration wait) throws SQLException {
+        // GET_LOCK takes whole seconds; round up so a short timeout does not become "no wait".
+        long seconds = wait.isZero() ? 0 : Math.max(1, (wait.toMillis() + 999) / 1000);
+        try (PreparedStatement ps = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, NAMED_LOCK_PREFIX + key);
+            ps.setLong(2, seconds);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                int result = rs.getInt(1);
+                if (rs.wasNull()) {
+                    throw new SQLException("GET_LOCK returned NULL for " + key);
+                }
+                return result == 1;
+            }
+        }
+    }
+
+    private boolean tryRowLock(Connection connection, String key, Duration wait) throws SQLException {
+        String waitClause = wait.isZero() ? "NOWAIT" : "WAIT " + BigDecimal.valueOf(wait.toMillis(), 3).toPlainString();
+        try {
+            if (lockRow(connection, key, waitClause)) {
+                return true;
+            }
+            try (PreparedStatement ps = connection.prepareStatement("INSERT INTO booking_locks (lock_key) VALUES (?)")) {
+                ps.setString(1, key);
+                ps.executeUpdate();
+                // A row this transaction inserted stays locked until it ends.
+                return true;
+            } catch (SQLException ex) {
+                if (ex.getSQLState() == null || !ex.getSQLState().startsWith("23")) {
+                    throw ex;
+                }
+            }
+            // Another booking created the row in the meantime.
+            return lockRow(connection, key, waitClause);
+        } catch (SQLException ex) {
+            if (ex.getErrorCode() == H2_LOCK_TIMEOUT_ERROR) {
+                return false;
+            }
+            throw ex;
+        }
+    }
+
+    // False when the key has no row yet.
+    private static boolean lockRow(Connection connection, String key, String waitClause) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT lock_key FROM booking_locks WHERE lock_key = ? FOR UPDATE " + waitClause)) {
+            ps.setString(1, key);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    // Row locks end with the transaction; named locks belong to the session and must be released here.
+    private void release(HeldLocks held) {
+        for (String key : held.namedLocks) {
+            try (PreparedStatement ps = held.connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                ps.setString(1, NAMED_LOCK_PREFIX + key);
+                ps.executeQuery().close();
+            } catch (SQLException ex) {
+                log.warn("Failed to release booking lock [{}]", key, ex);
+            }
+        }
+        DataSourceUtils.releaseConnection(held.connection, dataSource);
+    }
+
+    private String resolveBackend(Connection connection) {
+        String resolved = backend;
+        if (resolved == null) {
+            try {
+                String product = connection.getMetaData().getDatabaseProductName();
+                resolved = product != null && product.toLowerCase().contains("mysql") ? BACKEND_NAMED_LOCK : BACKEND_LOCK_TABLE;
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Failed to detect the database for booking locks", ex);
+            }
+            backend = resolved;
+        }
+        return resolved;
+    }
+
+    private static final class HeldLocks {
+        private final Connection connection;
+        private final String backend;
+        private final Set<String> keys = new HashSet<>();
+        private final List<String> namedLocks = new ArrayList<>();
+
+        private HeldLocks(Connection connection, String backend) {
+            this.connection = connection;
+            this.backend = backend;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.backend_spring.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.example.backend_spring.domain.FlowStep;
+import com.example.backend_spring.repository.FlowStepRepository;
+
+/**
+ * Scratch copy of owner and participant busy time for planning many bookings in memory. Built from one
+ * blocking-interval query, it answers "earliest free start" with bit operations on {@link SlotOccupancy}
+ * words and takes tentative reservations so later bookings of the same plan see earlier ones.
+ *
+ * Blocking follows the booking checks of {@link FlowService}: the owner is blocked by confirmed steps and
+ * PROPOSED candidates, a participant by confirmed steps and PROPOSED/SELECTED candidates. Intervals of the
+ * steps being planned are left out, since planning replaces them. Busy time is rounded outwards to
+ * 30-minute slots, so a start found here never conflicts.
+ */
+final class BusyCalendar {
+
+    private final SlotOccupancy ownerBusy = new SlotOccupancy();
+    private final SlotOccupancy participantBusy = new SlotOccupancy();
+    private final Map<HeldKey, List<HeldMask>> held = new HashMap<>();
+    private final Map<Long, List<HeldKey>> heldKeysByStep = new HashMap<>();
+
+    private BusyCalendar() {
+    }
+
+    static BusyCalendar of(Collection<FlowStepRepository.BlockingIntervalView> rows, Set<Long> replacedStepIds) {
+        BusyCalendar calendar = new BusyCalendar();
+        for (FlowStepRepository.BlockingIntervalView row : rows) {
+            if (row.getStartAt() == null || row.getEndAt() == null || replacedStepIds.contains(row.getStepId())) {
+                continue;
+            }
+            if ("CONFIRMED".equals(row.getStatus()) || "PROPOSED".equals(row.getStatus())) {
+                mark(calendar.ownerBusy, row.getOwnerUserId(), row.getStartAt(), row.getEndAt());
+            }
+            if (row.getParticipantId() != null) {
+                mark(calendar.participantBusy, row.getParticipantId(), row.getStartAt(), row.getEndAt());
+            }
+        }
+        return calendar;
+    }
+
+    /**
+     * Like {@link #of}, but the intervals of {@code heldStepIds} (their confirmed time and live candidates)
+     * still block other steps. A held step ignores only its own intervals when searched for, and stops
+     * blocking once {@link #release}d, so a step left unplanned keeps its candidates in everyone's way.
+     */
+    static BusyCalendar withHeldSteps(Collection<FlowStepRepository.BlockingIntervalView> rows, Set<Long> heldStepIds) {
+        BusyCalendar calendar = of(rows, heldStepIds);
+        for (FlowStepRepository.BlockingIntervalView row : rows) {
+            if (row.getStartAt() == null || row.getEndAt() == null || !heldStepIds.contains(row.getStepId())) {
+                continue;
+            }
+            if ("CONFIRMED".equals(row.getStatus()) || "PROPOSED".equals(row.getStatus())) {
+                calendar.hold(true, row.getOwnerUserId(), row.getStepId(), row.getStartAt(), row.getEndAt());
+            }
+            if (row.getParticipantId() != null) {
+                calendar.hold(false, row.getParticipantId(), row.getStepId(), row.getStartAt(), row.getEndAt());
+            }
+        }
+        return calendar;
+    }
+
+    /** Stops the held intervals of {@code stepId} from blocking, once the step has been given a new time. */
+    void release(Long stepId) {
+        List<HeldKey> keys = heldKeysByStep.remove(stepId);
+        if (keys == null) {
+            return;
+        }
+        for (HeldKey key : keys) {
+            List<HeldMask> masks = held.get(key);
+            if (masks == null) {
+                continue;
+            }
+            masks.removeIf(mask -> mask.stepId().equals(stepId));
+            if (masks.isEmpty()) {
+                held.remove(key);
+            }
+        }
+    }
+
+    /** Records a planned booking so that later searches treat its time as busy. */
+    void reserve(Long ownerUserId, Long participantId, LocalDateTime startAt, LocalDateTime endAt) {
+        mark(ownerBusy, ownerUserId, startAt, endAt);
+        if (participantId != null) {
+            mark(participantBusy, participantId, startAt, endAt);
+        }
+    }
+
+    boolean isFree(Long ownerUserId, Long participantId, LocalDateTime startAt, LocalDateTime endAt) {
+        for (LocalDate day = startAt.toLocalDate(); day.atStartOfDay().isBefore(endAt); day = day.plusDays(1)) {
+            long requested = SlotOccupancy.maskOf(startAt, endAt, day);
+            long busy = ownerBusy(ownerUserId, day, null) | participantBusy(participantId, day, null);
+            if (SlotOccupancy.overlaps(requested, busy)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Earliest 30-minute-aligned start in {@code [earliest, lastDate]} inside the step's weekday and
+     * time-of-day window at which both the owner and the participant are free for {@code durationMinutes}.
+     */
+    Optional<LocalDateTime> findEarliestStart(
+            FlowStep step,
+            Long ownerUserId,
+            Long participantId,
+            int durationMinutes,
+            LocalDateTime earliest,
+            LocalDate lastDate) {
+        int slotCount = (durationMinutes + SlotOccupancy.SLOT_MINUTES - 1) / SlotOccupancy.SLOT_MINUTES;
+        if (slotCount <= 0) {
+            return Optional.empty();
+        }
+        for (LocalDate day = earliest.toLocalDate(); !day.isAfter(lastDate); day = day.plusDays(1)) {
+            long starts = allowedStarts(step, day, durationMinutes) & notBefore(earliest, day);
+            if (starts == 0) {
+                continue;
+            }
+            long free = ~(ownerBusy(ownerUserId, day, step.getId())
+                    | participantBusy(participantId, day, step.getId())) & SlotOccupancy.FULL_DAY;
+            starts &= SlotOccupancy.fitStarts(free, slotCount);
+            if (starts != 0) {
+                return Optional.of(day.atStartOfDay().plusMinutes((long) Long.numberOfTrailingZeros(starts) * SlotOccupancy.SLOT_MINUTES));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** Slots of {@code day} at which the owner and every one of the participants are free. */
+    long freeSlots(Long ownerUserId, Collection<Long> participantIds, LocalDate day) {
+        long busy = ownerUserId == null ? 0L : ownerBusy(ownerUserId, day, null);
+        for (Long participantId : participantIds) {
+            busy |= participantBusy(participantId, day, null);
+        }
+        return ~busy & SlotOccupancy.FULL_DAY;
+    }
+
+    /** Start slots of {@code day} allowed by the step's weekday mask and time-of-day window. */
+    static long allowedStarts(FlowStep step, LocalDate day, int durationMinutes) {
+        if (!isAllowedDay(step, day)) {
+            return 0L;
+        }
+        int firstSlot = (step.getAllowedStartMinute() + SlotOccupancy.SLOT_MINUTES - 1) / SlotOccupancy.SLOT_MINUTES;
+        int latestStartMinute = Math.min(step.getAllowedEndMinute(), 1440) - durationMinutes;
+        if (latestStartMinute < 0) {
+            return 0L;
+        }
+        int lastSlotExclusive = latestStartMinute / SlotOccupancy.SLOT_MINUTES + 1;
+        return SlotOccupancy.slotMask(firstSlot, lastSlotExclusive);
+    }
+
+    /** Slots of {@code day} that lie entirely inside the step's weekday mask and time-of-day window. */
+    static long allowedSlots(FlowStep step, LocalDate day) {
+        if (!isAllowedDay(step, day)) {
+            return 0L;
+        }
+        int firstSlot = (step.getAllowedStartMinute() + SlotOccupancy.SLOT_MINUTES - 1) / SlotOccupancy.SLOT_MINUTES;
+        int lastSlotExclusive = Math.min(step.getAllowedEndMinute(), 1440) / SlotOccupancy.SLOT_MINUTES;
+        return SlotOccupancy.slotMask(firstSlot, lastSlotExclusive);
+    }
+
+    private static boolean isAllowedDay(FlowStep step, LocalDate day) {
+        int dayBit = 1 << (day.getDayOfWeek().getValue() % 7);
+        if ((step.getAllowedWeekdaysMask() & dayBit) == 0) {
+            return false;
+        }
+        if (step.getReservableFromDate() != null && day.isBefore(step.getReservableFromDate())) {
+            return false;
+        }
+        return step.getReservableToDate() == null || !day.isAfter(step.getReservableToDate());
+    }
+
+    // Start slots of the day at or after {@code earliest}.
+    private static long notBefore(LocalDateTime earliest, LocalDate day) {
+        LocalDate earliestDay = earliest.toLocalDate();
+        if (day.isAfter(earliestDay)) {
+            return SlotOccupancy.FULL_DAY;
+        }
+        if (day.isBefore(earliestDay)) {
+            return 0L;
+        }
+        int minute = earliest.getHour() * 60 + earliest.getMinute()
+                + (earliest.getSecond() > 0 || earliest.getNano() > 0 ? 1 : 0);
+        int firstSlot = (minute + SlotOccupancy.SLOT_MINUTES - 1) / SlotOccupancy.SLOT_MINUTES;
+        return SlotOccupancy.slotMask(firstSlot, SlotOccupancy.SLOTS_PER_DAY);
+    }
+
+    private long ownerBusy(Long ownerUserId, LocalDate day, Long ownStepId) {
+        return ownerBusy.get(ownerUserId, day) | heldBits(true, ownerUserId, day, ownStepId);
+    }
+
+    private long participantBusy(Long participantId, LocalDate day, Long ownStepId) {
+        if (participantId == null) {
+            return 0L;
+        }
+        return participantBusy.get(participantId, day) | heldBits(false, participantId, day, ownStepId);
+    }
+
+    // Held slots of other steps; a step never blocks itself.
+    private long heldBits(boolean owner, Long id, LocalDate day, Long ownStepId) {
+        if (held.isEmpty()) {
+            return 0L;
+        }
+        List<HeldMask> masks = held.get(new HeldKey(owner, id, day));
+        if (masks == null) {
+            return 0L;
+        }
+        long bits = 0L;
+        for (HeldMask mask : masks) {
+            if (!mask.stepId().equals(ownStepId)) {
+                bits |= mask.bits();
+            }
+        }
+        return bits;
+    }
+
+    private void hold(boolean owner, Long id, Long stepId, LocalDateTime startAt, LocalDateTime endAt) {
+        for (LocalDate day = startAt.toLocalDate(); day.atStartOfDay().isBefore(endAt); day = day.plusDays(1)) {
+            long bits = SlotOccupancy.maskOf(startAt, endAt, day);
+            if (bits == 0) {
+                continue;
+            }
+            HeldKey key = new HeldKey(owner, id, day);
+            held.computeIfAbsent(key, k -> new ArrayList<>()).add(new HeldMask(stepId, bits));
+            heldKeysByStep.computeIfAbsent(stepId, k -> new ArrayList<>()).add(key);
+        }
+    }
+
+    private static void mark(SlotOccupancy occupancy, Long key, LocalDateTime startAt, LocalDateTime endAt) {
+        for (LocalDate day = startAt.toLocalDate(); day.atStartOfDay().isBefore(endAt); day = day.plusDays(1)) {
+            occupancy.or(key, day, SlotOccupancy.maskOf(startAt, endAt, day));
+        }
+    }
+
+    private record HeldKey(boolean owner, Long id, LocalDate day) {
+    }
+
+    private record HeldMask(Long stepId, long bits) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.backend_spring.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import com.example.backend_spring.domain.FlowStep;
+import com.example.backend_spring.repository.FlowStepRepository;
+
+/**
+ * Finds the windows in which a flow's owner and all of its participants are free at the same time.
+ *
+ * Busy intervals of everyone involved are read with one query for the whole date range and merged per day
+ * on a {@link BusyCalendar}. The free slots are then cut to the ACTIVE step's reservable window, and
+ * every run of at least {@code Flow.durationMinutes} becomes one window.
+ */
+@Service
+public class CommonAvailabilityService {
+
+    public static final int MAX_RANGE_DAYS = 31;
+
+    private static final DateTimeFormatter TIME_LABEL_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final FlowStepRepository stepRepo;
+    private final FlowService flowService;
+
+    public CommonAvailabilityService(FlowStepRepository stepRepo, FlowService flowService) {
+        this.stepRepo = stepRepo;
+        this.flowService = flowService;
+    }
+
+    public List<FreeWindow> findCommonFreeWindows(Long flowId, LocalDate fromDate, LocalDate toDate) {
+        return findCommonFreeWindows(flowService.loadFlowAggregate(flowId), fromDate, toDate);
+    }
+
+    /**
+     * Common free windows in {@code [fromDate, toDate]}, clamped to the reservable period. The ACTIVE
+     * step's own candidates do not block, since they are what the windows are meant to replace.
+     */
+    public List<FreeWindow> findCommonFreeWindows(FlowAggregate aggregate, LocalDate fromDate, LocalDate toDate) {
+        if (fromDate == null || toDate == null || toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("期間の指定が不正です。");
+        }
+        if (ChronoUnit.DAYS.between(fromDate, toDate) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("期間は" + MAX_RANGE_DAYS + "日以内で指定してください。");
+        }
+        LocalDate minDate = flowService.getReservableMinDate();
+        LocalDate maxDate = flowService.getReservableMaxDate();
+        LocalDate first = fromDate.isBefore(minDate) ? minDate : fromDate;
+        LocalDate last = toDate.isAfter(maxDate) ? maxDate : toDate;
+        if (last.isBefore(first)) {
+            return List.of();
+        }
+
+        Long ownerUserId = aggregate.getFlow().getCreatedByUserId();
+        Set<Long> participantIds = aggregate.getParticipantIds();
+        Optional<FlowStep> activeStep = aggregate.getActiveStep();
+        Set<Long> replacedStepIds = new HashSet<>();
+        activeStep.ifPresent(step -> replacedStepIds.add(step.getId()));
+        BusyCalendar calendar = BusyCalendar.of(
+                stepRepo.findBlockingIntervalsForOwnersOrParticipantsInWindow(
+                        QueryIds.listOf(ownerUserId),
+                        QueryIds.nonEmpty(participantIds),
+                        first.atStartOfDay(),
+                        last.plusDays(1).atStartOfDay()),
+                replacedStepIds);
+
+        int durationMinutes = aggregate.getFlow().getDurationMinutes();
+        int slotCount = Math.max(1, (durationMinutes + SlotOccupancy.SLOT_MINUTES - 1) / SlotOccupancy.SLOT_MINUTES);
+        List<FreeWindow> windows = new ArrayList<>();
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            long free = calendar.freeSlots(ownerUserId, participantIds, day);
+            if (activeStep.isPresent()) {
+                free &= BusyCalendar.allowedSlots(activeStep.get(), day);
+            }
+            addRuns(windows, day, free, slotCount);
+        }
+        return windows;
+    }
+
+    // Each maximal run of set bits at least slotCount long becomes one window.
+    private static void addRuns(List<FreeWindow> windows, LocalDate day, long free, int slotCount) {
+        long remaining = free;
+        while (remaining != 0) {
+            int start = Long.numberOfTrailingZeros(remaining);
+            int end = Long.numberOfTrailingZeros(~(remaining >>> start)) + start;
+            if (end - start >= slotCount) {
+                windows.add(new FreeWindow(
+                        day.atStartOfDay().plusMinutes((long) start * SlotOccupancy.SLOT_MINUTES),
+                        day.atStartOfDay().plusMinutes((long) end * SlotOccupancy.SLOT_MINUTES)));
+            }
+            remaining &= ~SlotOccupancy.slotMask(start, end);
+        }
+    }
+
+    public static class FreeWindow {
+        private final LocalDateTime startAt;
+        private final LocalDateTime endAt;
+
+        public FreeWindow(LocalDateTime startAt, LocalDateTime endAt) {
+            this.startAt = startAt;
+            this.endAt = endAt;
+        }
+
+        public LocalDateTime getStartAt() {
+            return startAt;
+        }
+
+        public LocalDateTime getEndAt() {
+            return endAt;
+        }
+
+        public String getTimeLabel() {
+            String end = endAt.toLocalDate().isAfter(startAt.toLocalDate()) ? "24:00" : TIME_LABEL_FORMAT.format(endAt);
+            return TIME_LABEL_FORMAT.format(startAt) + " - " + end;
+        }
+
+        /** Position inside a week-calendar day column, on the same scale as calendar events. */
+        @JsonIgnore
+        public String getStyle() {
+            double topPx = (startAt.getHour() * 60 + startAt.getMinute()) / 60.0 * FlowService.HOUR_HEIGHT_PX;
+            double heightPx = ChronoUnit.MINUTES.between(startAt, endAt) / 60.0 * FlowService.HOUR_HEIGHT_PX;
+            return String.format(Locale.ROOT, "top: %.2fpx; height: %.2fpx;", topPx, heightPx);
+        }
+    }
+}
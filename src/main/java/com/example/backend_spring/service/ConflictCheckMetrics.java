@@ -0,0 +1,89 @@
+package com.example.backend_spring.service;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Meters for the overlap checks behind bookings.
+ *
+ * {@code flow.conflict.checks} counts checks by party (owner, participant, or owner_and_participant for
+ * one query that covers both) and by what answered them (database). {@code flow.booking.conflict.queries}
+ * records the number of conflict-check SQL queries issued per booking operation. A booking that calls another booking
+ * (adding a candidate also selects it) is recorded once, under the outermost operation.
+ */
+@Component
+public class ConflictCheckMetrics {
+
+    public static final String PARTY_OWNER = "owner";
+    public static final String PARTY_PARTICIPANT = "participant";
+    public static final String PARTY_OWNER_AND_PARTICIPANT = "owner_and_participant";
+    public static final String SOURCE_DATABASE = "database";
+
+    private final MeterRegistry registry;
+    private final ThreadLocal<Booking> currentBooking = new ThreadLocal<>();
+
+    public ConflictCheckMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /** Metrics that are recorded into a private registry and never exported. */
+    public static ConflictCheckMetrics unregistered() {
+        return new ConflictCheckMetrics(new SimpleMeterRegistry());
+    }
+
+    public Booking openBooking(String operation) {
+        Booking outer = currentBooking.get();
+        if (outer != null) {
+            outer.depth++;
+            return outer;
+        }
+        Booking booking = new Booking(operation);
+        currentBooking.set(booking);
+        return booking;
+    }
+
+    /** Records one check; {@code databaseQueries} is the number of SQL queries the check issued. */
+    public void recordCheck(String party, String source, int databaseQueries) {
+        Counter.builder("flow.conflict.checks")
+                .description("Booking overlap checks by the layer that answered them")
+                .tag("party", party)
+                .tag("source", source)
+                .register(registry)
+                .increment();
+        Booking booking = currentBooking.get();
+        if (booking != null) {
+            booking.databaseQueries += databaseQueries;
+        }
+    }
+
+    private void closeBooking(Booking booking) {
+        if (--booking.depth > 0) {
+            return;
+        }
+        currentBooking.remove();
+        DistributionSummary.builder("flow.booking.conflict.queries")
+                .description("Conflict-check SQL queries issued per booking")
+                .tag("operation", booking.operation)
+                .register(registry)
+                .record(booking.databaseQueries);
+    }
+
+    public final class Booking implements AutoCloseable {
+        private final String operation;
+        private int depth = 1;
+        private int databaseQueries;
+
+        private Booking(String operation) {
+            this.operation = operation;
+        }
+
+        @Override
+        public void close() {
+            closeBooking(this);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.backend_spring.service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import com.example.backend_spring.domain.Flow;
+import com.example.backend_spring.domain.FlowStep;
+import com.example.backend_spring.domain.StepCandidate;
+
+/**
+ * Read model of one flow for the detail page: the flow, its steps with participant names, the ACTIVE
+ * step's candidates and the facts needed for authorization. Built by {@link FlowService#loadFlowAggregate}
+ * with a fixed number of queries regardless of the number of steps.
+ */
+public class FlowAggregate {
+
+    private final Flow flow;
+    private final List<FlowStep> steps;
+    private final FlowStep activeStep;
+    private final List<StepCandidate> activeStepCandidates;
+    private final Map<Long, Long> userIdsByParticipantId;
+
+    FlowAggregate(
+            Flow flow,
+            List<FlowStep> steps,
+            FlowStep activeStep,
+            List<StepCandidate> activeStepCandidates,
+            Map<Long, Long> userIdsByParticipantId) {
+        this.flow = flow;
+        this.steps = List.copyOf(steps);
+        this.activeStep = activeStep;
+        this.activeStepCandidates = List.copyOf(activeStepCandidates);
+        this.userIdsByParticipantId = Map.copyOf(userIdsByParticipantId);
+    }
+
+    public Long getFlowId() {
+        return flow.getId();
+    }
+
+    public Flow getFlow() {
+        return flow;
+    }
+
+    /** Steps in step order, with participant names applied. */
+    public List<FlowStep> getSteps() {
+        return steps;
+    }
+
+    public Optional<FlowStep> getActiveStep() {
+        return Optional.ofNullable(activeStep);
+    }
+
+    /** Candidates of the ACTIVE step ordered by start time; empty when no step is ACTIVE. */
+    public List<StepCandidate> getActiveStepCandidates() {
+        return activeStepCandidates;
+    }
+
+    public Optional<FlowStep> findStep(int stepOrder) {
+        return steps.stream().filter(step -> step.getStepOrder() == stepOrder).findFirst();
+    }
+
+    /** Distinct participant ids in step order. */
+    public Set<Long> getParticipantIds() {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (FlowStep step : steps) {
+            if (step.getParticipantId() != null) {
+                ids.add(step.getParticipantId());
+            }
+        }
+        return ids;
+    }
+
+    public boolean isOwnedBy(Long userId) {
+        return userId != null && userId.equals(flow.getCreatedByUserId());
+    }
+
+    /** Same rule as {@code FlowAuthorization.canOperateActiveStep}: the ACTIVE step's participant is the user. */
+    public boolean isActiveStepAssignedTo(Long userId) {
+        if (userId == null || activeStep == null || activeStep.getParticipantId() == null) {
+            return false;
+        }
+        return Objects.equals(userIdsByParticipantId.get(activeStep.getParticipantId()), userId);
+    }
+}
@@ -0,0 +1,553 @@
+package com.example.backend_spring.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.annotation.Timed;
+
+import com.example.backend_spring.domain.Flow;
+import com.example.backend_spring.domain.FlowStep;
+import com.example.backend_spring.domain.StepCandidate;
+import com.example.backend_spring.repository.FlowRepository;
+import com.example.backend_spring.repository.FlowStepRepository;
+import com.example.backend_spring.repository.StepCandidateRepository;
+
+/**
+ * Schedules the remaining steps of one flow in a single call instead of one candidate selection per step,
+ * and simulates moving a confirmed step together with the steps that must follow it.
+ *
+ * The chain is built on a {@link BusyCalendar}: each step takes the earliest start that lies in its own
+ * window, is strictly after the previous step's end, and is free for both the owner and the step's
+ * participant. Taking the earliest end for each step never rules out a later one, so if this chain does
+ * not fit, no chain does. Steps that are already CONFIRMED stay where they are and bound the steps around
+ * them.
+ */
+@Service
+@Timed(value = "flow.chain_scheduler", description = "Multi-step scheduling latency")
+public class FlowChainScheduler {
+
+    private final FlowRepository flowRepo;
+    private final FlowStepRepository stepRepo;
+    private final StepCandidateRepository candidateRepo;
+    private final FlowService flowService;
+    private final ScheduleConflictIndex conflictIndex;
+    private final SlotReservationService slotReservations;
+    private final BookingLockService bookingLocks;
+
+    public FlowChainScheduler(
+            FlowRepository flowRepo,
+            FlowStepRepository stepRepo,
+            StepCandidateRepository candidateRepo,
+            FlowService flowService,
+            ScheduleConflictIndex conflictIndex,
+            SlotReservationService slotReservations,
+            BookingLockService bookingLocks) {
+        this.flowRepo = flowRepo;
+        this.stepRepo = stepRepo;
+        this.candidateRepo = candidateRepo;
+        this.flowService = flowService;
+        this.conflictIndex = conflictIndex;
+        this.slotReservations = slotReservations;
+        this.bookingLocks = bookingLocks;
+    }
+
+    /**
+     * Computes the earliest chain for the ACTIVE step and every later step of the flow and, unless
+     * {@code dryRun}, confirms all of them and activates the step after the last one, as selecting a
+     * candidate step by step would. Throws when any step has no room, so nothing is written half-way.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    @OptimisticRetry
+    public ChainPlan autoSchedule(Long flowId, LocalDate fromDate, boolean dryRun) {
+        if (!dryRun) {
+            lockFlowBookings(flowId);
+        }
+        Flow flow = flowService.getFlow(flowId);
+        List<FlowStep> steps = stepRepo.findByFlowIdOrderByStepOrder(flowId);
+        FlowStep active = InterviewDayPlanner.findStep(steps, flow.getCurrentStepOrder());
+        if (active == null || !"ACTIVE".equals(active.getStatus())) {
+            throw new IllegalArgumentException("ACTIVEなステップがありません。flowId=" + flowId);
+        }
+
+        LocalDate minDate = flowService.getReservableMinDate();
+        LocalDate maxDate = flowService.getReservableMaxDate();
+        LocalDateTime searchFrom = fromDate == null || fromDate.isBefore(minDate)
+                ? minDate.atStartOfDay()
+                : fromDate.atStartOfDay();
+        LocalDateTime earliest = InterviewDayPlanner.latest(searchFrom, flow.getStartFrom());
+        FlowStep previous = InterviewDayPlanner.findStep(steps, active.getStepOrder() - 1);
+        if (previous != null) {
+            LocalDateTime boundary = previous.getConfirmedEndAt() != null
+                    ? previous.getConfirmedEndAt()
+                    : previous.getConfirmedStartAt();
+            if (boundary == null) {
+                throw new IllegalArgumentException("前ステップの面談日時が未確定です。");
+            }
+            earliest = InterviewDayPlanner.latest(earliest, boundary.plusNanos(1));
+        }
+
+        List<FlowStep> remaining = new ArrayList<>();
+        Set<Long> replacedStepIds = new HashSet<>();
+        Set<Long> participantIds = new HashSet<>();
+        for (FlowStep step : steps) {
+            if (step.getStepOrder() < active.getStepOrder() || "SKIPPED".equals(step.getStatus())) {
+                continue;
+            }
+            remaining.add(step);
+            if (!"CONFIRMED".equals(step.getStatus())) {
+                replacedStepIds.add(step.getId());
+            }
+            if (step.getParticipantId() != null) {
+                participantIds.add(step.getParticipantId());
+            }
+        }
+
+        Set<Long> ownerUserIds = new HashSet<>();
+        if (flow.getCreatedByUserId() != null) {
+            ownerUserIds.add(flow.getCreatedByUserId());
+        }
+        BusyCalendar calendar = BusyCalendar.of(
+                stepRepo.findBlockingIntervalsForOwnersOrParticipantsInWindow(
+                        QueryIds.nonEmpty(ownerUserIds),
+                        QueryIds.nonEmpty(participantIds),
+                        searchFrom,
+                        maxDate.plusDays(1).atStartOfDay()),
+                replacedStepIds);
+
+        int duration = flow.getDurationMinutes();
+        List<ScheduledStep> chain = new ArrayList<>();
+        for (int i = 0; i < remaining.size(); i++) {
+            FlowStep step = remaining.get(i);
+            if ("CONFIRMED".equals(step.getStatus())) {
+                earliest = InterviewDayPlanner.latest(earliest, step.getConfirmedEndAt().plusNanos(1));
+                continue;
+            }
+            Optional<LocalDateTime> start = calendar.findEarliestStart(
+                    step, flow.getCreatedByUserId(), step.getParticipantId(), duration, earliest, maxDate);
+            if (start.isEmpty()) {
+                throw new IllegalArgumentException(
+                        "予約可能期間内に空き枠がないため自動設定できません。stepOrder=" + step.getStepOrder());
+            }
+            LocalDateTime endAt = start.get().plusMinutes(duration);
+            FlowStep following = i + 1 < remaining.size() ? remaining.get(i + 1) : null;
+            if (following != null
+                    && "CONFIRMED".equals(following.getStatus())
+                    && !endAt.isBefore(following.getConfirmedStartAt())) {
+                throw new IllegalArgumentException(
+                        "後続の確定済みステップより前に配置できません。stepOrder=" + step.getStepOrder());
+            }
+            calendar.reserve(flow.getCreatedByUserId(), step.getParticipantId(), start.get(), endAt);
+            chain.add(new ScheduledStep(
+                    step.getId(), step.getStepOrder(), step.getParticipantId(), step.getParticipantName(), start.get(), endAt));
+            earliest = endAt.plusNanos(1);
+        }
+
+        if (!dryRun && !chain.isEmpty()) {
+            apply(flow, active, steps, remaining, chain);
+        }
+        return new ChainPlan(flowId, chain, !dryRun);
+    }
+
+    private void apply(Flow flow, FlowStep active, List<FlowStep> steps, List<FlowStep> remaining, List<ScheduledStep> chain) {
+        List<StepCandidate> candidates = new ArrayList<>();
+        for (StepCandidate candidate : candidateRepo.findByFlowStepIdOrderByStartAtAsc(active.getId())) {
+            if ("PROPOSED".equals(candidate.getStatus())) {
+                candidate.reject();
+                candidates.add(candidate);
+            }
+        }
+
+        List<FlowStep> saved = new ArrayList<>();
+        for (ScheduledStep scheduled : chain) {
+            FlowStep step = InterviewDayPlanner.findStep(remaining, scheduled.getStepOrder());
+            step.confirm(scheduled.getStartAt(), scheduled.getEndAt());
+            saved.add(step);
+            StepCandidate selected = new StepCandidate(step.getId(), scheduled.getStartAt(), scheduled.getEndAt());
+            selected.select();
+            candidates.add(selected);
+        }
+
+        FlowStep last = remaining.get(remaining.size() - 1);
+        FlowStep next = StepCycle.nextStep(flow, last, steps);
+        next.activate();
+        saved.add(next);
+        flow.moveToStep(next.getStepOrder());
+
+        stepRepo.saveAll(saved);
+        candidateRepo.saveAll(candidates);
+        flowRepo.save(flow);
+        // The first chain.size() entries are the steps just confirmed; the last one is the next ACTIVE step.
+        slotReservations.reserve(List.of(flow), saved.subList(0, chain.size()));
+        conflictIndex.reloadFlowAfterCommit(flow.getId());
+    }
+
+    /**
+     * Evaluates moving confirmed step {@code stepId} to each of {@code startAts} without writing. Busy time is
+     * loaded once and every alternative is computed in memory, so an interactive UI can score many
+     * candidate times per request.
+     */
+    @Transactional
+    public List<ReschedulePlan> simulateReschedules(Long flowId, Long stepId, List<LocalDateTime> startAts) {
+        RescheduleContext context = loadRescheduleContext(flowId, stepId);
+        List<ReschedulePlan> plans = new ArrayList<>(startAts.size());
+        for (LocalDateTime startAt : startAts) {
+            plans.add(evaluateReschedule(context, startAt));
+        }
+        return plans;
+    }
+
+    /**
+     * Moves confirmed step {@code stepId} to {@code startAt} and shifts the following confirmed steps as
+     * the simulation computed, all in one transaction.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    @OptimisticRetry
+    public ReschedulePlan applyReschedule(Long flowId, Long stepId, LocalDateTime startAt) {
+        lockFlowBookings(flowId);
+        RescheduleContext context = loadRescheduleContext(flowId, stepId);
+        ReschedulePlan plan = evaluateReschedule(context, startAt);
+        if (!plan.isFeasible()) {
+            throw new IllegalArgumentException(plan.getReason());
+        }
+        List<FlowStep> saved = new ArrayList<>();
+        for (StepShift shift : plan.getShifts()) {
+            FlowStep step = InterviewDayPlanner.findStep(context.steps, shift.getStepOrder());
+            step.confirm(shift.getToStartAt(), shift.getToEndAt());
+            saved.add(step);
+        }
+        stepRepo.saveAll(saved);
+        slotReservations.reserve(List.of(context.flow), saved);
+        conflictIndex.reloadFlowAfterCommit(flowId);
+        return new ReschedulePlan(startAt, plan.getShifts(), null, true);
+    }
+
+    // Locks the owner and the participants of every step before anything else is read, as FlowService does
+    // for single bookings; any of the steps may be moved.
+    private void lockFlowBookings(Long flowId) {
+        if (!bookingLocks.isEnabled()) {
+            return;
+        }
+        List<FlowStepRepository.BookingKeyView> keys = stepRepo.findBookingKeysOfFlow(flowId);
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<Long> participantIds = new ArrayList<>(keys.size());
+        for (FlowStepRepository.BookingKeyView key : keys) {
+            participantIds.add(key.getParticipantId());
+        }
+        bookingLocks.lockForBooking(keys.get(0).getOwnerUserId(), participantIds);
+    }
+
+    private RescheduleContext loadRescheduleContext(Long flowId, Long stepId) {
+        Flow flow = flowService.getFlow(flowId);
+        List<FlowStep> steps = stepRepo.findByFlowIdOrderByStepOrder(flowId);
+        FlowStep moved = null;
+        for (FlowStep step : steps) {
+            if (step.getId().equals(stepId)) {
+                moved = step;
+            }
+        }
+        if (moved == null) {
+            throw new IllegalArgumentException("指定されたフローのステップではありません。");
+        }
+        if (moved.getConfirmedStartAt() == null || moved.getConfirmedEndAt() == null) {
+            throw new IllegalArgumentException("未設定のステップは変更できません。");
+        }
+
+        // The moved step and the confirmed run after it may all shift, so their current times do not block.
+        List<FlowStep> followers = new ArrayList<>();
+        Set<Long> replacedStepIds = new HashSet<>();
+        Set<Long> participantIds = new HashSet<>();
+        replacedStepIds.add(moved.getId());
+        addParticipant(participantIds, moved);
+        for (FlowStep step : steps) {
+            if (step.getStepOrder() <= moved.getStepOrder() || "SKIPPED".equals(step.getStatus())) {
+                continue;
+            }
+            if (!"CONFIRMED".equals(step.getStatus()) || step.getConfirmedEndAt() == null) {
+                break;
+            }
+            followers.add(step);
+            replacedStepIds.add(step.getId());
+            addParticipant(participantIds, step);
+        }
+
+        LocalDate minDate = flowService.getReservableMinDate();
+        LocalDate maxDate = flowService.getReservableMaxDate();
+        Set<Long> ownerUserIds = new HashSet<>();
+        if (flow.getCreatedByUserId() != null) {
+            ownerUserIds.add(flow.getCreatedByUserId());
+        }
+        BusyCalendar calendar = BusyCalendar.of(
+                stepRepo.findBlockingIntervalsForOwnersOrParticipantsInWindow(
+                        QueryIds.nonEmpty(ownerUserIds),
+                        QueryIds.nonEmpty(participantIds),
+                        minDate.atStartOfDay(),
+                        maxDate.plusDays(1).atStartOfDay()),
+                replacedStepIds);
+
+        FlowStep previous = InterviewDayPlanner.findStep(steps, moved.getStepOrder() - 1);
+        LocalDateTime previousBoundary = null;
+        if (previous != null) {
+            previousBoundary = previous.getConfirmedEndAt() != null ? previous.getConfirmedEndAt() : previous.getConfirmedStartAt();
+        }
+        return new RescheduleContext(flow, steps, moved, followers, previousBoundary, calendar, minDate, maxDate);
+    }
+
+    // Shifted steps form a strictly ordered chain, so they never overlap each other and the calendar needs
+    // no tentative reservations; it stays shared across alternatives.
+    private ReschedulePlan evaluateReschedule(RescheduleContext context, LocalDateTime startAt) {
+        Flow flow = context.flow;
+        FlowStep moved = context.moved;
+        int duration = flow.getDurationMinutes();
+        Long ownerUserId = flow.getCreatedByUserId();
+        if (startAt == null) {
+            return ReschedulePlan.infeasible(null, "面談設定日時を指定してください。");
+        }
+        LocalDate day = startAt.toLocalDate();
+        if (day.isBefore(context.minDate) || day.isAfter(context.maxDate)) {
+            return ReschedulePlan.infeasible(startAt, "面談設定日時は予約可能期間内で指定してください。");
+        }
+        int minute = startAt.getHour() * 60 + startAt.getMinute();
+        if (minute % SlotOccupancy.SLOT_MINUTES != 0 || startAt.getSecond() != 0 || startAt.getNano() != 0) {
+            return ReschedulePlan.infeasible(startAt, "設定時間は30分刻みで指定してください。");
+        }
+        if (context.previousBoundary != null && !startAt.isAfter(context.previousBoundary)) {
+            return ReschedulePlan.infeasible(startAt, "面談設定日時は前ステップより後にしてください。");
+        }
+        LocalDateTime endAt = startAt.plusMinutes(duration);
+        long startBit = 1L << (minute / SlotOccupancy.SLOT_MINUTES);
+        if ((BusyCalendar.allowedStarts(moved, day, duration) & startBit) == 0) {
+            return ReschedulePlan.infeasible(startAt, "面談設定日時がステップの予約可能枠外です。");
+        }
+        if (!context.calendar.isFree(ownerUserId, moved.getParticipantId(), startAt, endAt)) {
+            return ReschedulePlan.infeasible(startAt, "面談設定日時が他の予定と重複しています。");
+        }
+
+        List<StepShift> shifts = new ArrayList<>();
+        if (!startAt.equals(moved.getConfirmedStartAt()) || !endAt.equals(moved.getConfirmedEndAt())) {
+            shifts.add(new StepShift(moved, startAt, endAt));
+        }
+        LocalDateTime previousEnd = endAt;
+        for (FlowStep follower : context.followers) {
+            if (follower.getConfirmedStartAt().isAfter(previousEnd)) {
+                // Still after its predecessor; it and every later step keep their times.
+                break;
+            }
+            Optional<LocalDateTime> shifted = context.calendar.findEarliestStart(
+                    follower, ownerUserId, follower.getParticipantId(), duration, previousEnd.plusNanos(1), context.maxDate);
+            if (shifted.isEmpty()) {
+                return ReschedulePlan.infeasible(
+                        startAt, "後続ステップを予約可能期間内に移動できません。stepOrder=" + follower.getStepOrder());
+            }
+            previousEnd = shifted.get().plusMinutes(duration);
+            shifts.add(new StepShift(follower, shifted.get(), previousEnd));
+        }
+        return new ReschedulePlan(startAt, shifts, null, false);
+    }
+
+    private static void addParticipant(Set<Long> participantIds, FlowStep step) {
+        if (step.getParticipantId() != null) {
+            participantIds.add(step.getParticipantId());
+        }
+    }
+
+    private static final class RescheduleContext {
+        private final Flow flow;
+        private final List<FlowStep> steps;
+        private final FlowStep moved;
+        private final List<FlowStep> followers;
+        private final LocalDateTime previousBoundary;
+        private final BusyCalendar calendar;
+        private final LocalDate minDate;
+        private final LocalDate maxDate;
+
+        private RescheduleContext(
+                Flow flow,
+                List<FlowStep> steps,
+                FlowStep moved,
+                List<FlowStep> followers,
+                LocalDateTime previousBoundary,
+                BusyCalendar calendar,
+                LocalDate minDate,
+                LocalDate maxDate) {
+            this.flow = flow;
+            this.steps = steps;
+            this.moved = moved;
+            this.followers = followers;
+            this.previousBoundary = previousBoundary;
+            this.calendar = calendar;
+            this.minDate = minDate;
+            this.maxDate = maxDate;
+        }
+    }
+
+    public static class ChainPlan {
+        private final Long flowId;
+        private final List<ScheduledStep> steps;
+        private final boolean applied;
+
+        public ChainPlan(Long flowId, List<ScheduledStep> steps, boolean applied) {
+            this.flowId = flowId;
+            this.steps = List.copyOf(steps);
+            this.applied = applied;
+        }
+
+        public Long getFlowId() {
+            return flowId;
+        }
+
+        public List<ScheduledStep> getSteps() {
+            return steps;
+        }
+
+        /** False for a dry run; true when the chain was written. */
+        public boolean isApplied() {
+            return applied;
+        }
+    }
+
+    public static class ScheduledStep {
+        private final Long stepId;
+        private final int stepOrder;
+        private final Long participantId;
+        private final String participantName;
+        private final LocalDateTime startAt;
+        private final LocalDateTime endAt;
+
+        public ScheduledStep(
+                Long stepId,
+                int stepOrder,
+                Long participantId,
+                String participantName,
+                LocalDateTime startAt,
+                LocalDateTime endAt) {
+            this.stepId = stepId;
+            this.stepOrder = stepOrder;
+            this.participantId = participantId;
+            this.participantName = participantName;
+            this.startAt = startAt;
+            this.endAt = endAt;
+        }
+
+        public Long getStepId() {
+            return stepId;
+        }
+
+        public int getStepOrder() {
+            return stepOrder;
+        }
+
+        public Long getParticipantId() {
+            return participantId;
+        }
+
+        public String getParticipantName() {
+            return participantName;
+        }
+
+        public LocalDateTime getStartAt() {
+            return startAt;
+        }
+
+        public LocalDateTime getEndAt() {
+            return endAt;
+        }
+    }
+
+    /** Result of moving one step: the steps whose times change, or why the move is not possible. */
+    public static class ReschedulePlan {
+        private final LocalDateTime requestedStartAt;
+        private final List<StepShift> shifts;
+        private final String reason;
+        private final boolean applied;
+
+        public ReschedulePlan(LocalDateTime requestedStartAt, List<StepShift> shifts, String reason, boolean applied) {
+            this.requestedStartAt = requestedStartAt;
+            this.shifts = List.copyOf(shifts);
+            this.reason = reason;
+            this.applied = applied;
+        }
+
+        static ReschedulePlan infeasible(LocalDateTime requestedStartAt, String reason) {
+            return new ReschedulePlan(requestedStartAt, List.of(), reason, false);
+        }
+
+        public LocalDateTime getRequestedStartAt() {
+            return requestedStartAt;
+        }
+
+        public List<StepShift> getShifts() {
+            return shifts;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public boolean isFeasible() {
+            return reason == null;
+        }
+
+        public boolean isApplied() {
+            return applied;
+        }
+    }
+
+    public static class StepShift {
+        private final Long stepId;
+        private final int stepOrder;
+        private final Long participantId;
+        private final LocalDateTime fromStartAt;
+        private final LocalDateTime fromEndAt;
+        private final LocalDateTime toStartAt;
+        private final LocalDateTime toEndAt;
+
+        StepShift(FlowStep step, LocalDateTime toStartAt, LocalDateTime toEndAt) {
+            this.stepId = step.getId();
+            this.stepOrder = step.getStepOrder();
+            this.participantId = step.getParticipantId();
+            this.fromStartAt = step.getConfirmedStartAt();
+            this.fromEndAt = step.getConfirmedEndAt();
+            this.toStartAt = toStartAt;
+            this.toEndAt = toEndAt;
+        }
+
+        public Long getStepId() {
+            return stepId;
+        }
+
+        public int getStepOrder() {
+            return stepOrder;
+        }
+
+        public Long getParticipantId() {
+            return participantId;
+        }
+
+        public LocalDateTime getFromStartAt() {
+            return fromStartAt;
+        }
+
+        public LocalDateTime getFromEndAt() {
+            return fromEndAt;
+        }
+
+        public LocalDateTime getToStartAt() {
+            return toStartAt;
+        }
+
+        public LocalDateTime getToEndAt() {
+            return toEndAt;
+        }
+    }
+}
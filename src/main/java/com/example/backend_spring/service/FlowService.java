@@ -6,22 +6,30 @@ import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.annotation.Timed;
+
 import com.example.backend_spring.domain.Flow;
 import com.example.backend_spring.domain.FlowStep;
 import com.example.backend_spring.domain.FlowTemplate;
@@ -36,6 +44,7 @@ import com.example.backend_spring.repository.ParticipantRepository;
 import com.example.backend_spring.repository.StepCandidateRepository;
 
 @Service
+@Timed(value = "flow.service", description = "FlowService operation latency")
 public class FlowService {
 
     private static final List<String> BLOCKING_CANDIDATE_STATUSES = List.of("PROPOSED", "SELECTED");
@@ -44,7 +53,13 @@ public class FlowService {
     private static final DateTimeFormatter TIME_LABEL_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
     private static final DateTimeFormatter DATE_LABEL_FORMAT = DateTimeFormatter.ofPattern("yyyy/MM/dd");
     private static final DateTimeFormatter SCHEDULE_LABEL_FORMAT = DateTimeFormatter.ofPattern("M月d日 HH:mm");
-    private static final double HOUR_HEIGHT_PX = 44.0;
+    static final double HOUR_HEIGHT_PX = 44.0;
+    public static final int DEFAULT_FLOW_PAGE_SIZE = 50;
+    private static final int MAX_FLOW_PAGE_SIZE = 200;
+    public static final int DEFAULT_AVAILABLE_SLOT_COUNT = 5;
+    private static final int MAX_AVAILABLE_SLOT_COUNT = 50;
+    private static final int SLOT_MINUTES = 30;
+    public static final int MAX_PROPOSED_CANDIDATES = 20;
 
     private final FlowRepository flowRepo;
     private final FlowStepRepository stepRepo;
@@ -52,6 +67,11 @@ public class FlowService {
     private final FlowTemplateStepRepository templateStepRepo;
     private final StepCandidateRepository candidateRepo;
     private final ParticipantRepository participantRepo;
+    private final ParticipantNameCache participantNameCache;
+    private final ScheduleConflictIndex conflictIndex;
+    private final ConflictCheckMetrics conflictMetrics;
+    private final SlotReservationService slotReservations;
+    private final BookingLockService bookingLocks;
     private final Clock clock;
 
     @Autowired
@@ -62,6 +82,11 @@ public class FlowService {
             FlowTemplateStepRepository templateStepRepo,
             StepCandidateRepository candidateRepo,
             ParticipantRepository participantRepo,
+            ParticipantNameCache participantNameCache,
+            ScheduleConflictIndex conflictIndex,
+            ConflictCheckMetrics conflictMetrics,
+            SlotReservationService slotReservations,
+            BookingLockService bookingLocks,
             Clock clock) {
         this.flowRepo = flowRepo;
         this.stepRepo = stepRepo;
@@ -69,6 +94,11 @@ public class FlowService {
         this.templateStepRepo = templateStepRepo;
         this.candidateRepo = candidateRepo;
         this.participantRepo = participantRepo;
+        this.participantNameCache = participantNameCache;
+        this.conflictIndex = conflictIndex;
+        this.conflictMetrics = conflictMetrics;
+        this.slotReservations = slotReservations;
+        this.bookingLocks = bookingLocks;
         this.clock = clock;
     }
 
@@ -79,7 +109,9 @@ public class FlowService {
             StepCandidateRepository candidateRepo,
             ParticipantRepository participantRepo,
             Clock clock) {
-        this(flowRepo, stepRepo, null, null, candidateRepo, participantRepo, clock);
+        this(flowRepo, stepRepo, null, null, candidateRepo, participantRepo,
+                new ParticipantNameCache(participantRepo), ScheduleConflictIndex.disabled(),
+                ConflictCheckMetrics.unregistered(), SlotReservationService.disabled(), BookingLockService.disabled(), clock);
     }
 
     public static class StepCreationSpec {
@@ -138,11 +170,12 @@ public class FlowService {
         List<FlowStep> steps = new ArrayList<>();
         int order = 1;
         List<Long> safeParticipantIds = participantIds == null ? List.of() : participantIds;
+        Map<Long, Participant> participantsById = findParticipantsById(safeParticipantIds);
         for (Long participantId : safeParticipantIds) {
             if (participantId == null) {
                 continue;
             }
-            Participant participant = participantRepo.findById(participantId)
+            Participant participant = Optional.ofNullable(participantsById.get(participantId))
                     .orElseThrow(() -> new IllegalArgumentException("参加者が見つかりません。participantId=" + participantId));
 
             if (!"USER".equals(participant.getParticipantType())) {
@@ -184,11 +217,17 @@ public class FlowService {
         Flow flow = new Flow(title, durationMinutes, startFrom, createdByUserId);
         Flow saved = flowRepo.save(flow);
 
+        List<StepCreationSpec> specs = new ArrayList<>(stepSpecs.size());
+        for (StepCreationSpec rawSpec : stepSpecs) {
+            specs.add(normalizeStepCreationSpec(rawSpec));
+        }
+        Map<Long, Participant> participantsById = findParticipantsById(
+                specs.stream().map(StepCreationSpec::getParticipantId).toList());
+
         List<FlowStep> steps = new ArrayList<>();
         int order = 1;
-        for (StepCreationSpec rawSpec : stepSpecs) {
-            StepCreationSpec spec = normalizeStepCreationSpec(rawSpec);
-            Participant participant = participantRepo.findById(spec.getParticipantId())
+        for (StepCreationSpec spec : specs) {
+            Participant participant = Optional.ofNullable(participantsById.get(spec.getParticipantId()))
                     .orElseThrow(() -> new IllegalArgumentException("参加者が見つかりません。participantId=" + spec.getParticipantId()));
 
             if (!"USER".equals(participant.getParticipantType())) {
@@ -219,7 +258,25 @@ public class FlowService {
         return saved.getId();
     }
 
+    // One query for all participants of a new flow, so creating it does not cost a lookup per step.
+    private Map<Long, Participant> findParticipantsById(List<Long> participantIds) {
+        Set<Long> ids = new HashSet<>();
+        for (Long participantId : participantIds) {
+            if (participantId != null) {
+                ids.add(participantId);
+            }
+        }
+        Map<Long, Participant> participantsById = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Participant participant : participantRepo.findAllById(ids)) {
+                participantsById.put(participant.getId(), participant);
+            }
+        }
+        return participantsById;
+    }
+
     @Transactional
+    @OptimisticRetry
     public void reassignStepParticipant(Long flowId, Long stepId, Long participantId) {
         FlowStep step = stepRepo.findById(stepId)
                 .orElseThrow(() -> new IllegalArgumentException("ステップが見つかりません。stepId=" + stepId));
@@ -235,9 +292,14 @@ public class FlowService {
 
         step.reassignParticipant(participant.getId(), participant.getDisplayName());
         stepRepo.save(step);
+        if (step.getConfirmedStartAt() != null) {
+            slotReservations.reserve(getFlow(flowId), step);
+        }
+        conflictIndex.reloadFlowAfterCommit(flowId);
     }
 
     @Transactional
+    @OptimisticRetry
     public void updateStepReservableConstraints(
             Long flowId,
             Long stepId,
@@ -269,6 +331,7 @@ public class FlowService {
     }
 
     @Transactional
+    @OptimisticRetry
     public FlowStep appendStepWithPreviousDefaults(Long flowId, Long participantId) {
         Flow flow = getFlow(flowId);
         Participant participant = participantRepo.findById(participantId)
@@ -297,28 +360,55 @@ public class FlowService {
     }
 
     public List<Flow> listFlows(String status, String keyword, String sort) {
-        Comparator<Flow> comparator;
-        if ("created_asc".equals(sort)) {
-            comparator = Comparator.comparing(Flow::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
-                    .thenComparing(Flow::getId, Comparator.nullsLast(Comparator.naturalOrder()));
-        } else {
-            comparator = Comparator.comparing(Flow::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
-                    .thenComparing(Flow::getId, Comparator.nullsLast(Comparator.reverseOrder()));
+        return queryFlowList(status, keyword, sort, null, Limit.unlimited());
+    }
+
+    public List<Flow> listFlows() {
+        return listFlows(null, null, "created_asc");
+    }
+
+    public FlowListPage listFlowPage(String status, String keyword, String sort, String pageCursor, int pageSize) {
+        int size = pageSize < 1 ? DEFAULT_FLOW_PAGE_SIZE : Math.min(pageSize, MAX_FLOW_PAGE_SIZE);
+        FlowListCursor after = FlowListCursor.parse(pageCursor);
+
+        // Fetch one extra row to learn whether a next page exists without a COUNT query.
+        List<Flow> rows = queryFlowList(status, keyword, sort, after, Limit.of(size + 1));
+        if (rows.size() <= size) {
+            return new FlowListPage(rows, null);
         }
 
-        String normalizedStatus = status == null ? "" : status.trim();
-        String normalizedKeyword = keyword == null ? "" : keyword.trim().toLowerCase();
+        List<Flow> page = new ArrayList<>(rows.subList(0, size));
+        Flow last = page.get(page.size() - 1);
+        return new FlowListPage(page, new FlowListCursor(last.getCreatedAt(), last.getId()).format());
+    }
 
-        return flowRepo.findAll().stream()
-                .filter(flow -> normalizedStatus.isEmpty() || normalizedStatus.equals(flow.getStatus()))
-                .filter(flow -> normalizedKeyword.isEmpty() ||
-                        (flow.getTitle() != null && flow.getTitle().toLowerCase().contains(normalizedKeyword)))
-                .sorted(comparator)
-                .collect(Collectors.toList());
+    private List<Flow> queryFlowList(String status, String keyword, String sort, FlowListCursor after, Limit limit) {
+        String normalizedStatus = normalizeListStatus(status);
+        String keywordPattern = toKeywordPattern(keyword);
+
+        if ("created_desc".equals(sort)) {
+            return after == null
+                    ? flowRepo.findListPageOrderByCreatedDesc(normalizedStatus, keywordPattern, limit)
+                    : flowRepo.findListPageAfterOrderByCreatedDesc(
+                            normalizedStatus, keywordPattern, after.getCreatedAt(), after.getId(), limit);
+        }
+        return after == null
+                ? flowRepo.findListPageOrderByCreatedAsc(normalizedStatus, keywordPattern, limit)
+                : flowRepo.findListPageAfterOrderByCreatedAsc(
+                        normalizedStatus, keywordPattern, after.getCreatedAt(), after.getId(), limit);
     }
 
-    public List<Flow> listFlows() {
-        return listFlows(null, null, "created_asc");
+    private String normalizeListStatus(String status) {
+        return status == null ? "" : status.trim();
+    }
+
+    private String toKeywordPattern(String keyword) {
+        String normalizedKeyword = keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+        return normalizedKeyword.isEmpty() ? "" : "%" + escapeLikePattern(normalizedKeyword) + "%";
+    }
+
+    private String escapeLikePattern(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
     }
 
     public List<FlowTemplate> listAvailableTemplates(Long userId) {
@@ -438,32 +528,28 @@ public class FlowService {
             return labels;
         }
 
-        for (Flow flow : flows) {
-            if (flow == null || flow.getId() == null) {
-                continue;
-            }
+        Set<Long> flowIds = flows.stream()
+                .filter(flow -> flow != null && flow.getId() != null)
+                .map(Flow::getId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (flowIds.isEmpty()) {
+            return labels;
+        }
 
-            List<FlowStep> steps = stepRepo.findByFlowIdOrderByStepOrder(flow.getId());
-            Optional<FlowStep> confirmed = steps.stream()
-                    .filter(s -> s.getConfirmedStartAt() != null && s.getConfirmedEndAt() != null)
-                    .min(Comparator.comparing(FlowStep::getStepOrder));
+        for (FlowStepRepository.ScheduleSlotView slot : stepRepo.findFirstConfirmedSlotsByFlowIds(flowIds)) {
+            labels.putIfAbsent(slot.getFlowId(), formatScheduleLabel(slot.getStartAt(), slot.getEndAt()));
+        }
 
-            if (confirmed.isPresent()) {
-                FlowStep step = confirmed.get();
-                labels.put(flow.getId(), formatScheduleLabel(step.getConfirmedStartAt(), step.getConfirmedEndAt()));
-                continue;
-            }
+        Set<Long> unconfirmedFlowIds = flowIds.stream()
+                .filter(id -> !labels.containsKey(id))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (unconfirmedFlowIds.isEmpty()) {
+            return labels;
+        }
 
-            FlowStep active = stepRepo.findByFlowIdAndStepOrder(flow.getId(), flow.getCurrentStepOrder());
-            if (active != null && active.getId() != null) {
-                Optional<StepCandidate> candidate = candidateRepo.findByFlowStepIdOrderByStartAtAsc(active.getId()).stream()
-                        .filter(c -> BLOCKING_CANDIDATE_STATUSES.contains(c.getStatus()))
-                        .findFirst();
-                if (candidate.isPresent()) {
-                    StepCandidate c = candidate.get();
-                    labels.put(flow.getId(), formatScheduleLabel(c.getStartAt(), c.getEndAt()));
-                }
-            }
+        // Rows are ordered by start_at per flow, so the first one seen is the earliest candidate.
+        for (StepCandidateRepository.ScheduleSlotView slot : candidateRepo.findBlockingSlotsOfCurrentStepByFlowIds(unconfirmedFlowIds)) {
+            labels.putIfAbsent(slot.getFlowId(), formatScheduleLabel(slot.getStartAt(), slot.getEndAt()));
         }
         return labels;
     }
@@ -474,6 +560,7 @@ public class FlowService {
     }
 
     @Transactional
+    @OptimisticRetry
     public void updateFlow(Long id, String title, int durationMinutes, LocalDateTime startFrom) {
         validateReservableDateTime(startFrom, "調整開始日時");
         Flow flow = getFlow(id);
@@ -481,9 +568,11 @@ public class FlowService {
         flowRepo.save(flow);
     }
 
-    @Transactional
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    @OptimisticRetry
     public void updateConfirmedStepSchedule(Long flowId, Long stepId, LocalDateTime startAt) {
         validateReservableDateTime(startAt, "面談設定日時");
+        lockBookingOfStep(flowId, stepId, null);
 
         Flow flow = getFlow(flowId);
         FlowStep step = stepRepo.findById(stepId)
@@ -495,22 +584,26 @@ public class FlowService {
             throw new IllegalArgumentException("未設定のステップはこの画面から変更できません。");
         }
 
-        assertAfterPreviousStep(flowId, step.getStepOrder(), startAt, "面談設定日時");
         LocalDateTime endAt = startAt.plusMinutes(flow.getDurationMinutes());
         assertWithinStepReservableWindow(step, startAt, endAt, "面談設定日時");
-        assertNoOwnerTimeOverlap(flow, startAt, endAt, stepId);
-        assertNoParticipantTimeOverlap(step.getParticipantId(), startAt, endAt, stepId);
+        try (var booking = conflictMetrics.openBooking("update_schedule")) {
+            assertBookable(flow, step, step.getParticipantId(), startAt, endAt, stepId, "面談設定日時");
+        }
         step.confirm(startAt, endAt);
         stepRepo.save(step);
+        slotReservations.reserve(flow, step);
+        conflictIndex.reloadFlowAfterCommit(flowId);
     }
 
-    @Transactional
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    @OptimisticRetry
     public void finalizeStepAssignmentAndSchedule(
             Long flowId,
             Long stepId,
             Long participantId,
             LocalDateTime startAt) {
         validateReservableDateTime(startAt, "面談設定日時");
+        lockBookingOfStep(flowId, stepId, participantId);
 
         Flow flow = getFlow(flowId);
         FlowStep step = stepRepo.findById(stepId)
@@ -525,21 +618,24 @@ public class FlowService {
             throw new IllegalArgumentException("担当ユーザーとして設定できない参加者です。");
         }
 
-        assertAfterPreviousStep(flowId, step.getStepOrder(), startAt, "面談設定日時");
         LocalDateTime endAt = startAt.plusMinutes(flow.getDurationMinutes());
         assertWithinStepReservableWindow(step, startAt, endAt, "面談設定日時");
-        assertNoOwnerTimeOverlap(flow, startAt, endAt, stepId);
-        assertNoParticipantTimeOverlap(participant.getId(), startAt, endAt, stepId);
+        try (var booking = conflictMetrics.openBooking("finalize_step")) {
+            assertBookable(flow, step, participant.getId(), startAt, endAt, stepId, "面談設定日時");
+        }
 
         step.reassignParticipant(participant.getId(), participant.getDisplayName());
         step.confirm(startAt, endAt);
         stepRepo.save(step);
+        slotReservations.reserve(flow, step);
+        conflictIndex.reloadFlowAfterCommit(flowId);
     }
 
     @Transactional
     public void deleteFlow(Long id) {
         Flow flow = getFlow(id);
         flowRepo.delete(flow);
+        conflictIndex.removeFlowAfterCommit(id);
     }
 
     public List<FlowStep> getSteps(Long flowId) {
@@ -566,6 +662,44 @@ public class FlowService {
         return candidateRepo.findByFlowStepIdOrderByStartAtAsc(flowStepId);
     }
 
+    /**
+     * Loads the flow, its steps with participant names, the ACTIVE step's candidates and the participants'
+     * user ids in at most four queries.
+     */
+    public FlowAggregate loadFlowAggregate(Long flowId) {
+        Flow flow = getFlow(flowId);
+        List<FlowStep> steps = stepRepo.findByFlowIdOrderByStepOrder(flowId);
+
+        Set<Long> participantIds = new HashSet<>();
+        for (FlowStep step : steps) {
+            if (step.getParticipantId() != null) {
+                participantIds.add(step.getParticipantId());
+            }
+        }
+        Map<Long, String> names = new HashMap<>();
+        Map<Long, Long> userIds = new HashMap<>();
+        if (!participantIds.isEmpty()) {
+            for (Participant participant : participantRepo.findAllById(participantIds)) {
+                names.put(participant.getId(), participant.getDisplayName());
+                if (participant.getUserId() != null) {
+                    userIds.put(participant.getId(), participant.getUserId());
+                }
+            }
+        }
+
+        FlowStep active = null;
+        for (FlowStep step : steps) {
+            step.setParticipantName(names.getOrDefault(step.getParticipantId(), ParticipantNameCache.UNKNOWN_NAME));
+            if (step.getStepOrder() == flow.getCurrentStepOrder() && "ACTIVE".equals(step.getStatus())) {
+                active = step;
+            }
+        }
+        List<StepCandidate> candidates = active == null
+                ? List.of()
+                : candidateRepo.findByFlowStepIdOrderByStartAtAsc(active.getId());
+        return new FlowAggregate(flow, steps, active, candidates, userIds);
+    }
+
     public LocalDate getReservableMinDate() {
         return LocalDate.now(clock).plusDays(1);
     }
@@ -574,8 +708,179 @@ public class FlowService {
         return getReservableMinDate().plusMonths(3);
     }
 
+    /**
+     * Earliest 30-minute-aligned start times at which a candidate could be added to the flow's ACTIVE step
+     * without being rejected by addCandidateToActiveStep. Busy time of the flow owner and the step
+     * participant is read with a single query over the whole search window.
+     */
+    public List<AvailableSlot> findAvailableSlotsForActiveStep(Long flowId, LocalDateTime searchFrom, int limit) {
+        Flow flow = getFlow(flowId);
+        FlowStep active = stepRepo.findByFlowIdAndStepOrder(flowId, flow.getCurrentStepOrder());
+        if (active == null || !"ACTIVE".equals(active.getStatus())) {
+            return List.of();
+        }
+        FlowStep previous = active.getStepOrder() > 1
+                ? stepRepo.findByFlowIdAndStepOrder(flowId, active.getStepOrder() - 1)
+                : null;
+        return findAvailableSlots(flow, active, previous, searchFrom, limit);
+    }
+
+    /** Same as {@link #findAvailableSlotsForActiveStep(Long, LocalDateTime, int)}, reusing an already loaded aggregate. */
+    public List<AvailableSlot> findAvailableSlotsForActiveStep(FlowAggregate aggregate, LocalDateTime searchFrom, int limit) {
+        if (aggregate.getActiveStep().isEmpty()) {
+            return List.of();
+        }
+        FlowStep active = aggregate.getActiveStep().get();
+        FlowStep previous = aggregate.findStep(active.getStepOrder() - 1).orElse(null);
+        return findAvailableSlots(aggregate.getFlow(), active, previous, searchFrom, limit);
+    }
+
+    private List<AvailableSlot> findAvailableSlots(
+            Flow flow,
+            FlowStep active,
+            FlowStep previous,
+            LocalDateTime searchFrom,
+            int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_AVAILABLE_SLOT_COUNT));
+
+        int weekdayMask = active.getAllowedWeekdaysMask();
+        int windowStartMinute = alignUpToSlot(active.getAllowedStartMinute());
+        int windowEndMinute = Math.min(active.getAllowedEndMinute(), 1439);
+        int duration = flow.getDurationMinutes();
+        if (weekdayMask <= 0 || weekdayMask > ALL_WEEKDAYS_MASK || duration <= 0) {
+            return List.of();
+        }
+
+        LocalDateTime earliest = getReservableMinDate().atStartOfDay();
+        earliest = latest(earliest, alignUpToSlot(flow.getStartFrom()));
+        if (searchFrom != null) {
+            earliest = latest(earliest, alignUpToSlot(searchFrom));
+        }
+        if (active.getReservableFromDate() != null) {
+            earliest = latest(earliest, active.getReservableFromDate().atStartOfDay());
+        }
+        if (previous != null) {
+            LocalDateTime previousBoundary = previous.getConfirmedEndAt() != null
+                    ? previous.getConfirmedEndAt()
+                    : previous.getConfirmedStartAt();
+            if (previousBoundary == null) {
+                return List.of();
+            }
+            // Must start strictly after the previous step.
+            earliest = latest(earliest, alignUpToSlot(previousBoundary.plusNanos(1)));
+        }
+
+        LocalDate lastDate = getReservableMaxDate();
+        if (active.getReservableToDate() != null && active.getReservableToDate().isBefore(lastDate)) {
+            lastDate = active.getReservableToDate();
+        }
+        LocalDateTime searchEnd = lastDate.plusDays(1).atStartOfDay();
+        if (!earliest.isBefore(searchEnd)) {
+            return List.of();
+        }
+
+        List<LocalDateTime[]> busy = mergeBusyIntervals(stepRepo.findBlockingIntervalsForOwnerOrParticipantInWindow(
+                flow.getCreatedByUserId(), active.getParticipantId(), earliest, searchEnd), flow, active);
+
+        List<AvailableSlot> slots = new ArrayList<>();
+        int busyIndex = 0;
+        for (LocalDate day = earliest.toLocalDate(); !day.isAfter(lastDate) && slots.size() < size; day = day.plusDays(1)) {
+            int dayBit = 1 << (day.getDayOfWeek().getValue() % 7);
+            if ((weekdayMask & dayBit) == 0) {
+                continue;
+            }
+            int minute = windowStartMinute;
+            while (minute + duration <= windowEndMinute && slots.size() < size) {
+                LocalDateTime startAt = day.atStartOfDay().plusMinutes(minute);
+                if (startAt.isBefore(earliest)) {
+                    minute += SLOT_MINUTES;
+                    continue;
+                }
+                LocalDateTime endAt = startAt.plusMinutes(duration);
+                while (busyIndex < busy.size() && !busy.get(busyIndex)[1].isAfter(startAt)) {
+                    busyIndex++;
+                }
+                if (busyIndex < busy.size() && busy.get(busyIndex)[0].isBefore(endAt)) {
+                    // Skip past the busy block rather than probing each slot inside it.
+                    LocalDateTime busyEnd = busy.get(busyIndex)[1];
+                    if (!busyEnd.toLocalDate().equals(day)) {
+                        break;
+                    }
+                    minute = Math.max(minute + SLOT_MINUTES, alignUpToSlot(busyEnd.getHour() * 60 + busyEnd.getMinute()));
+                    continue;
+                }
+                slots.add(new AvailableSlot(startAt, endAt));
+                minute += SLOT_MINUTES;
+            }
+        }
+        return slots;
+    }
+
+    // Applies the same owner/participant rules as findBookingConflicts for a new candidate
+    // of the active step, then merges the blocking intervals into sorted, disjoint ranges.
+    private List<LocalDateTime[]> mergeBusyIntervals(
+            List<FlowStepRepository.BlockingIntervalView> rows,
+            Flow flow,
+            FlowStep active) {
+        List<LocalDateTime[]> merged = new ArrayList<>();
+        for (FlowStepRepository.BlockingIntervalView row : rows) {
+            boolean ownerBlocks = Objects.equals(row.getOwnerUserId(), flow.getCreatedByUserId())
+                    && ("CONFIRMED".equals(row.getStatus()) || "PROPOSED".equals(row.getStatus()));
+            boolean participantBlocks = active.getParticipantId() != null
+                    && active.getParticipantId().equals(row.getParticipantId())
+                    && !active.getId().equals(row.getStepId());
+            if (!ownerBlocks && !participantBlocks) {
+                continue;
+            }
+            LocalDateTime[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && !row.getStartAt().isAfter(last[1])) {
+                if (row.getEndAt().isAfter(last[1])) {
+                    last[1] = row.getEndAt();
+                }
+            } else {
+                merged.add(new LocalDateTime[] { row.getStartAt(), row.getEndAt() });
+            }
+        }
+        return merged;
+    }
+
+    private int alignUpToSlot(int minute) {
+        return ((minute + SLOT_MINUTES - 1) / SLOT_MINUTES) * SLOT_MINUTES;
+    }
+
+    private LocalDateTime alignUpToSlot(LocalDateTime dateTime) {
+        LocalDateTime truncated = dateTime.truncatedTo(ChronoUnit.MINUTES);
+        if (truncated.isBefore(dateTime)) {
+            truncated = truncated.plusMinutes(1);
+        }
+        int minuteOfDay = truncated.getHour() * 60 + truncated.getMinute();
+        return truncated.toLocalDate().atStartOfDay().plusMinutes(alignUpToSlot(minuteOfDay));
+    }
+
+    private LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
     public WeeklyCalendarView buildWeeklyCalendarView(List<Flow> flows, LocalDate cursorDate) {
-        List<CalendarSourceEvent> events = collectCalendarSourceEvents(flows);
+        Set<Long> flowIds = collectFlowIds(flows);
+        if (flowIds.isEmpty()) {
+            return buildWeeklyCalendarViewFromEvents(List.of(), cursorDate);
+        }
+        LocalDate weekStart = resolveWeekStart(cursorDate);
+        List<CalendarSourceEvent> events = toCalendarSourceEvents(stepRepo.findCalendarEventsByFlowIdsInWindow(
+                flowIds,
+                weekStart.atStartOfDay(),
+                weekStart.plusDays(7).atStartOfDay()));
+        return buildWeeklyCalendarViewFromEvents(events, cursorDate);
+    }
+
+    public WeeklyCalendarView buildWeeklyCalendarView(String status, String keyword, LocalDate cursorDate) {
+        LocalDate weekStart = resolveWeekStart(cursorDate);
+        List<CalendarSourceEvent> events = toCalendarSourceEvents(stepRepo.findCalendarEventsByFlowFilterInWindow(
+                normalizeListStatus(status),
+                toKeywordPattern(keyword),
+                weekStart.atStartOfDay(),
+                weekStart.plusDays(7).atStartOfDay()));
         return buildWeeklyCalendarViewFromEvents(events, cursorDate);
     }
 
@@ -587,39 +892,44 @@ public class FlowService {
         if (participant.isEmpty()) {
             return buildWeeklyCalendarViewFromEvents(List.of(), cursorDate);
         }
-        List<CalendarSourceEvent> events = collectCalendarSourceEventsForParticipant(participant.get().getId());
-        return buildWeeklyCalendarViewFromEvents(events, cursorDate);
+        return buildWeeklyCalendarViewForParticipants(Set.of(participant.get().getId()), cursorDate);
     }
 
     public WeeklyCalendarView buildWeeklyCalendarViewForFlowParticipants(Long flowId, LocalDate cursorDate) {
         if (flowId == null) {
             return buildWeeklyCalendarViewFromEvents(List.of(), cursorDate);
         }
+        return buildWeeklyCalendarViewForParticipants(
+                new LinkedHashSet<>(stepRepo.findDistinctParticipantIdsByFlowId(flowId)),
+                cursorDate);
+    }
+
+    public WeeklyCalendarView buildWeeklyCalendarViewForFlowParticipants(FlowAggregate aggregate, LocalDate cursorDate) {
+        return buildWeeklyCalendarViewForParticipants(aggregate.getParticipantIds(), cursorDate);
+    }
 
-        Set<Long> participantIds = stepRepo.findByFlowIdOrderByStepOrder(flowId).stream()
-                .map(FlowStep::getParticipantId)
-                .filter(id -> id != null)
-                .collect(Collectors.toCollection(java.util.LinkedHashSet::new));
-        if (participantIds.isEmpty()) {
+    private WeeklyCalendarView buildWeeklyCalendarViewForParticipants(Set<Long> participantIds, LocalDate cursorDate) {
+        if (participantIds == null || participantIds.isEmpty()) {
             return buildWeeklyCalendarViewFromEvents(List.of(), cursorDate);
         }
-
-        List<CalendarSourceEvent> events = collectCalendarSourceEventsForParticipants(participantIds);
+        LocalDate weekStart = resolveWeekStart(cursorDate);
+        List<CalendarSourceEvent> events = toCalendarSourceEvents(stepRepo.findCalendarEventsByParticipantIdsInWindow(
+                participantIds,
+                weekStart.atStartOfDay(),
+                weekStart.plusDays(7).atStartOfDay()));
         return buildWeeklyCalendarViewFromEvents(events, cursorDate);
     }
 
     private WeeklyCalendarView buildWeeklyCalendarViewFromEvents(List<CalendarSourceEvent> events, LocalDate cursorDate) {
-        LocalDate baseDate = cursorDate == null ? LocalDate.now(clock) : cursorDate;
-        LocalDate weekStart = baseDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate weekStart = resolveWeekStart(cursorDate);
         LocalDate weekEnd = weekStart.plusDays(6);
         LocalDate today = LocalDate.now(clock);
+        Map<LocalDate, List<CalendarSourceEvent>> eventsByDay = groupEventsByStartDay(events);
         List<WeeklyCalendarDay> days = new ArrayList<>(7);
 
         for (int i = 0; i < 7; i++) {
             LocalDate day = weekStart.plusDays(i);
-            List<CalendarEvent> dayEvents = events.stream()
-                    .filter(event -> day.equals(event.startAt.toLocalDate()))
-                    .sorted(Comparator.comparing(event -> event.startAt))
+            List<CalendarEvent> dayEvents = eventsByDay.getOrDefault(day, List.of()).stream()
                     .map(this::toWeeklyCalendarEvent)
                     .collect(Collectors.toList());
 
@@ -640,14 +950,35 @@ public class FlowService {
     }
 
     public MonthlyCalendarView buildMonthlyCalendarView(List<Flow> flows, LocalDate cursorDate) {
-        LocalDate baseDate = cursorDate == null ? LocalDate.now(clock) : cursorDate;
-        LocalDate monthStart = baseDate.withDayOfMonth(1);
-        LocalDate monthEnd = monthStart.with(TemporalAdjusters.lastDayOfMonth());
-        LocalDate gridStart = monthStart.with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
-        LocalDate gridEnd = monthEnd.with(TemporalAdjusters.nextOrSame(DayOfWeek.SATURDAY));
+        Set<Long> flowIds = collectFlowIds(flows);
+        if (flowIds.isEmpty()) {
+            return buildMonthlyCalendarViewFromEvents(List.of(), cursorDate);
+        }
+        LocalDate monthStart = resolveMonthStart(cursorDate);
+        List<CalendarSourceEvent> events = toCalendarSourceEvents(stepRepo.findCalendarEventsByFlowIdsInWindow(
+                flowIds,
+                resolveMonthGridStart(monthStart).atStartOfDay(),
+                resolveMonthGridEnd(monthStart).plusDays(1).atStartOfDay()));
+        return buildMonthlyCalendarViewFromEvents(events, cursorDate);
+    }
+
+    public MonthlyCalendarView buildMonthlyCalendarView(String status, String keyword, LocalDate cursorDate) {
+        LocalDate monthStart = resolveMonthStart(cursorDate);
+        List<CalendarSourceEvent> events = toCalendarSourceEvents(stepRepo.findCalendarEventsByFlowFilterInWindow(
+                normalizeListStatus(status),
+                toKeywordPattern(keyword),
+                resolveMonthGridStart(monthStart).atStartOfDay(),
+                resolveMonthGridEnd(monthStart).plusDays(1).atStartOfDay()));
+        return buildMonthlyCalendarViewFromEvents(events, cursorDate);
+    }
+
+    private MonthlyCalendarView buildMonthlyCalendarViewFromEvents(List<CalendarSourceEvent> events, LocalDate cursorDate) {
+        LocalDate monthStart = resolveMonthStart(cursorDate);
+        LocalDate gridStart = resolveMonthGridStart(monthStart);
+        LocalDate gridEnd = resolveMonthGridEnd(monthStart);
         LocalDate today = LocalDate.now(clock);
+        Map<LocalDate, List<CalendarSourceEvent>> eventsByDay = groupEventsByStartDay(events);
 
-        List<CalendarSourceEvent> events = collectCalendarSourceEvents(flows);
         List<MonthlyCalendarWeek> weeks = new ArrayList<>();
 
         LocalDate cursor = gridStart;
@@ -655,9 +986,7 @@ public class FlowService {
             List<MonthlyCalendarDay> days = new ArrayList<>(7);
             for (int i = 0; i < 7; i++) {
                 LocalDate day = cursor.plusDays(i);
-                List<MonthlyCalendarEvent> dayEvents = events.stream()
-                        .filter(event -> day.equals(event.startAt.toLocalDate()))
-                        .sorted(Comparator.comparing(event -> event.startAt))
+                List<MonthlyCalendarEvent> dayEvents = eventsByDay.getOrDefault(day, List.of()).stream()
                         .map(this::toMonthlyCalendarEvent)
                         .collect(Collectors.toList());
 
@@ -681,13 +1010,14 @@ public class FlowService {
                 weeks);
     }
 
-    @Transactional
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    @OptimisticRetry
     public void addCandidateToActiveStep(Long flowId, LocalDateTime startAt) {
+        lockBookingOfActiveStep(flowId);
         Flow flow = getFlow(flowId);
         FlowStep active = getActiveStep(flowId);
 
         validateReservableDateTime(startAt, "\u5019\u88dc\u65e5\u6642");
-        assertAfterPreviousStep(flowId, active.getStepOrder(), startAt, "\u5019\u88dc\u65e5\u6642");
 
         if (startAt.isBefore(flow.getStartFrom())) {
             throw new IllegalArgumentException("\u5019\u88dc\u65e5\u6642\u304c\u958b\u59cb\u53ef\u80fd\u65e5\u6642\u3088\u308a\u524d\u3067\u3059\u3002startAt=" + startAt + ", startFrom=" + flow.getStartFrom());
@@ -696,16 +1026,172 @@ public class FlowService {
         LocalDateTime endAt = startAt.plusMinutes(flow.getDurationMinutes());
 
         assertWithinStepReservableWindow(active, startAt, endAt, "候補日時");
-        assertNoOwnerTimeOverlap(flow, startAt, endAt, null);
-        assertNoParticipantTimeOverlap(active.getParticipantId(), startAt, endAt, active.getId());
+        try (var booking = conflictMetrics.openBooking("add_candidate")) {
+            assertBookable(flow, active, active.getParticipantId(), startAt, endAt, null, "\u5019\u88dc\u65e5\u6642");
+
+            StepCandidate created = candidateRepo.save(new StepCandidate(active.getId(), startAt, endAt));
+            // New behavior: when a date/time is entered, it is fixed immediately. The check above
+            // already covered this slot, so it is not repeated.
+            confirmCandidate(flowId, flow, active, created);
+        }
+    }
+
+    /**
+     * Proposes several start times for the ACTIVE step at once. Every slot is checked against the step's
+     * windows and against owner and participant conflicts, the latter with one range query covering the
+     * whole batch; accepted slots are stored as PROPOSED candidates with one {@code saveAll}. Unlike
+     * {@link #addCandidateToActiveStep}, nothing is auto-selected. Slots of the same batch must not
+     * overlap each other, as the owner conflict rule would reject them one by one too.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    @OptimisticRetry
+    public List<CandidateProposal> proposeCandidatesForActiveStep(Long flowId, List<LocalDateTime> startAts) {
+        if (startAts == null || startAts.isEmpty() || startAts.size() > MAX_PROPOSED_CANDIDATES) {
+            throw new IllegalArgumentException("候補日時は1〜" + MAX_PROPOSED_CANDIDATES + "件で指定してください。");
+        }
+        lockBookingOfActiveStep(flowId);
+        Flow flow = getFlow(flowId);
+        FlowStep active = getActiveStep(flowId);
+        LocalDateTime previousBoundary = null;
+        if (active.getStepOrder() > 1) {
+            FlowStep previous = stepRepo.findByFlowIdAndStepOrder(flowId, active.getStepOrder() - 1);
+            if (previous != null) {
+                previousBoundary = previous.getConfirmedEndAt() != null
+                        ? previous.getConfirmedEndAt()
+                        : previous.getConfirmedStartAt();
+                if (previousBoundary == null) {
+                    throw new IllegalArgumentException("前ステップの面談日時が未確定のため、このステップには日時を設定できません。");
+                }
+            }
+        }
 
-        StepCandidate created = candidateRepo.save(new StepCandidate(active.getId(), startAt, endAt));
-        // New behavior: when a date/time is entered, it is fixed immediately.
-        selectCandidateForActiveStep(flowId, created.getId());
+        int duration = flow.getDurationMinutes();
+        String[] reasons = new String[startAts.size()];
+        LocalDateTime windowStart = null;
+        LocalDateTime windowEnd = null;
+        for (int i = 0; i < startAts.size(); i++) {
+            LocalDateTime startAt = startAts.get(i);
+            reasons[i] = validateProposal(flow, active, previousBoundary, startAt);
+            if (reasons[i] == null) {
+                LocalDateTime endAt = startAt.plusMinutes(duration);
+                windowStart = windowStart == null || startAt.isBefore(windowStart) ? startAt : windowStart;
+                windowEnd = windowEnd == null || endAt.isAfter(windowEnd) ? endAt : windowEnd;
+            }
+        }
+
+        List<FlowStepRepository.BlockingIntervalView> blocking = List.of();
+        if (windowStart != null) {
+            try (var booking = conflictMetrics.openBooking("propose_candidates")) {
+                blocking = stepRepo.findBlockingIntervalsForOwnersOrParticipantsInWindow(
+                        QueryIds.listOf(flow.getCreatedByUserId()),
+                        QueryIds.listOf(active.getParticipantId()),
+                        windowStart,
+                        windowEnd);
+                conflictMetrics.recordCheck(
+                        active.getParticipantId() == null
+                                ? ConflictCheckMetrics.PARTY_OWNER
+                                : ConflictCheckMetrics.PARTY_OWNER_AND_PARTICIPANT,
+                        ConflictCheckMetrics.SOURCE_DATABASE,
+                        1);
+            }
+        }
+
+        List<StepCandidate> accepted = new ArrayList<>();
+        List<StepCandidate> perSlot = new ArrayList<>(startAts.size());
+        for (int i = 0; i < startAts.size(); i++) {
+            StepCandidate candidate = null;
+            if (reasons[i] == null) {
+                LocalDateTime startAt = startAts.get(i);
+                LocalDateTime endAt = startAt.plusMinutes(duration);
+                reasons[i] = findProposalConflict(flow, active, blocking, accepted, startAt, endAt);
+                if (reasons[i] == null) {
+                    candidate = new StepCandidate(active.getId(), startAt, endAt);
+                    accepted.add(candidate);
+                }
+            }
+            perSlot.add(candidate);
+        }
+        if (!accepted.isEmpty()) {
+            candidateRepo.saveAll(accepted);
+            conflictIndex.reloadFlowAfterCommit(flowId);
+        }
+
+        List<CandidateProposal> results = new ArrayList<>(startAts.size());
+        for (int i = 0; i < startAts.size(); i++) {
+            StepCandidate candidate = perSlot.get(i);
+            results.add(candidate != null
+                    ? new CandidateProposal(startAts.get(i), candidate.getEndAt(), candidate.getId(), null)
+                    : new CandidateProposal(startAts.get(i), null, null, reasons[i]));
+        }
+        return results;
     }
 
-    @Transactional
+    private String validateProposal(Flow flow, FlowStep active, LocalDateTime previousBoundary, LocalDateTime startAt) {
+        if (startAt == null) {
+            return "候補日時を指定してください。";
+        }
+        if (startAt.getMinute() % SLOT_MINUTES != 0 || startAt.getSecond() != 0 || startAt.getNano() != 0) {
+            return "設定時間は30分刻みで指定してください。";
+        }
+        if (previousBoundary != null && !startAt.isAfter(previousBoundary)) {
+            return "候補日時は前ステップ終了日時より後で指定してください。previous=" + previousBoundary;
+        }
+        if (startAt.isBefore(flow.getStartFrom())) {
+            return "候補日時が開始可能日時より前です。startFrom=" + flow.getStartFrom();
+        }
+        try {
+            validateReservableDateTime(startAt, "候補日時");
+            assertWithinStepReservableWindow(active, startAt, startAt.plusMinutes(flow.getDurationMinutes()), "候補日時");
+        } catch (IllegalArgumentException ex) {
+            return ex.getMessage();
+        }
+        return null;
+    }
+
+    // Same rules as assertNoOwnerTimeOverlap (confirmed steps and PROPOSED candidates of the owner's flows)
+    // and assertNoParticipantTimeOverlap (confirmed steps and PROPOSED/SELECTED candidates, this step aside).
+    private String findProposalConflict(
+            Flow flow,
+            FlowStep active,
+            List<FlowStepRepository.BlockingIntervalView> blocking,
+            List<StepCandidate> accepted,
+            LocalDateTime startAt,
+            LocalDateTime endAt) {
+        for (StepCandidate other : accepted) {
+            if (other.getStartAt().isBefore(endAt) && other.getEndAt().isAfter(startAt)) {
+                return "同じ依頼内の候補と重複しています。既存=" + other.getStartAt() + " - " + other.getEndAt();
+            }
+        }
+        for (FlowStepRepository.BlockingIntervalView row : blocking) {
+            if (!row.getStartAt().isBefore(endAt) || !row.getEndAt().isAfter(startAt)) {
+                continue;
+            }
+            boolean confirmed = "CONFIRMED".equals(row.getStatus());
+            boolean ownerConflict = Objects.equals(row.getOwnerUserId(), flow.getCreatedByUserId())
+                    && (confirmed || "PROPOSED".equals(row.getStatus()));
+            boolean participantConflict = active.getParticipantId() != null
+                    && active.getParticipantId().equals(row.getParticipantId())
+                    && !active.getId().equals(row.getStepId());
+            if (ownerConflict) {
+                return (confirmed ? "確定済み時間が重複しています: " : "候補時間が重複しています: ")
+                        + "既存=" + row.getStartAt() + " - " + row.getEndAt();
+            }
+            if (participantConflict) {
+                return (confirmed ? "参加者の確定済み時間が重複しています: " : "参加者の候補時間が重複しています: ")
+                        + "既存=" + row.getStartAt() + " - " + row.getEndAt();
+            }
+        }
+        return null;
+    }
+
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    @OptimisticRetry
     public void selectCandidateForActiveStep(Long flowId, Long candidateId) {
+        lockBookingOfActiveStep(flowId);
+        selectCandidate(flowId, candidateId);
+    }
+
+    private void selectCandidate(Long flowId, Long candidateId) {
         Flow flow = getFlow(flowId);
         FlowStep active = getActiveStep(flowId);
 
@@ -716,13 +1202,15 @@ public class FlowService {
             throw new IllegalArgumentException("ACTIVE\u30b9\u30c6\u30c3\u30d7\u306e\u5019\u88dc\u3067\u306f\u3042\u308a\u307e\u305b\u3093\u3002candidateId=" + candidateId);
         }
 
-        assertNoParticipantTimeOverlap(
-                active.getParticipantId(),
-                candidate.getStartAt(),
-                candidate.getEndAt(),
-                active.getId());
+        try (var booking = conflictMetrics.openBooking("select_candidate")) {
+            assertParticipantBookable(flow, active, candidate.getStartAt(), candidate.getEndAt(), "候補日時");
+        }
         assertWithinStepReservableWindow(active, candidate.getStartAt(), candidate.getEndAt(), "候補日時");
+        confirmCandidate(flowId, flow, active, candidate);
+    }
 
+    // Confirms an already checked candidate of the ACTIVE step and moves the flow to the next step.
+    private void confirmCandidate(Long flowId, Flow flow, FlowStep active, StepCandidate candidate) {
         candidate.select();
         active.confirm(candidate.getStartAt(), candidate.getEndAt());
 
@@ -736,24 +1224,12 @@ public class FlowService {
 
         stepRepo.save(active);
         candidateRepo.save(candidate);
+        slotReservations.reserve(flow, active);
 
-        int nextStepOrder = active.getStepOrder() + 1;
-        FlowStep next = stepRepo.findByFlowIdAndStepOrder(flowId, nextStepOrder);
-        if (next == null) {
-            int cycleSize = resolveStepCycleSize(flow, active);
-            int templateStepOrder = ((nextStepOrder - 1) % cycleSize) + 1;
-            FlowStep templateStep = stepRepo.findByFlowIdAndStepOrder(flowId, templateStepOrder);
-            if (templateStep == null) {
-                throw new IllegalStateException("次ステップ生成元が見つかりません。flowId=" + flowId + ", stepOrder=" + templateStepOrder);
-            }
-            applyParticipantName(templateStep);
-
-            next = new FlowStep(
-                    flowId,
-                    nextStepOrder,
-                    templateStep.getParticipantId(),
-                    templateStep.getParticipantName());
-            next.copyReservableConstraintsFrom(templateStep);
+        FlowStep next = StepCycle.nextStep(
+                flow, flowId, active, order -> stepRepo.findByFlowIdAndStepOrder(flowId, order));
+        if (next.getId() == null) {
+            applyParticipantName(next);
             next = stepRepo.save(next);
         }
 
@@ -762,6 +1238,7 @@ public class FlowService {
         stepRepo.save(next);
 
         flowRepo.save(flow);
+        conflictIndex.reloadFlowAfterCommit(flowId);
     }
 
     private List<String> buildHourLabels() {
@@ -783,138 +1260,65 @@ public class FlowService {
         return day.getMonthValue() + "/" + day.getDayOfMonth();
     }
 
-    private List<CalendarSourceEvent> collectCalendarSourceEvents(List<Flow> flows) {
+    private Set<Long> collectFlowIds(List<Flow> flows) {
         if (flows == null || flows.isEmpty()) {
-            return List.of();
+            return Set.of();
         }
+        return flows.stream()
+                .filter(flow -> flow != null && flow.getId() != null)
+                .map(Flow::getId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
 
-        List<CalendarSourceEvent> events = new ArrayList<>();
-        Map<Long, String> participantNameCache = new HashMap<>();
-        for (Flow flow : flows) {
-            if (flow == null || flow.getId() == null) {
+    private List<CalendarSourceEvent> toCalendarSourceEvents(List<FlowStepRepository.CalendarEventView> rows) {
+        List<CalendarSourceEvent> events = new ArrayList<>(rows.size());
+        for (FlowStepRepository.CalendarEventView row : rows) {
+            if (row.getStartAt() == null || row.getEndAt() == null) {
                 continue;
             }
-
-            List<FlowStep> steps = withParticipantNames(stepRepo.findByFlowIdOrderByStepOrder(flow.getId()));
-            for (FlowStep step : steps) {
-                if ("CONFIRMED".equals(step.getStatus())
-                        && step.getConfirmedStartAt() != null
-                        && step.getConfirmedEndAt() != null) {
-                    String participantName = resolveParticipantDisplayName(step, participantNameCache);
-                    events.add(new CalendarSourceEvent(
-                            step.getConfirmedStartAt(),
-                            step.getConfirmedEndAt(),
-                            "CONFIRMED",
-                            buildEventTitle(flow, participantName),
-                            buildTooltip(flow, participantName, "CONFIRMED", step.getConfirmedStartAt(), step.getConfirmedEndAt()),
-                            "/flows/" + flow.getId(),
-                            buildParticipantColorClass(participantName)));
-                }
-
-                if (!"ACTIVE".equals(step.getStatus()) || step.getId() == null) {
-                    continue;
-                }
-
-                List<StepCandidate> candidates = candidateRepo.findByFlowStepIdOrderByStartAtAsc(step.getId());
-                for (StepCandidate candidate : candidates) {
-                    if (!BLOCKING_CANDIDATE_STATUSES.contains(candidate.getStatus())
-                            || candidate.getStartAt() == null
-                            || candidate.getEndAt() == null) {
-                        continue;
-                    }
-                    String participantName = resolveParticipantDisplayName(step, participantNameCache);
-
-                    events.add(new CalendarSourceEvent(
-                            candidate.getStartAt(),
-                            candidate.getEndAt(),
-                            candidate.getStatus(),
-                            buildEventTitle(flow, participantName),
-                            buildTooltip(flow, participantName, candidate.getStatus(), candidate.getStartAt(), candidate.getEndAt()),
-                            "/flows/" + flow.getId(),
-                            buildParticipantColorClass(participantName)));
-                }
-            }
+            events.add(new CalendarSourceEvent(
+                    row.getStartAt(),
+                    row.getEndAt(),
+                    row.getStatus(),
+                    buildEventTitle(row.getFlowId(), row.getFlowTitle(), row.getParticipantName()),
+                    buildTooltip(row.getFlowId(), row.getFlowTitle(), row.getParticipantName(), row.getStatus(), row.getStartAt(), row.getEndAt()),
+                    "/flows/" + row.getFlowId(),
+                    buildParticipantColorClass(row.getParticipantName())));
         }
-
-        return events.stream()
-                .sorted(Comparator.comparing((CalendarSourceEvent event) -> event.startAt)
-                        .thenComparing(event -> event.endAt))
-                .collect(Collectors.toList());
+        return events;
     }
 
-    private List<CalendarSourceEvent> collectCalendarSourceEventsForParticipant(Long participantId) {
-        if (participantId == null) {
-            return List.of();
+    // Events arrive sorted by start time; grouping keeps that order within each day.
+    private Map<LocalDate, List<CalendarSourceEvent>> groupEventsByStartDay(List<CalendarSourceEvent> events) {
+        Map<LocalDate, List<CalendarSourceEvent>> eventsByDay = new HashMap<>();
+        for (CalendarSourceEvent event : events) {
+            eventsByDay.computeIfAbsent(event.startAt.toLocalDate(), day -> new ArrayList<>()).add(event);
         }
-        return collectCalendarSourceEventsForParticipants(Set.of(participantId));
+        return eventsByDay;
     }
 
-    private List<CalendarSourceEvent> collectCalendarSourceEventsForParticipants(Set<Long> participantIds) {
-        if (participantIds == null || participantIds.isEmpty()) {
-            return List.of();
-        }
-
-        List<Flow> flows = flowRepo.findAll();
-        List<CalendarSourceEvent> events = new ArrayList<>();
-        Map<Long, String> participantNameCache = new HashMap<>();
-        for (Flow flow : flows) {
-            if (flow == null || flow.getId() == null) {
-                continue;
-            }
-
-            List<FlowStep> steps = withParticipantNames(stepRepo.findByFlowIdOrderByStepOrder(flow.getId()));
-            for (FlowStep step : steps) {
-                if (!participantIds.contains(step.getParticipantId())) {
-                    continue;
-                }
+    private LocalDate resolveWeekStart(LocalDate cursorDate) {
+        LocalDate baseDate = cursorDate == null ? LocalDate.now(clock) : cursorDate;
+        return baseDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
 
-                if ("CONFIRMED".equals(step.getStatus())
-                        && step.getConfirmedStartAt() != null
-                        && step.getConfirmedEndAt() != null) {
-                    String participantName = resolveParticipantDisplayName(step, participantNameCache);
-                    events.add(new CalendarSourceEvent(
-                            step.getConfirmedStartAt(),
-                            step.getConfirmedEndAt(),
-                            "CONFIRMED",
-                            buildEventTitle(flow, participantName),
-                            buildTooltip(flow, participantName, "CONFIRMED", step.getConfirmedStartAt(), step.getConfirmedEndAt()),
-                            "/flows/" + flow.getId(),
-                            buildParticipantColorClass(participantName)));
-                }
+    private LocalDate resolveMonthStart(LocalDate cursorDate) {
+        LocalDate baseDate = cursorDate == null ? LocalDate.now(clock) : cursorDate;
+        return baseDate.withDayOfMonth(1);
+    }
 
-                if (!"ACTIVE".equals(step.getStatus()) || step.getId() == null) {
-                    continue;
-                }
-                List<StepCandidate> candidates = candidateRepo.findByFlowStepIdOrderByStartAtAsc(step.getId());
-                for (StepCandidate candidate : candidates) {
-                    if (!BLOCKING_CANDIDATE_STATUSES.contains(candidate.getStatus())
-                            || candidate.getStartAt() == null
-                            || candidate.getEndAt() == null) {
-                        continue;
-                    }
-                    String participantName = resolveParticipantDisplayName(step, participantNameCache);
-                    events.add(new CalendarSourceEvent(
-                            candidate.getStartAt(),
-                            candidate.getEndAt(),
-                            candidate.getStatus(),
-                            buildEventTitle(flow, participantName),
-                            buildTooltip(flow, participantName, candidate.getStatus(), candidate.getStartAt(), candidate.getEndAt()),
-                            "/flows/" + flow.getId(),
-                            buildParticipantColorClass(participantName)));
-                }
-            }
-        }
+    private LocalDate resolveMonthGridStart(LocalDate monthStart) {
+        return monthStart.with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
+    }
 
-        return events.stream()
-                .sorted(Comparator.comparing((CalendarSourceEvent event) -> event.startAt)
-                        .thenComparing(event -> event.endAt))
-                .collect(Collectors.toList());
+    private LocalDate resolveMonthGridEnd(LocalDate monthStart) {
+        return monthStart.with(TemporalAdjusters.lastDayOfMonth()).with(TemporalAdjusters.nextOrSame(DayOfWeek.SATURDAY));
     }
 
-    private String buildEventTitle(Flow flow, String participantName) {
-        String baseTitle = "#" + flow.getId();
-        if (flow.getTitle() != null && !flow.getTitle().isBlank()) {
-            baseTitle += " " + flow.getTitle();
+    private String buildEventTitle(Long flowId, String flowTitle, String participantName) {
+        String baseTitle = "#" + flowId;
+        if (flowTitle != null && !flowTitle.isBlank()) {
+            baseTitle += " " + flowTitle;
         }
         if (participantName != null && !participantName.isBlank()) {
             baseTitle += " / " + participantName;
@@ -953,41 +1357,32 @@ public class FlowService {
                 .orElseGet(() -> participantRepo.save(new Participant("EXTERNAL", null, name)));
     }
 
-    private String resolveParticipantDisplayName(FlowStep step, Map<Long, String> cache) {
-        if (step.getParticipantId() != null) {
-            if (cache.containsKey(step.getParticipantId())) {
-                return cache.get(step.getParticipantId());
+    private List<FlowStep> withParticipantNames(List<FlowStep> steps) {
+        Set<Long> participantIds = new HashSet<>();
+        for (FlowStep step : steps) {
+            if (step.getParticipantId() != null) {
+                participantIds.add(step.getParticipantId());
             }
-
-            String name = participantRepo.findById(step.getParticipantId())
-                    .map(Participant::getDisplayName)
-                    .orElse("Unknown");
-            cache.put(step.getParticipantId(), name);
-            return name;
         }
-        return "Unknown";
-    }
-
-    private List<FlowStep> withParticipantNames(List<FlowStep> steps) {
+        Map<Long, String> names = participantNameCache.getDisplayNames(participantIds);
         for (FlowStep step : steps) {
-            applyParticipantName(step);
+            step.setParticipantName(names.getOrDefault(step.getParticipantId(), ParticipantNameCache.UNKNOWN_NAME));
         }
         return steps;
     }
 
     private void applyParticipantName(FlowStep step) {
-        if (step.getParticipantId() == null) {
-            step.setParticipantName("Unknown");
-            return;
-        }
-        String name = participantRepo.findById(step.getParticipantId())
-                .map(Participant::getDisplayName)
-                .orElse("Unknown");
-        step.setParticipantName(name);
+        step.setParticipantName(participantNameCache.getDisplayName(step.getParticipantId()));
     }
 
-    private String buildTooltip(Flow flow, String participantName, String status, LocalDateTime startAt, LocalDateTime endAt) {
-        return buildEventTitle(flow, participantName)
+    private String buildTooltip(
+            Long flowId,
+            String flowTitle,
+            String participantName,
+            String status,
+            LocalDateTime startAt,
+            LocalDateTime endAt) {
+        return buildEventTitle(flowId, flowTitle, participantName)
                 + " [" + toStatusLabelJa(status) + "] "
                 + startAt.toString()
                 + " - "
@@ -1084,93 +1479,104 @@ public class FlowService {
         return "calendar-participant-" + bucket;
     }
 
-    private void assertNoOwnerTimeOverlap(Flow flow, LocalDateTime newStartAt, LocalDateTime newEndAt, Long excludeStepId) {
-        Long excludeFlowStepId = excludeStepId;
-        var candidateConflict = candidateRepo.findFirstTimeConflictForOwner(
-                flow.getCreatedByUserId(),
-                excludeFlowStepId,
-                newStartAt,
-                newEndAt);
-        if (candidateConflict.isPresent()) {
-            var c = candidateConflict.get();
-            throw new IllegalArgumentException(
-                    "\u5019\u88dc\u6642\u9593\u304c\u91cd\u8907\u3057\u3066\u3044\u307e\u3059: \u30d5\u30ed\u30fc=" + c.getFlowTitle()
-                            + ", \u53c2\u52a0\u8005=" + c.getParticipantName()
-                            + ", \u65e2\u5b58=" + c.getStartAt() + " - " + c.getEndAt());
+    // Booking locks come before every other read of the transaction, so the checks that follow see all
+    // bookings committed while this one waited (see BookingLockService).
+    private void lockBookingOfActiveStep(Long flowId) {
+        if (bookingLocks.isEnabled()) {
+            stepRepo.findBookingKeyOfActiveStep(flowId)
+                    .ifPresent(key -> bookingLocks.lockForBooking(key.getOwnerUserId(), key.getParticipantId()));
         }
+    }
 
-        var confirmedConflict = stepRepo.findFirstConfirmedConflictForOwner(
-                flow.getCreatedByUserId(), excludeStepId, newStartAt, newEndAt);
-        if (confirmedConflict.isPresent()) {
-            var c = confirmedConflict.get();
-            throw new IllegalArgumentException(
-                    "\u78ba\u5b9a\u6e08\u307f\u6642\u9593\u304c\u91cd\u8907\u3057\u3066\u3044\u307e\u3059: \u30d5\u30ed\u30fc=" + c.getFlowTitle()
-                            + ", \u53c2\u52a0\u8005=" + c.getParticipantName()
-                            + ", \u65e2\u5b58=" + c.getStartAt() + " - " + c.getEndAt());
+    // newParticipantId, when given, replaces the step's current participant.
+    private void lockBookingOfStep(Long flowId, Long stepId, Long newParticipantId) {
+        if (bookingLocks.isEnabled()) {
+            stepRepo.findBookingKeyOfStep(flowId, stepId)
+                    .ifPresent(key -> bookingLocks.lockForBooking(
+                            key.getOwnerUserId(),
+                            newParticipantId != null ? newParticipantId : key.getParticipantId()));
         }
     }
 
-    private void assertNoParticipantTimeOverlap(
+    /**
+     * Previous-step boundary and owner/participant overlap checks for booking {@code step}, in one
+     * {@code findBookingConflicts} statement against the database whatever the state of the conflict
+     * index, so a booking is checked against everything committed before it. Every conflicting interval
+     * is reported in a single message instead of only the first one. Flows without an owner conflict
+     * with each other. Package-private so the JMH harness can drive the check without mutating data.
+     */
+    void assertBookable(
+            Flow flow,
+            FlowStep step,
             Long participantId,
-            LocalDateTime newStartAt,
-            LocalDateTime newEndAt,
-            Long excludeStepId) {
-        if (participantId == null) {
+            LocalDateTime startAt,
+            LocalDateTime endAt,
+            Long ownerExcludeStepId,
+            String label) {
+        List<FlowStepRepository.BookingConflictView> rows = stepRepo.findBookingConflicts(
+                QueryIds.orNone(flow.getCreatedByUserId()),
+                QueryIds.orNone(ownerExcludeStepId),
+                flow.getCreatedByUserId() == null,
+                QueryIds.orNone(participantId),
+                step.getId(),
+                flow.getId(),
+                step.getStepOrder() - 1,
+                startAt,
+                endAt);
+        conflictMetrics.recordCheck(
+                participantId == null ? ConflictCheckMetrics.PARTY_OWNER : ConflictCheckMetrics.PARTY_OWNER_AND_PARTICIPANT,
+                ConflictCheckMetrics.SOURCE_DATABASE,
+                1);
+        throwOnConflicts(rows, startAt, label);
+    }
+
+    // Selecting a candidate re-checks only the participant; the owner rules were applied when the
+    // candidate was proposed. Same statement with the owner and previous-step branches emptied.
+    private void assertParticipantBookable(
+            Flow flow, FlowStep step, LocalDateTime startAt, LocalDateTime endAt, String label) {
+        if (step.getParticipantId() == null) {
             return;
         }
-
-        Long excludeFlowStepId = excludeStepId;
-        var candidateConflict = candidateRepo.findFirstTimeConflictForParticipant(
-                participantId,
-                excludeFlowStepId,
-                newStartAt,
-                newEndAt);
-        if (candidateConflict.isPresent()) {
-            var c = candidateConflict.get();
-            throw new IllegalArgumentException(
-                    "\u53c2\u52a0\u8005\u306e\u5019\u88dc\u6642\u9593\u304c\u91cd\u8907\u3057\u3066\u3044\u307e\u3059: \u30d5\u30ed\u30fc=" + c.getFlowTitle()
-                            + ", \u53c2\u52a0\u8005=" + c.getParticipantName()
-                            + ", \u65e2\u5b58=" + c.getStartAt() + " - " + c.getEndAt());
-        }
-
-        var confirmedConflict = stepRepo.findFirstConfirmedConflictForParticipant(
-                participantId,
-                excludeStepId,
-                newStartAt,
-                newEndAt);
-        if (confirmedConflict.isPresent()) {
-            var c = confirmedConflict.get();
-            throw new IllegalArgumentException(
-                    "\u53c2\u52a0\u8005\u306e\u78ba\u5b9a\u6e08\u307f\u6642\u9593\u304c\u91cd\u8907\u3057\u3066\u3044\u307e\u3059: \u30d5\u30ed\u30fc=" + c.getFlowTitle()
-                            + ", \u53c2\u52a0\u8005=" + c.getParticipantName()
-                            + ", \u65e2\u5b58=" + c.getStartAt() + " - " + c.getEndAt());
+        List<FlowStepRepository.BookingConflictView> rows = stepRepo.findBookingConflicts(
+                QueryIds.NONE, QueryIds.NONE, false, step.getParticipantId(), step.getId(), flow.getId(), 0, startAt, endAt);
+        conflictMetrics.recordCheck(ConflictCheckMetrics.PARTY_PARTICIPANT, ConflictCheckMetrics.SOURCE_DATABASE, 1);
+        throwOnConflicts(rows, startAt, label);
+    }
+
+    private void throwOnConflicts(
+            List<FlowStepRepository.BookingConflictView> rows, LocalDateTime startAt, String label) {
+        List<String> conflicts = new ArrayList<>();
+        for (FlowStepRepository.BookingConflictView row : rows) {
+            if (FlowStepRepository.BookingConflictView.CONFLICT_PREVIOUS_STEP.equals(row.getConflictType())) {
+                assertAfterBoundary(row.getStartAt(), row.getEndAt(), startAt, label);
+            } else {
+                conflicts.add(conflictMessagePrefix(row.getConflictType())
+                        + describeConflict(row.getFlowTitle(), row.getParticipantName(), row.getStartAt(), row.getEndAt()));
+            }
         }
-    }
-
-    private int resolveStepCycleSize(Flow flow, FlowStep activeStep) {
-        Integer configured = flow.getStepCycleSize();
-        if (configured != null && configured > 0) {
-            return configured;
+        if (!conflicts.isEmpty()) {
+            throw new IllegalArgumentException(String.join(" / ", conflicts));
         }
-
-        int inferred = Math.max(1, activeStep.getStepOrder());
-        flow.ensureStepCycleSize(inferred);
-        return inferred;
     }
 
-    private void assertAfterPreviousStep(Long flowId, int stepOrder, LocalDateTime startAt, String label) {
-        if (stepOrder <= 1) {
-            return;
-        }
+    private static String conflictMessagePrefix(String conflictType) {
+        return switch (conflictType) {
+            case FlowStepRepository.BookingConflictView.CONFLICT_OWNER_CANDIDATE -> "\u5019\u88dc\u6642\u9593\u304c\u91cd\u8907\u3057\u3066\u3044\u307e\u3059: ";
+            case FlowStepRepository.BookingConflictView.CONFLICT_OWNER_CONFIRMED -> "\u78ba\u5b9a\u6e08\u307f\u6642\u9593\u304c\u91cd\u8907\u3057\u3066\u3044\u307e\u3059: ";
+            case FlowStepRepository.BookingConflictView.CONFLICT_PARTICIPANT_CANDIDATE -> "\u53c2\u52a0\u8005\u306e\u5019\u88dc\u6642\u9593\u304c\u91cd\u8907\u3057\u3066\u3044\u307e\u3059: ";
+            default -> "\u53c2\u52a0\u8005\u306e\u78ba\u5b9a\u6e08\u307f\u6642\u9593\u304c\u91cd\u8907\u3057\u3066\u3044\u307e\u3059: ";
+        };
+    }
 
-        FlowStep previous = stepRepo.findByFlowIdAndStepOrder(flowId, stepOrder - 1);
-        if (previous == null) {
-            return;
-        }
+    private String describeConflict(String flowTitle, String participantName, LocalDateTime startAt, LocalDateTime endAt) {
+        return "\u30d5\u30ed\u30fc=" + flowTitle
+                + ", \u53c2\u52a0\u8005=" + participantName
+                + ", \u65e2\u5b58=" + startAt + " - " + endAt;
+    }
 
-        LocalDateTime previousBoundary = previous.getConfirmedEndAt() != null
-                ? previous.getConfirmedEndAt()
-                : previous.getConfirmedStartAt();
+    private void assertAfterBoundary(
+            LocalDateTime previousStartAt, LocalDateTime previousEndAt, LocalDateTime startAt, String label) {
+        LocalDateTime previousBoundary = previousEndAt != null ? previousEndAt : previousStartAt;
         if (previousBoundary == null) {
             throw new IllegalArgumentException("前ステップの面談日時が未確定のため、このステップには日時を設定できません。");
         }
@@ -1325,6 +1731,121 @@ public class FlowService {
         }
     }
 
+    /** Outcome of one proposed slot: the stored candidate, or the reason it was rejected. */
+    public static class CandidateProposal {
+        private final LocalDateTime startAt;
+        private final LocalDateTime endAt;
+        private final Long candidateId;
+        private final String reason;
+
+        public CandidateProposal(LocalDateTime startAt, LocalDateTime endAt, Long candidateId, String reason) {
+            this.startAt = startAt;
+            this.endAt = endAt;
+            this.candidateId = candidateId;
+            this.reason = reason;
+        }
+
+        public LocalDateTime getStartAt() {
+            return startAt;
+        }
+
+        public LocalDateTime getEndAt() {
+            return endAt;
+        }
+
+        public Long getCandidateId() {
+            return candidateId;
+        }
+
+        public boolean isAccepted() {
+            return reason == null;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+
+    public static class AvailableSlot {
+        private final LocalDateTime startAt;
+        private final LocalDateTime endAt;
+
+        public AvailableSlot(LocalDateTime startAt, LocalDateTime endAt) {
+            this.startAt = startAt;
+            this.endAt = endAt;
+        }
+
+        public LocalDateTime getStartAt() {
+            return startAt;
+        }
+
+        public LocalDateTime getEndAt() {
+            return endAt;
+        }
+    }
+
+    public static class FlowListPage {
+        private final List<Flow> flows;
+        private final String nextCursor;
+
+        public FlowListPage(List<Flow> flows, String nextCursor) {
+            this.flows = flows;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<Flow> getFlows() {
+            return flows;
+        }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+
+        public boolean hasNext() {
+            return nextCursor != null;
+        }
+    }
+
+    // Keyset position of the last row of a flow list page, encoded as "<createdAt>_<id>".
+    static class FlowListCursor {
+        private final LocalDateTime createdAt;
+        private final Long id;
+
+        FlowListCursor(LocalDateTime createdAt, Long id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+
+        static FlowListCursor parse(String text) {
+            if (text == null || text.isBlank()) {
+                return null;
+            }
+            int separator = text.lastIndexOf('_');
+            if (separator <= 0 || separator == text.length() - 1) {
+                return null;
+            }
+            try {
+                return new FlowListCursor(
+                        LocalDateTime.parse(text.substring(0, separator)),
+                        Long.valueOf(text.substring(separator + 1)));
+            } catch (DateTimeParseException | NumberFormatException ex) {
+                return null;
+            }
+        }
+
+        String format() {
+            return createdAt + "_" + id;
+        }
+
+        LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        Long getId() {
+            return id;
+        }
+    }
+
     public static class WeeklyCalendarView {
         private final String weekStart;
         private final String prevWeekStart;
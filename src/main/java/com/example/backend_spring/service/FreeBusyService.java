@@ -0,0 +1,114 @@
+package com.example.backend_spring.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.example.backend_spring.repository.FlowStepRepository;
+
+/**
+ * Free/busy bitmaps on 30-minute slots, answered from the occupancy bitmaps of {@link ScheduleConflictIndex}.
+ * Busy time is rounded outwards to slot boundaries, so "free" is exact while "busy" may be a false positive;
+ * bookings are still validated by {@code FlowService} against the database. When the index is off, the
+ * per-day bitmaps are built from one database query instead.
+ */
+@Service
+public class FreeBusyService {
+
+    /** 48 slots of one day packed into 6 bytes. */
+    public static final int BYTES_PER_DAY = SlotOccupancy.SLOTS_PER_DAY / 8;
+
+    private final ScheduleConflictIndex conflictIndex;
+    private final FlowStepRepository stepRepo;
+
+    public FreeBusyService(ScheduleConflictIndex conflictIndex, FlowStepRepository stepRepo) {
+        this.conflictIndex = conflictIndex;
+        this.stepRepo = stepRepo;
+    }
+
+    public boolean isAvailable() {
+        return conflictIndex.isReady();
+    }
+
+    /**
+     * Busy bits of each participant for every day of {@code [fromDate, toDate]}, packed into
+     * {@link #BYTES_PER_DAY} bytes per day and base64url-encoded without padding. Day {@code d} occupies
+     * bytes {@code [d * 6, d * 6 + 6)}; bit {@code i} of byte {@code k} is slot {@code k * 8 + i}, i.e. the
+     * 30 minutes starting at {@code (k * 8 + i) * 30} minutes past midnight.
+     */
+    public BusyBitmaps getBusyBitmaps(Collection<Long> participantIds, LocalDate fromDate, LocalDate toDate) {
+        SlotOccupancy occupancy = isAvailable() ? null : loadParticipantOccupancy(participantIds, fromDate, toDate);
+        int days = (int) ChronoUnit.DAYS.between(fromDate, toDate) + 1;
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        Map<Long, String> encoded = new LinkedHashMap<>();
+        byte[] bytes = new byte[days * BYTES_PER_DAY];
+        for (Long participantId : participantIds) {
+            for (int day = 0; day < days; day++) {
+                LocalDate date = fromDate.plusDays(day);
+                long bits = occupancy == null
+                        ? conflictIndex.getParticipantBusyBits(participantId, date)
+                        : occupancy.get(participantId, date);
+                for (int k = 0; k < BYTES_PER_DAY; k++) {
+                    bytes[day * BYTES_PER_DAY + k] = (byte) (bits >>> (8 * k));
+                }
+            }
+            encoded.put(participantId, encoder.encodeToString(bytes));
+        }
+        return new BusyBitmaps(fromDate, toDate, encoded);
+    }
+
+    private SlotOccupancy loadParticipantOccupancy(Collection<Long> participantIds, LocalDate fromDate, LocalDate toDate) {
+        SlotOccupancy occupancy = new SlotOccupancy();
+        if (participantIds.isEmpty()) {
+            return occupancy;
+        }
+        List<FlowStepRepository.BlockingIntervalView> rows = stepRepo.findBlockingIntervalsForParticipantsInWindow(
+                participantIds, fromDate.atStartOfDay(), toDate.plusDays(1).atStartOfDay());
+        for (FlowStepRepository.BlockingIntervalView row : rows) {
+            LocalDate first = row.getStartAt().toLocalDate().isBefore(fromDate) ? fromDate : row.getStartAt().toLocalDate();
+            for (LocalDate day = first; !day.isAfter(toDate) && day.atStartOfDay().isBefore(row.getEndAt()); day = day.plusDays(1)) {
+                occupancy.or(row.getParticipantId(), day, SlotOccupancy.maskOf(row.getStartAt(), row.getEndAt(), day));
+            }
+        }
+        return occupancy;
+    }
+
+    public static class BusyBitmaps {
+        private final LocalDate from;
+        private final LocalDate to;
+        private final Map<Long, String> busy;
+
+        public BusyBitmaps(LocalDate from, LocalDate to, Map<Long, String> busy) {
+            this.from = from;
+            this.to = to;
+            this.busy = busy;
+        }
+
+        public LocalDate getFrom() {
+            return from;
+        }
+
+        public LocalDate getTo() {
+            return to;
+        }
+
+        public int getSlotMinutes() {
+            return SlotOccupancy.SLOT_MINUTES;
+        }
+
+        public int getBytesPerDay() {
+            return BYTES_PER_DAY;
+        }
+
+        /** Encoded busy bits per participant id, in request order. */
+        public Map<Long, String> getBusy() {
+            return busy;
+        }
+    }
+}
@@ -0,0 +1,427 @@
+package com.example.backend_spring.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.annotation.Timed;
+
+import com.example.backend_spring.domain.Flow;
+import com.example.backend_spring.domain.FlowStep;
+import com.example.backend_spring.domain.Participant;
+import com.example.backend_spring.domain.StepCandidate;
+import com.example.backend_spring.repository.FlowRepository;
+import com.example.backend_spring.repository.FlowStepRepository;
+import com.example.backend_spring.repository.ParticipantRepository;
+import com.example.backend_spring.repository.StepCandidateRepository;
+
+/**
+ * Plans hiring days: assigns an interviewer from a pool and a start time to the ACTIVE step of many flows
+ * at once. Everything is read up front with a fixed number of queries, the assignment is computed in
+ * memory on a {@link BusyCalendar}, and the result is written in one transaction with batched saves.
+ *
+ * Flows are placed greedily in order of their earliest possible start; each takes the earliest slot over
+ * all interviewers, ties going to the interviewer with the fewest assignments so far. A flow that fits
+ * nowhere in its window is reported as unplanned instead of failing the batch.
+ */
+@Service
+@Timed(value = "flow.planner", description = "Batch scheduling latency")
+public class InterviewDayPlanner {
+
+    public static final int MAX_FLOWS = 5000;
+    public static final int MAX_INTERVIEWERS = 200;
+
+    private final FlowRepository flowRepo;
+    private final FlowStepRepository stepRepo;
+    private final StepCandidateRepository candidateRepo;
+    private final ParticipantRepository participantRepo;
+    private final FlowService flowService;
+    private final ScheduleConflictIndex conflictIndex;
+    private final SlotReservationService slotReservations;
+    private final BookingLockService bookingLocks;
+
+    public InterviewDayPlanner(
+            FlowRepository flowRepo,
+            FlowStepRepository stepRepo,
+            StepCandidateRepository candidateRepo,
+            ParticipantRepository participantRepo,
+            FlowService flowService,
+            ScheduleConflictIndex conflictIndex,
+            SlotReservationService slotReservations,
+            BookingLockService bookingLocks) {
+        this.flowRepo = flowRepo;
+        this.stepRepo = stepRepo;
+        this.candidateRepo = candidateRepo;
+        this.participantRepo = participantRepo;
+        this.flowService = flowService;
+        this.conflictIndex = conflictIndex;
+        this.slotReservations = slotReservations;
+        this.bookingLocks = bookingLocks;
+    }
+
+    /**
+     * Computes the assignment and, unless {@code dryRun}, confirms every planned ACTIVE step with its
+     * interviewer and start time and activates the next step, as selecting a candidate would. A real run
+     * first locks every owner and interviewer, as single bookings do, so busy time is read after them.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    @OptimisticRetry
+    public Plan plan(Collection<Long> flowIds, Collection<Long> interviewerParticipantIds, LocalDate fromDate, boolean dryRun) {
+        Set<Long> requestedFlowIds = distinctNonNull(flowIds);
+        Set<Long> requestedInterviewerIds = distinctNonNull(interviewerParticipantIds);
+        if (requestedFlowIds.isEmpty()) {
+            throw new IllegalArgumentException("フローを1件以上指定してください。");
+        }
+        if (requestedInterviewerIds.isEmpty()) {
+            throw new IllegalArgumentException("面接担当者を1名以上指定してください。");
+        }
+        if (requestedFlowIds.size() > MAX_FLOWS || requestedInterviewerIds.size() > MAX_INTERVIEWERS) {
+            throw new IllegalArgumentException(
+                    "一度に計画できるのはフロー" + MAX_FLOWS + "件、面接担当者" + MAX_INTERVIEWERS + "名までです。");
+        }
+        if (!dryRun && bookingLocks.isEnabled()) {
+            bookingLocks.lockForBookings(flowRepo.findOwnerUserIdsByIdIn(requestedFlowIds), requestedInterviewerIds);
+        }
+
+        List<Participant> interviewers = loadInterviewers(requestedInterviewerIds);
+        Map<Long, Flow> flows = new HashMap<>();
+        for (Flow flow : flowRepo.findAllById(requestedFlowIds)) {
+            flows.put(flow.getId(), flow);
+        }
+        Map<Long, List<FlowStep>> stepsByFlow = new HashMap<>();
+        for (FlowStep step : stepRepo.findByFlowIdInOrderByFlowIdAscStepOrderAsc(requestedFlowIds)) {
+            stepsByFlow.computeIfAbsent(step.getFlowId(), id -> new ArrayList<>()).add(step);
+        }
+
+        LocalDate minDate = flowService.getReservableMinDate();
+        LocalDate maxDate = flowService.getReservableMaxDate();
+        LocalDateTime searchFrom = fromDate == null || fromDate.isBefore(minDate)
+                ? minDate.atStartOfDay()
+                : fromDate.atStartOfDay();
+
+        List<Unplanned> unplanned = new ArrayList<>();
+        List<Request> requests = new ArrayList<>();
+        for (Long flowId : requestedFlowIds) {
+            Flow flow = flows.get(flowId);
+            if (flow == null) {
+                unplanned.add(new Unplanned(flowId, "フローが見つかりません。"));
+                continue;
+            }
+            List<FlowStep> steps = stepsByFlow.getOrDefault(flowId, List.of());
+            FlowStep active = findStep(steps, flow.getCurrentStepOrder());
+            if (active == null || !"ACTIVE".equals(active.getStatus())) {
+                unplanned.add(new Unplanned(flowId, "ACTIVEなステップがありません。"));
+                continue;
+            }
+            LocalDateTime earliest = latest(searchFrom, flow.getStartFrom());
+            FlowStep previous = findStep(steps, active.getStepOrder() - 1);
+            if (previous != null) {
+                LocalDateTime boundary = previous.getConfirmedEndAt() != null
+                        ? previous.getConfirmedEndAt()
+                        : previous.getConfirmedStartAt();
+                if (boundary == null) {
+                    unplanned.add(new Unplanned(flowId, "前ステップの面談日時が未確定です。"));
+                    continue;
+                }
+                // Must start strictly after the previous step.
+                earliest = latest(earliest, boundary.plusNanos(1));
+            }
+            requests.add(new Request(flow, active, steps, earliest));
+        }
+
+        List<Assignment> assignments = new ArrayList<>();
+        if (!requests.isEmpty()) {
+            BusyCalendar calendar = loadCalendar(requests, interviewers, searchFrom, maxDate);
+            Map<Long, Integer> load = new HashMap<>();
+            requests.sort(Comparator.comparing((Request r) -> r.earliest).thenComparing(r -> r.flow.getId()));
+            for (Request request : requests) {
+                Optional<Assignment> assignment = assign(request, interviewers, calendar, load, maxDate);
+                if (assignment.isPresent()) {
+                    assignments.add(assignment.get());
+                } else {
+                    unplanned.add(new Unplanned(request.flow.getId(), "予約可能期間内に空き枠がありません。"));
+                }
+            }
+        }
+
+        if (!dryRun && !assignments.isEmpty()) {
+            apply(requests, assignments);
+        }
+        return new Plan(assignments, unplanned, !dryRun);
+    }
+
+    private List<Participant> loadInterviewers(Set<Long> ids) {
+        Map<Long, Participant> found = new HashMap<>();
+        for (Participant participant : participantRepo.findAllById(ids)) {
+            found.put(participant.getId(), participant);
+        }
+        List<Participant> interviewers = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Participant participant = found.get(id);
+            if (participant == null) {
+                throw new IllegalArgumentException("参加者が見つかりません。participantId=" + id);
+            }
+            if (!"USER".equals(participant.getParticipantType())) {
+                throw new IllegalArgumentException("担当ユーザーとして設定できない参加者です。participantId=" + id);
+            }
+            interviewers.add(participant);
+        }
+        return interviewers;
+    }
+
+    private BusyCalendar loadCalendar(
+            List<Request> requests,
+            List<Participant> interviewers,
+            LocalDateTime searchFrom,
+            LocalDate maxDate) {
+        Set<Long> ownerUserIds = new HashSet<>();
+        Set<Long> activeStepIds = new HashSet<>();
+        for (Request request : requests) {
+            if (request.flow.getCreatedByUserId() != null) {
+                ownerUserIds.add(request.flow.getCreatedByUserId());
+            }
+            activeStepIds.add(request.active.getId());
+        }
+        Set<Long> participantIds = new HashSet<>();
+        for (Participant interviewer : interviewers) {
+            participantIds.add(interviewer.getId());
+        }
+        List<FlowStepRepository.BlockingIntervalView> rows = stepRepo.findBlockingIntervalsForOwnersOrParticipantsInWindow(
+                QueryIds.nonEmpty(ownerUserIds),
+                participantIds,
+                searchFrom,
+                maxDate.plusDays(1).atStartOfDay());
+        // A flow left unplanned keeps its PROPOSED candidates, so they must keep blocking the other flows.
+        return BusyCalendar.withHeldSteps(rows, activeStepIds);
+    }
+
+    private Optional<Assignment> assign(
+            Request request,
+            List<Participant> interviewers,
+            BusyCalendar calendar,
+            Map<Long, Integer> load,
+            LocalDate maxDate) {
+        FlowStep active = request.active;
+        int duration = request.flow.getDurationMinutes();
+        Long ownerUserId = request.flow.getCreatedByUserId();
+
+        Participant best = null;
+        LocalDateTime bestStart = null;
+        for (Participant interviewer : interviewers) {
+            Optional<LocalDateTime> start = calendar.findEarliestStart(
+                    active, ownerUserId, interviewer.getId(), duration, request.earliest, maxDate);
+            if (start.isEmpty()) {
+                continue;
+            }
+            boolean better = bestStart == null
+                    || start.get().isBefore(bestStart)
+                    || (start.get().equals(bestStart)
+                            && load.getOrDefault(interviewer.getId(), 0) < load.getOrDefault(best.getId(), 0));
+            if (better) {
+                best = interviewer;
+                bestStart = start.get();
+            }
+        }
+        if (best == null) {
+            return Optional.empty();
+        }
+        LocalDateTime endAt = bestStart.plusMinutes(duration);
+        calendar.release(active.getId());
+        calendar.reserve(ownerUserId, best.getId(), bestStart, endAt);
+        load.merge(best.getId(), 1, Integer::sum);
+        return Optional.of(new Assignment(
+                request.flow.getId(), active.getId(), best.getId(), best.getDisplayName(), bestStart, endAt));
+    }
+
+    private void apply(List<Request> requests, List<Assignment> assignments) {
+        Map<Long, Request> requestsByFlow = new HashMap<>();
+        for (Request request : requests) {
+            requestsByFlow.put(request.flow.getId(), request);
+        }
+        Set<Long> activeStepIds = new HashSet<>();
+        Set<Long> plannedFlowIds = new LinkedHashSet<>();
+        for (Assignment assignment : assignments) {
+            activeStepIds.add(assignment.getStepId());
+            plannedFlowIds.add(assignment.getFlowId());
+        }
+
+        List<StepCandidate> candidates = new ArrayList<>();
+        for (StepCandidate candidate : candidateRepo.findByFlowStepIdIn(activeStepIds)) {
+            if ("PROPOSED".equals(candidate.getStatus())) {
+                candidate.reject();
+                candidates.add(candidate);
+            }
+        }
+
+        List<FlowStep> steps = new ArrayList<>();
+        List<FlowStep> confirmed = new ArrayList<>();
+        List<Flow> flows = new ArrayList<>();
+        for (Assignment assignment : assignments) {
+            Request request = requestsByFlow.get(assignment.getFlowId());
+            FlowStep active = request.active;
+            active.reassignParticipant(assignment.getParticipantId(), assignment.getParticipantName());
+            active.confirm(assignment.getStartAt(), assignment.getEndAt());
+            steps.add(active);
+            confirmed.add(active);
+
+            StepCandidate selected = new StepCandidate(active.getId(), assignment.getStartAt(), assignment.getEndAt());
+            selected.select();
+            candidates.add(selected);
+
+            FlowStep next = StepCycle.nextStep(request.flow, active, request.steps);
+            next.activate();
+            steps.add(next);
+            request.flow.moveToStep(next.getStepOrder());
+            flows.add(request.flow);
+        }
+
+        stepRepo.saveAll(steps);
+        candidateRepo.saveAll(candidates);
+        flowRepo.saveAll(flows);
+        slotReservations.reserve(flows, confirmed);
+        conflictIndex.reloadFlowsAfterCommit(plannedFlowIds);
+    }
+
+    static FlowStep findStep(List<FlowStep> steps, int stepOrder) {
+        for (FlowStep step : steps) {
+            if (step.getStepOrder() == stepOrder) {
+                return step;
+            }
+        }
+        return null;
+    }
+
+    private static Set<Long> distinctNonNull(Collection<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>();
+        if (ids != null) {
+            ids.stream().filter(Objects::nonNull).forEach(distinct::add);
+        }
+        return distinct;
+    }
+
+    static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (b == null) {
+            return a;
+        }
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static final class Request {
+        private final Flow flow;
+        private final FlowStep active;
+        private final List<FlowStep> steps;
+        private final LocalDateTime earliest;
+
+        private Request(Flow flow, FlowStep active, List<FlowStep> steps, LocalDateTime earliest) {
+            this.flow = flow;
+            this.active = active;
+            this.steps = steps;
+            this.earliest = earliest;
+        }
+    }
+
+    public static class Plan {
+        private final List<Assignment> assignments;
+        private final List<Unplanned> unplanned;
+        private final boolean applied;
+
+        public Plan(List<Assignment> assignments, List<Unplanned> unplanned, boolean applied) {
+            this.assignments = List.copyOf(assignments);
+            this.unplanned = List.copyOf(unplanned);
+            this.applied = applied;
+        }
+
+        public List<Assignment> getAssignments() {
+            return assignments;
+        }
+
+        public List<Unplanned> getUnplanned() {
+            return unplanned;
+        }
+
+        /** False for a dry run; true when the assignments were written. */
+        public boolean isApplied() {
+            return applied;
+        }
+    }
+
+    public static class Assignment {
+        private final Long flowId;
+        private final Long stepId;
+        private final Long participantId;
+        private final String participantName;
+        private final LocalDateTime startAt;
+        private final LocalDateTime endAt;
+
+        public Assignment(
+                Long flowId,
+                Long stepId,
+                Long participantId,
+                String participantName,
+                LocalDateTime startAt,
+                LocalDateTime endAt) {
+            this.flowId = flowId;
+            this.stepId = stepId;
+            this.participantId = participantId;
+            this.participantName = participantName;
+            this.startAt = startAt;
+            this.endAt = endAt;
+        }
+
+        public Long getFlowId() {
+            return flowId;
+        }
+
+        public Long getStepId() {
+            return stepId;
+        }
+
+        public Long getParticipantId() {
+            return participantId;
+        }
+
+        public String getParticipantName() {
+            return participantName;
+        }
+
+        public LocalDateTime getStartAt() {
+            return startAt;
+        }
+
+        public LocalDateTime getEndAt() {
+            return endAt;
+        }
+    }
+
+    public static class Unplanned {
+        private final Long flowId;
+        private final String reason;
+
+        public Unplanned(Long flowId, String reason) {
+            this.flowId = flowId;
+            this.reason = reason;
+        }
+
+        public Long getFlowId() {
+            return flowId;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+}
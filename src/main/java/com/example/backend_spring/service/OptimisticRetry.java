@@ -0,0 +1,18 @@
+package com.example.backend_spring.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@code @Transactional} state transition that is re-run in a fresh transaction when it loses an
+ * optimistic version check, i.e. another request changed the same flow, step or candidate first. The
+ * retry only applies to the outermost call; see {@code OptimisticRetryAspect}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OptimisticRetry {
+}
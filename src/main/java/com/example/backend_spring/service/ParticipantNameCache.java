@@ -0,0 +1,236 @@
+package com.example.backend_spring.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.backend_spring.domain.Participant;
+import com.example.backend_spring.repository.ParticipantRepository;
+
+/**
+ * Application-wide participant id -> display name cache.
+ * Bounded by LRU eviction; callers that rename or delete participants must call {@link #invalidate(Long)}.
+ *
+ * Invalidation only reaches this node, so entries also expire after {@code app.participant-name-cache.ttl}
+ * and a rename made on another node shows up here within that time. Every invalidation bumps a generation
+ * stamp; a load that started before it does not store its (possibly old) names.
+ */
+@Component
+public class ParticipantNameCache {
+
+    public static final String UNKNOWN_NAME = "Unknown";
+    private static final int DEFAULT_MAX_SIZE = 10_000;
+    private static final Duration DEFAULT_TTL = Duration.ofSeconds(60);
+
+    private final ParticipantRepository participantRepo;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<Long, Entry> names;
+    // Guarded by names.
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Autowired
+    public ParticipantNameCache(
+            ParticipantRepository participantRepo,
+            @Value("${app.participant-name-cache.max-size:10000}") int maxSize,
+            @Value("${app.participant-name-cache.ttl:60s}") Duration ttl,
+            Clock clock) {
+        this.participantRepo = participantRepo;
+        this.maxSize = maxSize < 1 ? DEFAULT_MAX_SIZE : maxSize;
+        this.ttlMillis = ttl == null || ttl.isNegative() || ttl.isZero() ? DEFAULT_TTL.toMillis() : ttl.toMillis();
+        this.clock = clock;
+        this.names = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > ParticipantNameCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public ParticipantNameCache(ParticipantRepository participantRepo, int maxSize) {
+        this(participantRepo, maxSize, DEFAULT_TTL, Clock.systemDefaultZone());
+    }
+
+    public ParticipantNameCache(ParticipantRepository participantRepo) {
+        this(participantRepo, DEFAULT_MAX_SIZE);
+    }
+
+    public String getDisplayName(Long participantId) {
+        if (participantId == null) {
+            return UNKNOWN_NAME;
+        }
+        String cached = lookup(participantId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadGeneration = currentGeneration();
+        // Missing participants are not cached so that a later insert is picked up.
+        String name = participantRepo.findById(participantId)
+                .map(Participant::getDisplayName)
+                .orElse(null);
+        if (name == null) {
+            return UNKNOWN_NAME;
+        }
+        store(participantId, name, loadGeneration);
+        return name;
+    }
+
+    /**
+     * Resolves names for many participants, loading all cache misses with a single query.
+     */
+    public Map<Long, String> getDisplayNames(Collection<Long> participantIds) {
+        Map<Long, String> result = new HashMap<>();
+        if (participantIds == null || participantIds.isEmpty()) {
+            return result;
+        }
+
+        List<Long> missing = new ArrayList<>();
+        for (Long participantId : participantIds) {
+            if (participantId == null || result.containsKey(participantId)) {
+                continue;
+            }
+            String cached = lookup(participantId);
+            if (cached != null) {
+                result.put(participantId, cached);
+            } else if (!missing.contains(participantId)) {
+                missing.add(participantId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long loadGeneration = currentGeneration();
+            for (Participant participant : participantRepo.findAllById(missing)) {
+                store(participant.getId(), participant.getDisplayName(), loadGeneration);
+                result.put(participant.getId(), participant.getDisplayName());
+            }
+        }
+        return result;
+    }
+
+    public void invalidate(Long participantId) {
+        if (participantId == null) {
+            return;
+        }
+        synchronized (names) {
+            names.remove(participantId);
+            generation++;
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (names) {
+            names.clear();
+            generation++;
+        }
+    }
+
+    public Stats getStats() {
+        int size;
+        synchronized (names) {
+            size = names.size();
+        }
+        return new Stats(hits.get(), misses.get(), evictions.get(), size, maxSize);
+    }
+
+    private String lookup(Long participantId) {
+        String cached = null;
+        synchronized (names) {
+            Entry entry = names.get(participantId);
+            if (entry != null && entry.expiresAtMillis <= clock.millis()) {
+                names.remove(participantId);
+            } else if (entry != null) {
+                cached = entry.name;
+            }
+        }
+        if (cached != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return cached;
+    }
+
+    private long currentGeneration() {
+        synchronized (names) {
+            return generation;
+        }
+    }
+
+    // Skipped when an invalidation ran since the load began: the loaded name may predate it.
+    private void store(Long participantId, String name, long loadGeneration) {
+        if (participantId == null || name == null) {
+            return;
+        }
+        synchronized (names) {
+            if (generation == loadGeneration) {
+                names.put(participantId, new Entry(name, clock.millis() + ttlMillis));
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String name;
+        private final long expiresAtMillis;
+
+        private Entry(String name, long expiresAtMillis) {
+            this.name = name;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    public static class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int size;
+        private final int maxSize;
+
+        public Stats(long hits, long misses, long evictions, int size, int maxSize) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+            this.maxSize = maxSize;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+    }
+}
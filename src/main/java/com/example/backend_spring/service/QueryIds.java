@@ -0,0 +1,30 @@
+package com.example.backend_spring.service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Stand-ins that keep id-equality and {@code IN (...)} predicates valid when an owner, participant or
+ * step id is missing. {@link #NONE} is never a generated id, so it matches no row.
+ */
+final class QueryIds {
+
+    static final Long NONE = -1L;
+
+    private QueryIds() {
+    }
+
+    static Long orNone(Long id) {
+        return id == null ? NONE : id;
+    }
+
+    /** One-element list for an {@code IN (...)} parameter; {@link #NONE} when {@code id} is null. */
+    static List<Long> listOf(Long id) {
+        return List.of(orNone(id));
+    }
+
+    // IN () is not valid SQL.
+    static Collection<Long> nonEmpty(Collection<Long> ids) {
+        return ids.isEmpty() ? List.of(NONE) : ids;
+    }
+}
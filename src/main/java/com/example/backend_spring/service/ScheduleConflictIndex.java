@@ -0,0 +1,394 @@
+package com.example.backend_spring.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.backend_spring.repository.FlowStepRepository;
+
+/**
+ * In-process index of the time intervals that block a new booking, keyed by participant.
+ * Covers confirmed steps and PROPOSED/SELECTED candidates of ACTIVE steps, i.e. the same rows as
+ * {@code findBlockingIntervalsEndingAfter}. Each participant holds a set ordered by start time, from which
+ * a {@link SlotOccupancy} bitmap per participant-day is kept current; {@link FreeBusyService} serves
+ * those bitmaps without touching the database.
+ *
+ * The index is warmed once the application is ready and kept current by reloading a flow's intervals
+ * after each committed change to that flow. Until warm-up completes {@link #isReady()} is false and
+ * callers must fall back to the database.
+ *
+ * Reloads are triggered only by commits on this node; bookings made on other nodes never reach it. The
+ * index is therefore off by default ({@code app.conflict-index.enabled}) and may only be enabled when a
+ * single node serves all writes.
+ */
+@Component
+public class ScheduleConflictIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleConflictIndex.class);
+
+    private static final Comparator<Interval> ORDER = Comparator
+            .comparing(Interval::getStartAt)
+            .thenComparing(Interval::getEndAt)
+            .thenComparingLong(Interval::getSequence);
+
+    private enum State { COLD, WARMING, READY }
+
+    private final FlowStepRepository stepRepo;
+    private final Clock clock;
+    private final boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serializes read-then-replace so an older snapshot of a flow never overwrites a newer one.
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final Map<Long, NavigableSet<Interval>> byParticipant = new HashMap<>();
+    private final Map<Long, List<Interval>> byFlow = new HashMap<>();
+    private final SlotOccupancy participantOccupancy = new SlotOccupancy();
+    private final Set<Long> pendingFlowIds = new LinkedHashSet<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile State state = State.COLD;
+    private long maxDurationMinutes;
+
+    @Autowired
+    public ScheduleConflictIndex(
+            FlowStepRepository stepRepo,
+            Clock clock,
+            @Value("${app.conflict-index.enabled:false}") boolean enabled) {
+        this.stepRepo = stepRepo;
+        this.clock = clock;
+        this.enabled = enabled;
+    }
+
+    // Never warmed: every lookup goes to the database.
+    public static ScheduleConflictIndex disabled() {
+        return new ScheduleConflictIndex(null, null, false);
+    }
+
+    public boolean isReady() {
+        return state == State.READY;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            state = State.WARMING;
+            pendingFlowIds.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Bookings are never placed in the past, so intervals that already ended cannot conflict.
+        List<FlowStepRepository.BlockingIntervalView> rows =
+                stepRepo.findBlockingIntervalsEndingAfter(LocalDateTime.now(clock));
+
+        List<Long> pending;
+        lock.writeLock().lock();
+        try {
+            byParticipant.clear();
+            byFlow.clear();
+            participantOccupancy.clear();
+            maxDurationMinutes = 0;
+            for (FlowStepRepository.BlockingIntervalView row : rows) {
+                add(toInterval(row));
+            }
+            pending = new ArrayList<>(pendingFlowIds);
+            pendingFlowIds.clear();
+            state = State.READY;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Flows committed while the snapshot was being read.
+        for (Long flowId : pending) {
+            reloadFlow(flowId);
+        }
+        log.info("Schedule conflict index warmed: {} intervals", rows.size());
+    }
+
+    /**
+     * Re-reads the flow's blocking intervals once the current transaction commits
+     * (immediately when no transaction is active).
+     */
+    public void reloadFlowAfterCommit(Long flowId) {
+        runAfterCommit(() -> reloadFlow(flowId));
+    }
+
+    /** Batch variant of {@link #reloadFlowAfterCommit(Long)} that re-reads all flows with one query. */
+    public void reloadFlowsAfterCommit(Collection<Long> flowIds) {
+        List<Long> ids = List.copyOf(new LinkedHashSet<>(flowIds));
+        runAfterCommit(() -> reloadFlows(ids));
+    }
+
+    public void removeFlowAfterCommit(Long flowId) {
+        runAfterCommit(() -> replaceFlow(flowId, List.of()));
+    }
+
+    public void reloadFlow(Long flowId) {
+        if (flowId == null || state == State.COLD) {
+            return;
+        }
+        if (state == State.WARMING) {
+            lock.writeLock().lock();
+            try {
+                if (state == State.WARMING) {
+                    pendingFlowIds.add(flowId);
+                    return;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        reloadLock.lock();
+        try {
+            List<Interval> intervals = new ArrayList<>();
+            for (FlowStepRepository.BlockingIntervalView row : stepRepo.findBlockingIntervalsByFlowId(flowId)) {
+                intervals.add(toInterval(row));
+            }
+            replaceFlow(flowId, intervals);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    public void reloadFlows(Collection<Long> flowIds) {
+        if (flowIds.isEmpty() || state == State.COLD) {
+            return;
+        }
+        if (state == State.WARMING) {
+            lock.writeLock().lock();
+            try {
+                if (state == State.WARMING) {
+                    pendingFlowIds.addAll(flowIds);
+                    return;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        reloadLock.lock();
+        try {
+            Map<Long, List<Interval>> intervalsByFlow = new HashMap<>();
+            for (Long flowId : flowIds) {
+                intervalsByFlow.put(flowId, new ArrayList<>());
+            }
+            for (FlowStepRepository.BlockingIntervalView row : stepRepo.findBlockingIntervalsByFlowIds(flowIds)) {
+                intervalsByFlow.get(row.getFlowId()).add(toInterval(row));
+            }
+            for (Map.Entry<Long, List<Interval>> entry : intervalsByFlow.entrySet()) {
+                replaceFlow(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    void replaceFlow(Long flowId, List<Interval> intervals) {
+        lock.writeLock().lock();
+        try {
+            List<Interval> previous = byFlow.remove(flowId);
+            if (previous != null) {
+                for (Interval interval : previous) {
+                    remove(interval);
+                }
+            }
+            for (Interval interval : intervals) {
+                add(interval);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Busy-slot bits of the participant's day; 0 when nothing is indexed for that day. */
+    public long getParticipantBusyBits(Long participantId, LocalDate day) {
+        lock.readLock().lock();
+        try {
+            return participantOccupancy.get(participantId, day);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Interval interval) {
+        byFlow.computeIfAbsent(interval.getFlowId(), k -> new ArrayList<>()).add(interval);
+        if (interval.getParticipantId() != null) {
+            byParticipant.computeIfAbsent(interval.getParticipantId(), k -> new TreeSet<>(ORDER)).add(interval);
+            markBusy(participantOccupancy, interval.getParticipantId(), interval);
+        }
+        long minutes = Duration.between(interval.getStartAt(), interval.getEndAt()).toMinutes();
+        maxDurationMinutes = Math.max(maxDurationMinutes, minutes);
+    }
+
+    private void remove(Interval interval) {
+        if (interval.getParticipantId() != null) {
+            removeFrom(byParticipant, interval.getParticipantId(), interval);
+            rebuildBusy(participantOccupancy, byParticipant, interval.getParticipantId(), interval);
+        }
+    }
+
+    private void markBusy(SlotOccupancy occupancy, Long key, Interval interval) {
+        for (LocalDate day = interval.getStartAt().toLocalDate(); day.atStartOfDay().isBefore(interval.getEndAt()); day = day.plusDays(1)) {
+            occupancy.or(key, day, SlotOccupancy.maskOf(interval.getStartAt(), interval.getEndAt(), day));
+        }
+    }
+
+    // Bits cannot be cleared per interval (others may share the slot), so the removed interval's days
+    // are recomputed from the intervals still indexed for the key.
+    private void rebuildBusy(
+            SlotOccupancy occupancy,
+            Map<Long, NavigableSet<Interval>> index,
+            Long key,
+            Interval removed) {
+        NavigableSet<Interval> intervals = index.get(key);
+        for (LocalDate day = removed.getStartAt().toLocalDate(); day.atStartOfDay().isBefore(removed.getEndAt()); day = day.plusDays(1)) {
+            long bits = 0L;
+            if (intervals != null) {
+                LocalDateTime dayStart = day.atStartOfDay();
+                LocalDateTime dayEnd = dayStart.plusDays(1);
+                for (Interval interval : intervals.tailSet(Interval.probe(dayStart.minusMinutes(maxDurationMinutes)), true)) {
+                    if (!interval.getStartAt().isBefore(dayEnd)) {
+                        break;
+                    }
+                    bits |= SlotOccupancy.maskOf(interval.getStartAt(), interval.getEndAt(), day);
+                }
+            }
+            occupancy.set(key, day, bits);
+        }
+    }
+
+    private void removeFrom(Map<Long, NavigableSet<Interval>> index, Long key, Interval interval) {
+        NavigableSet<Interval> intervals = index.get(key);
+        if (intervals == null) {
+            return;
+        }
+        intervals.remove(interval);
+        if (intervals.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private Interval toInterval(FlowStepRepository.BlockingIntervalView row) {
+        return new Interval(
+                sequence.incrementAndGet(),
+                row.getFlowId(),
+                row.getOwnerUserId(),
+                row.getStepId(),
+                row.getParticipantId(),
+                row.getStatus(),
+                row.getStartAt(),
+                row.getEndAt());
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    public static class Interval {
+        private final long sequence;
+        private final Long flowId;
+        private final Long ownerUserId;
+        private final Long stepId;
+        private final Long participantId;
+        private final String status;
+        private final LocalDateTime startAt;
+        private final LocalDateTime endAt;
+
+        Interval(
+                long sequence,
+                Long flowId,
+                Long ownerUserId,
+                Long stepId,
+                Long participantId,
+                String status,
+                LocalDateTime startAt,
+                LocalDateTime endAt) {
+            this.sequence = sequence;
+            this.flowId = flowId;
+            this.ownerUserId = ownerUserId;
+            this.stepId = stepId;
+            this.participantId = participantId;
+            this.status = status;
+            this.startAt = startAt;
+            this.endAt = endAt;
+        }
+
+        private static Interval probe(LocalDateTime startAt) {
+            return new Interval(Long.MIN_VALUE, null, null, null, null, null, startAt, LocalDateTime.MIN);
+        }
+
+        long getSequence() {
+            return sequence;
+        }
+
+        public Long getFlowId() {
+            return flowId;
+        }
+
+        public Long getOwnerUserId() {
+            return ownerUserId;
+        }
+
+        public Long getStepId() {
+            return stepId;
+        }
+
+        public Long getParticipantId() {
+            return participantId;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public boolean isConfirmed() {
+            return "CONFIRMED".equals(status);
+        }
+
+        public LocalDateTime getStartAt() {
+            return startAt;
+        }
+
+        public LocalDateTime getEndAt() {
+            return endAt;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.backend_spring.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Busy 30-minute slots per (owner or participant, day), one {@code long} per day where bit {@code i}
+ * covers minutes {@code [i * 30, (i + 1) * 30)}. Days without busy slots are not stored.
+ *
+ * Backed by an open-addressing long-to-long map so the hot path never boxes keys or values.
+ * Not thread-safe; callers guard access.
+ */
+public final class SlotOccupancy {
+
+    public static final int SLOT_MINUTES = 30;
+    public static final int SLOTS_PER_DAY = 48;
+    public static final long FULL_DAY = (1L << SLOTS_PER_DAY) - 1;
+
+    // Ids are shifted past the epoch day; 24 bits of epoch day last until the year 47000.
+    private static final int DAY_BITS = 24;
+    private static final long DAY_MASK = (1L << DAY_BITS) - 1;
+
+    private final LongLongMap words = new LongLongMap(64);
+
+    public long get(Long id, LocalDate day) {
+        return words.get(key(id, day));
+    }
+
+    public void set(Long id, LocalDate day, long bits) {
+        long key = key(id, day);
+        if (bits == 0) {
+            words.remove(key);
+        } else {
+            words.put(key, bits & FULL_DAY);
+        }
+    }
+
+    public void or(Long id, LocalDate day, long bits) {
+        if (bits != 0) {
+            set(id, day, get(id, day) | bits);
+        }
+    }
+
+    public int size() {
+        return words.size();
+    }
+
+    public void clear() {
+        words.clear();
+    }
+
+    /** Bits {@code [fromSlot, toSlotExclusive)}. */
+    public static long slotMask(int fromSlot, int toSlotExclusive) {
+        int from = Math.max(0, fromSlot);
+        int to = Math.min(SLOTS_PER_DAY, toSlotExclusive);
+        if (from >= to) {
+            return 0L;
+        }
+        return ((1L << to) - 1) & ~((1L << from) - 1);
+    }
+
+    /**
+     * Slots of {@code day} touched by {@code [startAt, endAt)}, rounded outwards to slot boundaries so the
+     * result never under-reports busy time.
+     */
+    public static long maskOf(LocalDateTime startAt, LocalDateTime endAt, LocalDate day) {
+        LocalDateTime dayStart = day.atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+        if (!startAt.isBefore(dayEnd) || !endAt.isAfter(dayStart)) {
+            return 0L;
+        }
+        int fromSlot = startAt.isAfter(dayStart) ? minuteOfDay(startAt) / SLOT_MINUTES : 0;
+        int toSlot = endAt.isBefore(dayEnd)
+                ? (minuteOfDay(endAt) + (endAt.getSecond() > 0 || endAt.getNano() > 0 ? 1 : 0) + SLOT_MINUTES - 1) / SLOT_MINUTES
+                : SLOTS_PER_DAY;
+        return slotMask(fromSlot, toSlot);
+    }
+
+    /** Start slots from which {@code slotCount} consecutive bits of {@code freeBits} are set. */
+    public static long fitStarts(long freeBits, int slotCount) {
+        if (slotCount <= 0) {
+            return freeBits & FULL_DAY;
+        }
+        long starts = freeBits & FULL_DAY;
+        for (int i = 1; i < slotCount && starts != 0; i++) {
+            starts &= freeBits >>> i;
+        }
+        return starts;
+    }
+
+    public static boolean overlaps(long a, long b) {
+        return (a & b) != 0;
+    }
+
+    private static int minuteOfDay(LocalDateTime dateTime) {
+        return dateTime.getHour() * 60 + dateTime.getMinute();
+    }
+
+    private static long key(Long id, LocalDate day) {
+        long owner = id == null ? 0L : id;
+        return (owner << DAY_BITS) | (day.toEpochDay() & DAY_MASK);
+    }
+
+    /** Linear-probing map with backward-shift deletion; {@code Long.MIN_VALUE} marks an empty slot. */
+    static final class LongLongMap {
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys;
+        private long[] values;
+        private int size;
+
+        LongLongMap(int initialCapacity) {
+            int capacity = Integer.highestOneBit(Math.max(4, initialCapacity) - 1) << 1;
+            allocate(capacity);
+        }
+
+        long get(long key) {
+            int mask = keys.length - 1;
+            for (int i = index(key, mask); ; i = (i + 1) & mask) {
+                long k = keys[i];
+                if (k == key) {
+                    return values[i];
+                }
+                if (k == EMPTY) {
+                    return 0L;
+                }
+            }
+        }
+
+        void put(long key, long value) {
+            if ((size + 1) * 4 > keys.length * 3) {
+                resize(keys.length << 1);
+            }
+            int mask = keys.length - 1;
+            for (int i = index(key, mask); ; i = (i + 1) & mask) {
+                long k = keys[i];
+                if (k == key) {
+                    values[i] = value;
+                    return;
+                }
+                if (k == EMPTY) {
+                    keys[i] = key;
+                    values[i] = value;
+                    size++;
+                    return;
+                }
+            }
+        }
+
+        void remove(long key) {
+            int mask = keys.length - 1;
+            int i = index(key, mask);
+            while (keys[i] != key) {
+                if (keys[i] == EMPTY) {
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            size--;
+            // Shift later entries of the same probe chain back into the hole.
+            int hole = i;
+            for (int j = (hole + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+                int home = index(keys[j], mask);
+                boolean movable = hole <= j ? (home <= hole || home > j) : (home <= hole && home > j);
+                if (movable) {
+                    keys[hole] = keys[j];
+                    values[hole] = values[j];
+                    hole = j;
+                }
+            }
+            keys[hole] = EMPTY;
+            values[hole] = 0L;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            Arrays.fill(keys, EMPTY);
+            Arrays.fill(values, 0L);
+            size = 0;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            allocate(capacity);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            values = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+
+        private static int index(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.backend_spring.service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.example.backend_spring.domain.Flow;
+import com.example.backend_spring.domain.FlowStep;
+import com.example.backend_spring.domain.OwnerSlotReservation;
+import com.example.backend_spring.domain.ParticipantSlotReservation;
+import com.example.backend_spring.repository.OwnerSlotReservationRepository;
+import com.example.backend_spring.repository.ParticipantSlotReservationRepository;
+
+/**
+ * Database-enforced guard against double booking. Every confirmed step holds one row per 30-minute slot
+ * for its participant and one for its flow's owner, under unique keys on (participant_id, slot_start) and
+ * (owner_user_id, slot_start).
+ *
+ * The overlap checks in {@link FlowService} are check-then-write, so two transactions can both pass them
+ * for the same slot. Writing the reservations in the transaction that confirms the step closes that gap
+ * without a lock: the second insert waits for the first transaction and then fails on the unique key,
+ * which rolls the second booking back. PROPOSED candidates hold no reservation; they are still covered by
+ * the range checks only.
+ */
+@Service
+public class SlotReservationService {
+
+    private final ParticipantSlotReservationRepository participantReservationRepo;
+    private final OwnerSlotReservationRepository ownerReservationRepo;
+    private final boolean enabled;
+
+    @Autowired
+    public SlotReservationService(
+            ParticipantSlotReservationRepository participantReservationRepo,
+            OwnerSlotReservationRepository ownerReservationRepo) {
+        this(participantReservationRepo, ownerReservationRepo, true);
+    }
+
+    private SlotReservationService(
+            ParticipantSlotReservationRepository participantReservationRepo,
+            OwnerSlotReservationRepository ownerReservationRepo,
+            boolean enabled) {
+        this.participantReservationRepo = participantReservationRepo;
+        this.ownerReservationRepo = ownerReservationRepo;
+        this.enabled = enabled;
+    }
+
+    // Never writes: for unit tests that build services without the reservation tables.
+    public static SlotReservationService disabled() {
+        return new SlotReservationService(null, null, false);
+    }
+
+    public void reserve(Flow flow, FlowStep step) {
+        reserve(List.of(flow), List.of(step));
+    }
+
+    /**
+     * Replaces the reservations of {@code steps} with the slots of their current confirmed times. Steps
+     * without confirmed times just lose their reservations. {@code flows} must contain the flow of every
+     * step, for the owner. Must run inside the transaction that confirms the steps.
+     */
+    public void reserve(Collection<Flow> flows, Collection<FlowStep> steps) {
+        if (!enabled || steps.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> ownerByFlowId = new HashMap<>();
+        for (Flow flow : flows) {
+            ownerByFlowId.put(flow.getId(), flow.getCreatedByUserId());
+        }
+        List<Long> stepIds = new ArrayList<>(steps.size());
+        List<ParticipantSlotReservation> participantRows = new ArrayList<>();
+        List<OwnerSlotReservation> ownerRows = new ArrayList<>();
+        for (FlowStep step : steps) {
+            stepIds.add(step.getId());
+            if (step.getConfirmedStartAt() == null || step.getConfirmedEndAt() == null) {
+                continue;
+            }
+            Long ownerUserId = ownerByFlowId.get(step.getFlowId());
+            for (LocalDateTime slotStart : slotStarts(step.getConfirmedStartAt(), step.getConfirmedEndAt())) {
+                if (step.getParticipantId() != null) {
+                    participantRows.add(new ParticipantSlotReservation(step.getParticipantId(), slotStart, step.getId()));
+                }
+                if (ownerUserId != null) {
+                    ownerRows.add(new OwnerSlotReservation(ownerUserId, slotStart, step.getId()));
+                }
+            }
+        }
+
+        release(stepIds);
+        try {
+            participantReservationRepo.saveAllAndFlush(participantRows);
+            ownerReservationRepo.saveAllAndFlush(ownerRows);
+        } catch (DataIntegrityViolationException ex) {
+            throw new IllegalArgumentException("同じ時間帯が他の予約で確定されました。画面を更新して再度お試しください。", ex);
+        }
+    }
+
+    /** Drops every reservation held by {@code stepIds}, e.g. before a step is moved or deleted. */
+    public void release(Collection<Long> stepIds) {
+        if (!enabled || stepIds.isEmpty()) {
+            return;
+        }
+        participantReservationRepo.deleteByFlowStepIds(stepIds);
+        ownerReservationRepo.deleteByFlowStepIds(stepIds);
+    }
+
+    /** Starts of the 30-minute slots that {@code [startAt, endAt)} touches. */
+    static List<LocalDateTime> slotStarts(LocalDateTime startAt, LocalDateTime endAt) {
+        LocalDateTime dayStart = startAt.truncatedTo(ChronoUnit.DAYS);
+        long offset = ChronoUnit.MINUTES.between(dayStart, startAt);
+        LocalDateTime slot = dayStart.plusMinutes(offset - offset % SlotOccupancy.SLOT_MINUTES);
+        List<LocalDateTime> slots = new ArrayList<>();
+        for (; slot.isBefore(endAt); slot = slot.plusMinutes(SlotOccupancy.SLOT_MINUTES)) {
+            slots.add(slot);
+        }
+        return slots;
+    }
+}
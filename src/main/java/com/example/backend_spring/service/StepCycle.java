@@ -0,0 +1,52 @@
+package com.example.backend_spring.service;
+
+import java.util.List;
+import java.util.function.IntFunction;
+
+import com.example.backend_spring.domain.Flow;
+import com.example.backend_spring.domain.FlowStep;
+
+/**
+ * The step that follows a confirmed one: the flow's next step when it exists, otherwise a copy of the
+ * step at the same position of the step cycle. Shared by {@link FlowService} (steps read one by one from
+ * the database) and the planners (steps already loaded).
+ */
+final class StepCycle {
+
+    private StepCycle() {
+    }
+
+    /**
+     * Returns the existing step after {@code current}, or a new unsaved step copied from the cycle template.
+     * A flow without a configured cycle size gets {@code current}'s order as its cycle size.
+     */
+    static FlowStep nextStep(Flow flow, Long flowId, FlowStep current, IntFunction<FlowStep> stepAt) {
+        int nextOrder = current.getStepOrder() + 1;
+        FlowStep existing = stepAt.apply(nextOrder);
+        if (existing != null) {
+            return existing;
+        }
+        int templateOrder = ((nextOrder - 1) % cycleSize(flow, current)) + 1;
+        FlowStep template = stepAt.apply(templateOrder);
+        if (template == null) {
+            throw new IllegalStateException("次ステップ生成元が見つかりません。flowId=" + flowId + ", stepOrder=" + templateOrder);
+        }
+        FlowStep next = new FlowStep(flowId, nextOrder, template.getParticipantId(), template.getParticipantName());
+        next.copyReservableConstraintsFrom(template);
+        return next;
+    }
+
+    static FlowStep nextStep(Flow flow, FlowStep current, List<FlowStep> steps) {
+        return nextStep(flow, flow.getId(), current, order -> InterviewDayPlanner.findStep(steps, order));
+    }
+
+    private static int cycleSize(Flow flow, FlowStep current) {
+        Integer configured = flow.getStepCycleSize();
+        if (configured != null && configured > 0) {
+            return configured;
+        }
+        int inferred = Math.max(1, current.getStepOrder());
+        flow.ensureStepCycleSize(inferred);
+        return inferred;
+    }
+}
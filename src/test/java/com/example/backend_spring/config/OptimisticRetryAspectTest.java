@@ -0,0 +1,67 @@
+package com.example.backend_spring.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.example.backend_spring.domain.Flow;
+import com.example.backend_spring.service.OptimisticRetry;
+
+class OptimisticRetryAspectTest {
+
+    private SimpleMeterRegistry registry;
+    private Transition target;
+    private Transition proxy;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        target = new Transition();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new OptimisticRetryAspect(registry, 3, Duration.ZERO));
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    void retry_shouldRerunTheTransitionUntilItWins() {
+        target.failures = 2;
+
+        assertEquals("done", proxy.advance());
+
+        assertEquals(3, target.calls);
+        assertEquals(2.0, registry.get("flow.optimistic.conflicts").tag("outcome", "retried").counter().count());
+    }
+
+    @Test
+    void retry_shouldGiveUpAfterMaxAttemptsWithAUserFacingError() {
+        target.failures = 5;
+
+        assertThrows(IllegalArgumentException.class, () -> proxy.advance());
+
+        assertEquals(3, target.calls);
+        assertEquals(1.0, registry.get("flow.optimistic.conflicts").tag("outcome", "exhausted").counter().count());
+    }
+
+    static class Transition {
+        int failures;
+        int calls;
+
+        @OptimisticRetry
+        public String advance() {
+            calls++;
+            if (calls <= failures) {
+                throw new ObjectOptimisticLockingFailureException(Flow.class, 1L);
+            }
+            return "done";
+        }
+    }
+}
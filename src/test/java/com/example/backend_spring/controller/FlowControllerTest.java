@@ -45,7 +45,7 @@ class FlowControllerTest {
     @BeforeEach
     void setUp() {
         flowService = new StubFlowService();
-        flowAuthorization = new FlowAuthorization(null, null, null, null) {
+        flowAuthorization = new FlowAuthorization(null, null) {
             @Override
             public boolean canManageFlow(Long flowId, org.springframework.security.core.Authentication authentication) {
                 return true;
@@ -61,7 +61,7 @@ class FlowControllerTest {
                 return true;
             }
         };
-        FlowController controller = new FlowController(flowService, userRepo, participantRepo, flowAuthorization);
+        FlowController controller = new FlowController(flowService, userRepo, participantRepo, flowAuthorization, null);
         mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
     }
 
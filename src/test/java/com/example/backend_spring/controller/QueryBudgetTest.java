@@ -0,0 +1,250 @@
+package com.example.backend_spring.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.flash;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend_spring.domain.Flow;
+import com.example.backend_spring.domain.FlowStep;
+import com.example.backend_spring.domain.Participant;
+import com.example.backend_spring.domain.StepCandidate;
+import com.example.backend_spring.domain.UserAccount;
+import com.example.backend_spring.repository.FlowRepository;
+import com.example.backend_spring.repository.FlowStepRepository;
+import com.example.backend_spring.repository.OwnerSlotReservationRepository;
+import com.example.backend_spring.repository.ParticipantRepository;
+import com.example.backend_spring.repository.ParticipantSlotReservationRepository;
+import com.example.backend_spring.repository.StepCandidateRepository;
+import com.example.backend_spring.repository.UserAccountRepository;
+import com.example.backend_spring.security.DbUserDetailsService;
+import com.example.backend_spring.service.FlowService;
+import com.example.backend_spring.service.ScheduleConflictIndex;
+import com.example.backend_spring.service.SlotReservationService;
+import com.example.backend_spring.support.SqlStatementCounter;
+
+/**
+ * SQL statement budgets for the main pages on a seeded dataset. The dataset is large enough that a
+ * per-row query pattern (N+1) exceeds the budget; raise a budget only together with a reason.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:querybudget;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@AutoConfigureMockMvc
+@Import(SqlStatementCounter.Config.class)
+class QueryBudgetTest {
+
+    private static final int FLOWS = 12;
+    private static final int STEPS_PER_FLOW = 3;
+    private static final int EXTRA_USERS = 10;
+
+    // Paged list + schedule labels + one calendar query per view; identity comes from the principal.
+    private static final int FLOW_LIST_BUDGET = 3;
+    // Flow aggregate (flow, steps, participants, candidates) + free slots + participant calendar.
+    private static final int FLOW_DETAIL_BUDGET = 6;
+    // All users + all role names.
+    private static final int ADMIN_USERS_BUDGET = 2;
+    // 16 for the selection itself, plus releasing the step's slot reservations (2 deletes) and one batched
+    // insert per reservation table, plus locking the owner and participant rows of booking_locks (a select
+    // each, and an insert on first use). That is 24; the rest covers fetching a new block of ids
+    // (a select and an update of id_generators) for reservations and the next step when a block runs out.
+    private static final int CANDIDATE_SELECTION_BUDGET = 30;
+    // Flow insert, one participant lookup for all steps, one batched step insert and the flow update,
+    // plus an id block fetch when the current block runs out; the same for 2 steps as for 20.
+    private static final int FLOW_CREATION_BUDGET = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementCounter sqlCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserAccountRepository userRepo;
+
+    @Autowired
+    private ParticipantRepository participantRepo;
+
+    @Autowired
+    private FlowRepository flowRepo;
+
+    @Autowired
+    private FlowStepRepository stepRepo;
+
+    @Autowired
+    private StepCandidateRepository candidateRepo;
+
+    @Autowired
+    private ParticipantSlotReservationRepository participantReservationRepo;
+
+    @Autowired
+    private OwnerSlotReservationRepository ownerReservationRepo;
+
+    @Autowired
+    private FlowService flowService;
+
+    @Autowired
+    private SlotReservationService slotReservations;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ScheduleConflictIndex conflictIndex;
+
+    @Autowired
+    private DbUserDetailsService userDetailsService;
+
+    private UserAccount owner;
+    private List<Participant> participants;
+    private UserDetails ownerPrincipal;
+    private Flow firstFlow;
+    private StepCandidate firstCandidate;
+
+    @BeforeEach
+    void seed() {
+        // roles/user_roles are managed outside JPA on MySQL; create them for H2.
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS roles (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(50) NOT NULL UNIQUE)");
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS user_roles (
+                    user_id BIGINT NOT NULL,
+                    role_id BIGINT NOT NULL,
+                    created_at TIMESTAMP(6),
+                    PRIMARY KEY (user_id, role_id)
+                )
+                """);
+        jdbcTemplate.update("DELETE FROM user_roles");
+        participantReservationRepo.deleteAll();
+        ownerReservationRepo.deleteAll();
+        candidateRepo.deleteAll();
+        stepRepo.deleteAll();
+        flowRepo.deleteAll();
+        participantRepo.deleteAll();
+        userRepo.deleteAll();
+        jdbcTemplate.update("MERGE INTO roles(name) KEY(name) VALUES ('ROLE_USER')");
+
+        owner = userRepo.save(new UserAccount("budget-owner", "{noop}password", true));
+        participants = new ArrayList<>();
+        for (int i = 0; i < EXTRA_USERS; i++) {
+            UserAccount user = userRepo.save(new UserAccount("budget-user-" + i, "{noop}password", true));
+            jdbcTemplate.update(
+                    "INSERT INTO user_roles(user_id, role_id) SELECT ?, id FROM roles WHERE name = 'ROLE_USER'",
+                    user.getId());
+            participants.add(new Participant("USER", user.getId(), "participant " + i));
+        }
+        participants.add(new Participant("USER", owner.getId(), "owner"));
+        participants = participantRepo.saveAll(participants);
+        Participant ownerParticipant = participants.get(participants.size() - 1);
+
+        LocalDate firstDay = flowService.getReservableMinDate().plusDays(1);
+        List<Flow> flows = new ArrayList<>();
+        List<FlowStep> allSteps = new ArrayList<>();
+        for (int f = 0; f < FLOWS; f++) {
+            Flow flow = flowRepo.save(new Flow("budget flow " + f, 60, firstDay.atTime(9, 0), owner.getId()));
+            List<FlowStep> steps = new ArrayList<>();
+            for (int s = 1; s <= STEPS_PER_FLOW; s++) {
+                Participant participant = s == STEPS_PER_FLOW ? ownerParticipant : participants.get((f + s) % EXTRA_USERS);
+                FlowStep step = new FlowStep(flow.getId(), s, participant.getId(), participant.getDisplayName());
+                if (s < STEPS_PER_FLOW) {
+                    step.confirm(firstDay.plusDays(f).atTime(8 + s, 0), firstDay.plusDays(f).atTime(9 + s, 0));
+                } else {
+                    step.activate();
+                }
+                steps.add(step);
+            }
+            steps = stepRepo.saveAll(steps);
+            FlowStep active = steps.get(STEPS_PER_FLOW - 1);
+            flow.moveToStep(STEPS_PER_FLOW);
+            flows.add(flowRepo.save(flow));
+            allSteps.addAll(steps);
+            List<StepCandidate> candidates = candidateRepo.saveAll(List.of(
+                    new StepCandidate(active.getId(), firstDay.plusDays(f).atTime(14, 0), firstDay.plusDays(f).atTime(15, 0)),
+                    new StepCandidate(active.getId(), firstDay.plusDays(f + 1L).atTime(16, 0), firstDay.plusDays(f + 1L).atTime(17, 0))));
+            if (f == 0) {
+                firstFlow = flow;
+                firstCandidate = candidates.get(0);
+            }
+        }
+        // Confirmed steps hold their slots, as they would after being booked through the service.
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> slotReservations.reserve(flows, allSteps));
+        conflictIndex.warmUp();
+        // Log in the way the form login does, so identity comes from the enriched principal.
+        ownerPrincipal = userDetailsService.loadUserByUsername(owner.getUsername());
+    }
+
+    @Test
+    void flowList_shouldStayWithinStatementBudget() throws Exception {
+        sqlCounter.reset();
+        mockMvc.perform(get("/flows").with(user(ownerPrincipal)))
+                .andExpect(status().isOk());
+        sqlCounter.assertAtMost(FLOW_LIST_BUDGET, "GET /flows");
+
+        sqlCounter.reset();
+        mockMvc.perform(get("/flows").param("view", "month").with(user(ownerPrincipal)))
+                .andExpect(status().isOk());
+        sqlCounter.assertAtMost(FLOW_LIST_BUDGET, "GET /flows?view=month");
+    }
+
+    @Test
+    void flowDetail_shouldStayWithinStatementBudget() throws Exception {
+        sqlCounter.reset();
+        mockMvc.perform(get("/flows/{id}", firstFlow.getId()).with(user(ownerPrincipal)))
+                .andExpect(status().isOk());
+        sqlCounter.assertAtMost(FLOW_DETAIL_BUDGET, "GET /flows/{id}");
+    }
+
+    @Test
+    void adminUsers_shouldStayWithinStatementBudget() throws Exception {
+        sqlCounter.reset();
+        mockMvc.perform(get("/admin/users").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk());
+        sqlCounter.assertAtMost(ADMIN_USERS_BUDGET, "GET /admin/users");
+    }
+
+    @Test
+    void flowCreation_shouldNotDependOnTheNumberOfSteps() {
+        LocalDateTime startFrom = flowService.getReservableMinDate().plusDays(1).atTime(9, 0);
+        for (int stepCount : new int[] { 2, 20 }) {
+            List<Long> participantIds = new ArrayList<>();
+            for (int i = 0; i < stepCount; i++) {
+                participantIds.add(participants.get(i % participants.size()).getId());
+            }
+            sqlCounter.reset();
+            Long flowId = flowService.createFlow("created flow", 60, startFrom, owner.getId(), participantIds, List.of());
+            sqlCounter.assertAtMost(FLOW_CREATION_BUDGET, "createFlow with " + stepCount + " steps");
+            assertEquals(stepCount, stepRepo.findByFlowIdOrderByStepOrder(flowId).size());
+        }
+    }
+
+    @Test
+    void candidateSelection_shouldStayWithinStatementBudget() throws Exception {
+        sqlCounter.reset();
+        mockMvc.perform(post("/flows/{id}/candidates/{candidateId}/select", firstFlow.getId(), firstCandidate.getId())
+                        .with(user(ownerPrincipal))
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(flash().attribute("message", "候補を確定しました。"));
+        sqlCounter.assertAtMost(CANDIDATE_SELECTION_BUDGET, "POST /flows/{id}/candidates/{candidateId}/select");
+    }
+}
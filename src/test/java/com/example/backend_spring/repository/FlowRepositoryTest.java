@@ -0,0 +1,126 @@
+package com.example.backend_spring.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend_spring.domain.Flow;
+import com.example.backend_spring.domain.FlowStep;
+import com.example.backend_spring.domain.Participant;
+
+@DataJpaTest
+class FlowRepositoryTest {
+
+    @Autowired
+    private FlowRepository flowRepo;
+
+    @Autowired
+    private FlowStepRepository stepRepo;
+
+    @Autowired
+    private ParticipantRepository participantRepo;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private Flow a;
+    private Flow b;
+    private Flow c;
+    private Flow done;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime sameTime = LocalDateTime.of(2026, 2, 21, 9, 0);
+        a = save("Interview A", sameTime, "IN_PROGRESS");
+        b = save("interview B", sameTime, "IN_PROGRESS");
+        c = save("Meeting 100%", sameTime.plusHours(1), "IN_PROGRESS");
+        done = save("Interview done", sameTime.plusHours(2), "DONE");
+    }
+
+    @Test
+    void findListPage_shouldWalkPagesInCreatedAscOrderWithIdTieBreak() {
+        List<Flow> first = flowRepo.findListPageOrderByCreatedAsc("", "", Limit.of(2));
+        assertEquals(List.of(a.getId(), b.getId()), ids(first));
+
+        Flow last = first.get(1);
+        List<Flow> second = flowRepo.findListPageAfterOrderByCreatedAsc(
+                "", "", last.getCreatedAt(), last.getId(), Limit.of(2));
+        assertEquals(List.of(c.getId(), done.getId()), ids(second));
+    }
+
+    @Test
+    void findListPage_shouldWalkPagesInCreatedDescOrder() {
+        List<Flow> first = flowRepo.findListPageOrderByCreatedDesc("", "", Limit.of(3));
+        assertEquals(List.of(done.getId(), c.getId(), b.getId()), ids(first));
+
+        Flow last = first.get(2);
+        List<Flow> second = flowRepo.findListPageAfterOrderByCreatedDesc(
+                "", "", last.getCreatedAt(), last.getId(), Limit.of(3));
+        assertEquals(List.of(a.getId()), ids(second));
+    }
+
+    @Test
+    void findListPage_shouldFilterByStatusAndKeyword() {
+        assertEquals(
+                List.of(a.getId(), b.getId()),
+                ids(flowRepo.findListPageOrderByCreatedAsc("IN_PROGRESS", "%interview%", Limit.unlimited())));
+        assertEquals(
+                List.of(c.getId()),
+                ids(flowRepo.findListPageOrderByCreatedAsc("", "%100!%%", Limit.unlimited())));
+    }
+
+    @Test
+    void findAccessViewById_shouldReturnOwnerAndActiveStepUserInOneRow() {
+        Participant participant = participantRepo.save(new Participant("USER", 5L, "user five"));
+        FlowStep active = new FlowStep(a.getId(), 1, participant.getId(), participant.getDisplayName());
+        active.activate();
+        stepRepo.save(active);
+        stepRepo.save(new FlowStep(b.getId(), 1, participant.getId(), participant.getDisplayName()));
+
+        FlowRepository.FlowAccessView view = flowRepo.findAccessViewById(a.getId()).orElseThrow();
+        assertEquals(1L, view.getOwnerUserId());
+        assertEquals(5L, view.getActiveStepUserId());
+
+        // The current step of b is still PENDING, so nobody operates it.
+        assertNull(flowRepo.findAccessViewById(b.getId()).orElseThrow().getActiveStepUserId());
+        assertTrue(flowRepo.findAccessViewById(-1L).isEmpty());
+    }
+
+    @Test
+    void save_shouldRejectAStaleCopyOfAFlow() {
+        em.flush();
+        em.clear();
+        Flow stale = flowRepo.findById(a.getId()).orElseThrow();
+        em.detach(stale);
+        Flow current = flowRepo.findById(a.getId()).orElseThrow();
+        current.moveToStep(2);
+        flowRepo.saveAndFlush(current);
+
+        stale.moveToStep(3);
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> flowRepo.saveAndFlush(stale));
+    }
+
+    private Flow save(String title, LocalDateTime createdAt, String status) {
+        Flow flow = new Flow(title, 60, createdAt, 1L);
+        ReflectionTestUtils.setField(flow, "createdAt", createdAt);
+        ReflectionTestUtils.setField(flow, "status", status);
+        return flowRepo.save(flow);
+    }
+
+    private List<Long> ids(List<Flow> flows) {
+        return flows.stream().map(Flow::getId).toList();
+    }
+}
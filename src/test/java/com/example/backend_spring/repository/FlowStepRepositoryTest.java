@@ -0,0 +1,226 @@
+package com.example.backend_spring.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com.example.backend_spring.domain.Flow;
+import com.example.backend_spring.domain.FlowStep;
+import com.example.backend_spring.domain.Participant;
+import com.example.backend_spring.domain.StepCandidate;
+
+@DataJpaTest
+class FlowStepRepositoryTest {
+
+    @Autowired
+    private FlowRepository flowRepo;
+
+    @Autowired
+    private FlowStepRepository stepRepo;
+
+    @Autowired
+    private StepCandidateRepository candidateRepo;
+
+    @Autowired
+    private ParticipantRepository participantRepo;
+
+    @Test
+    void scheduleSlotQueries_shouldReturnFirstConfirmedStepOrCurrentStepCandidates() {
+        Flow confirmedFlow = flowRepo.save(new Flow("confirmed", 60, LocalDateTime.of(2026, 3, 1, 9, 0), 1L));
+        FlowStep step1 = new FlowStep(confirmedFlow.getId(), 1, 11L, "A");
+        step1.confirm(LocalDateTime.of(2026, 3, 2, 10, 0), LocalDateTime.of(2026, 3, 2, 11, 0));
+        FlowStep step2 = new FlowStep(confirmedFlow.getId(), 2, 12L, "B");
+        step2.confirm(LocalDateTime.of(2026, 3, 3, 10, 0), LocalDateTime.of(2026, 3, 3, 11, 0));
+        stepRepo.saveAll(List.of(step2, step1));
+
+        Flow proposedFlow = flowRepo.save(new Flow("proposed", 60, LocalDateTime.of(2026, 3, 1, 9, 0), 1L));
+        FlowStep active = new FlowStep(proposedFlow.getId(), 1, 11L, "A");
+        active.activate();
+        active = stepRepo.save(active);
+        StepCandidate rejected = new StepCandidate(active.getId(), LocalDateTime.of(2026, 3, 4, 8, 0), LocalDateTime.of(2026, 3, 4, 9, 0));
+        rejected.reject();
+        candidateRepo.saveAll(List.of(
+                rejected,
+                new StepCandidate(active.getId(), LocalDateTime.of(2026, 3, 5, 10, 0), LocalDateTime.of(2026, 3, 5, 11, 0)),
+                new StepCandidate(active.getId(), LocalDateTime.of(2026, 3, 4, 10, 0), LocalDateTime.of(2026, 3, 4, 11, 0))));
+
+        List<FlowStepRepository.ScheduleSlotView> confirmed = stepRepo.findFirstConfirmedSlotsByFlowIds(
+                List.of(confirmedFlow.getId(), proposedFlow.getId()));
+        assertEquals(1, confirmed.size());
+        assertEquals(confirmedFlow.getId(), confirmed.get(0).getFlowId());
+        assertEquals(LocalDateTime.of(2026, 3, 2, 10, 0), confirmed.get(0).getStartAt());
+
+        List<StepCandidateRepository.ScheduleSlotView> candidates = candidateRepo.findBlockingSlotsOfCurrentStepByFlowIds(
+                List.of(proposedFlow.getId()));
+        assertEquals(2, candidates.size());
+        assertEquals(proposedFlow.getId(), candidates.get(0).getFlowId());
+        assertEquals(LocalDateTime.of(2026, 3, 4, 10, 0), candidates.get(0).getStartAt());
+    }
+
+    @Test
+    void findCalendarEventsInWindow_shouldReturnOnlyEventsIntersectingTheWindow() {
+        Participant participant = participantRepo.save(new Participant("USER", 1L, "Alice"));
+        Flow flow = flowRepo.save(new Flow("Interview", 60, LocalDateTime.of(2026, 3, 1, 9, 0), 1L));
+
+        FlowStep inWindow = new FlowStep(flow.getId(), 1, participant.getId(), "Alice");
+        inWindow.confirm(LocalDateTime.of(2026, 3, 2, 10, 0), LocalDateTime.of(2026, 3, 2, 11, 0));
+        FlowStep outOfWindow = new FlowStep(flow.getId(), 2, participant.getId(), "Alice");
+        outOfWindow.confirm(LocalDateTime.of(2026, 3, 20, 10, 0), LocalDateTime.of(2026, 3, 20, 11, 0));
+        FlowStep active = new FlowStep(flow.getId(), 3, null, null);
+        active.activate();
+        stepRepo.saveAll(List.of(inWindow, outOfWindow, active));
+        candidateRepo.save(new StepCandidate(active.getId(), LocalDateTime.of(2026, 3, 3, 9, 0), LocalDateTime.of(2026, 3, 3, 10, 0)));
+        candidateRepo.save(new StepCandidate(active.getId(), LocalDateTime.of(2026, 4, 3, 9, 0), LocalDateTime.of(2026, 4, 3, 10, 0)));
+
+        LocalDateTime windowStart = LocalDateTime.of(2026, 3, 2, 0, 0);
+        LocalDateTime windowEnd = LocalDateTime.of(2026, 3, 9, 0, 0);
+
+        List<FlowStepRepository.CalendarEventView> byIds = stepRepo.findCalendarEventsByFlowIdsInWindow(
+                List.of(flow.getId()), windowStart, windowEnd);
+        assertEquals(2, byIds.size());
+        assertEquals("CONFIRMED", byIds.get(0).getStatus());
+        assertEquals("Alice", byIds.get(0).getParticipantName());
+        assertEquals("Interview", byIds.get(0).getFlowTitle());
+        assertEquals("PROPOSED", byIds.get(1).getStatus());
+        assertEquals("Unknown", byIds.get(1).getParticipantName());
+
+        assertEquals(2, stepRepo.findCalendarEventsByFlowFilterInWindow("", "%interview%", windowStart, windowEnd).size());
+        assertEquals(0, stepRepo.findCalendarEventsByFlowFilterInWindow("DONE", "", windowStart, windowEnd).size());
+
+        List<FlowStepRepository.CalendarEventView> byParticipant = stepRepo.findCalendarEventsByParticipantIdsInWindow(
+                List.of(participant.getId()), windowStart, windowEnd);
+        assertEquals(1, byParticipant.size());
+        assertEquals(LocalDateTime.of(2026, 3, 2, 10, 0), byParticipant.get(0).getStartAt());
+        assertEquals(List.of(participant.getId()), stepRepo.findDistinctParticipantIdsByFlowId(flow.getId()));
+    }
+
+    @Test
+    void findBlockingIntervals_shouldReturnConfirmedStepsAndActiveStepCandidates() {
+        Flow flow = flowRepo.save(new Flow("Interview", 60, LocalDateTime.of(2026, 3, 1, 9, 0), 7L));
+        FlowStep past = new FlowStep(flow.getId(), 1, 11L, "A");
+        past.confirm(LocalDateTime.of(2026, 3, 2, 10, 0), LocalDateTime.of(2026, 3, 2, 11, 0));
+        FlowStep confirmed = new FlowStep(flow.getId(), 2, 11L, "A");
+        confirmed.confirm(LocalDateTime.of(2026, 3, 10, 10, 0), LocalDateTime.of(2026, 3, 10, 11, 0));
+        FlowStep active = new FlowStep(flow.getId(), 3, 12L, "B");
+        active.activate();
+        stepRepo.saveAll(List.of(past, confirmed, active));
+        StepCandidate rejected = new StepCandidate(active.getId(), LocalDateTime.of(2026, 3, 11, 8, 0), LocalDateTime.of(2026, 3, 11, 9, 0));
+        rejected.reject();
+        candidateRepo.saveAll(List.of(
+                rejected,
+                new StepCandidate(active.getId(), LocalDateTime.of(2026, 3, 12, 10, 0), LocalDateTime.of(2026, 3, 12, 11, 0))));
+
+        List<FlowStepRepository.BlockingIntervalView> byFlow = stepRepo.findBlockingIntervalsByFlowId(flow.getId());
+        assertEquals(3, byFlow.size());
+        assertEquals(7L, byFlow.get(0).getOwnerUserId());
+
+        List<FlowStepRepository.BlockingIntervalView> upcoming =
+                stepRepo.findBlockingIntervalsEndingAfter(LocalDateTime.of(2026, 3, 5, 0, 0));
+        assertEquals(2, upcoming.size());
+        FlowStepRepository.BlockingIntervalView candidate = upcoming.stream()
+                .filter(row -> "PROPOSED".equals(row.getStatus()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(active.getId(), candidate.getStepId());
+        assertEquals(12L, candidate.getParticipantId());
+
+        assertEquals(2, stepRepo.findBlockingIntervalsForOwnerOrParticipantInWindow(
+                7L, null, LocalDateTime.of(2026, 3, 10, 0, 0), LocalDateTime.of(2026, 3, 13, 0, 0)).size());
+        List<FlowStepRepository.BlockingIntervalView> participantBusy = stepRepo.findBlockingIntervalsForOwnerOrParticipantInWindow(
+                null, 11L, LocalDateTime.of(2026, 3, 1, 0, 0), LocalDateTime.of(2026, 3, 11, 0, 0));
+        assertEquals(2, participantBusy.size());
+        assertEquals(LocalDateTime.of(2026, 3, 2, 10, 0), participantBusy.get(0).getStartAt());
+    }
+
+    @Test
+    void findBookingConflicts_shouldReturnEveryOverlapWithItsTypeAndThePreviousStep() {
+        Flow flow = flowRepo.save(new Flow("Interview", 60, LocalDateTime.of(2026, 3, 1, 9, 0), 7L));
+        FlowStep first = new FlowStep(flow.getId(), 1, 11L, "A");
+        first.confirm(LocalDateTime.of(2026, 3, 10, 9, 0), LocalDateTime.of(2026, 3, 10, 10, 0));
+        FlowStep second = new FlowStep(flow.getId(), 2, 12L, "B");
+        second.activate();
+        stepRepo.saveAll(List.of(first, second));
+        Flow other = flowRepo.save(new Flow("Other", 60, LocalDateTime.of(2026, 3, 1, 9, 0), 8L));
+        FlowStep otherActive = new FlowStep(other.getId(), 1, 12L, "B");
+        otherActive.activate();
+        stepRepo.save(otherActive);
+        candidateRepo.saveAll(List.of(
+                new StepCandidate(second.getId(), LocalDateTime.of(2026, 3, 10, 9, 30), LocalDateTime.of(2026, 3, 10, 10, 30)),
+                new StepCandidate(otherActive.getId(), LocalDateTime.of(2026, 3, 10, 9, 0), LocalDateTime.of(2026, 3, 10, 10, 0))));
+
+        List<FlowStepRepository.BookingConflictView> rows = stepRepo.findBookingConflicts(
+                7L, -1L, false, 12L, second.getId(), flow.getId(), 1,
+                LocalDateTime.of(2026, 3, 10, 9, 30), LocalDateTime.of(2026, 3, 10, 10, 30));
+
+        // The owner's own confirmed step and candidate overlap; the participant's only overlap is in the other
+        // flow because its own step is excluded.
+        assertEquals(
+                List.of("OWNER_CANDIDATE", "OWNER_CONFIRMED", "PARTICIPANT_CANDIDATE", "PREVIOUS_STEP"),
+                rows.stream().map(FlowStepRepository.BookingConflictView::getConflictType).sorted().toList());
+        FlowStepRepository.BookingConflictView participantConflict = rows.stream()
+                .filter(row -> "PARTICIPANT_CANDIDATE".equals(row.getConflictType()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("Other", participantConflict.getFlowTitle());
+        FlowStepRepository.BookingConflictView previous = rows.stream()
+                .filter(row -> "PREVIOUS_STEP".equals(row.getConflictType()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(LocalDateTime.of(2026, 3, 10, 10, 0), previous.getEndAt());
+
+        assertEquals(0, stepRepo.findBookingConflicts(
+                7L, -1L, false, 12L, second.getId(), flow.getId(), 1,
+                LocalDateTime.of(2026, 3, 10, 10, 30), LocalDateTime.of(2026, 3, 10, 11, 30))
+                .stream()
+                .filter(row -> !"PREVIOUS_STEP".equals(row.getConflictType()))
+                .count());
+    }
+
+    @Test
+    void findBookingConflicts_shouldMatchOwnerlessFlowsWithEachOtherOnlyWhenAsked() {
+        Flow flow = flowRepo.save(new Flow("Interview", 60, LocalDateTime.of(2026, 3, 1, 9, 0), null));
+        FlowStep active = new FlowStep(flow.getId(), 1, 11L, "A");
+        active.activate();
+        stepRepo.save(active);
+        Flow other = flowRepo.save(new Flow("Other", 60, LocalDateTime.of(2026, 3, 1, 9, 0), null));
+        FlowStep otherStep = new FlowStep(other.getId(), 1, 12L, "B");
+        otherStep.confirm(LocalDateTime.of(2026, 3, 10, 9, 0), LocalDateTime.of(2026, 3, 10, 10, 0));
+        stepRepo.save(otherStep);
+
+        List<FlowStepRepository.BookingConflictView> rows = stepRepo.findBookingConflicts(
+                -1L, -1L, true, 11L, active.getId(), flow.getId(), 0,
+                LocalDateTime.of(2026, 3, 10, 9, 30), LocalDateTime.of(2026, 3, 10, 10, 30));
+
+        assertEquals(List.of("OWNER_CONFIRMED"), rows.stream().map(FlowStepRepository.BookingConflictView::getConflictType).toList());
+        assertEquals("Other", rows.get(0).getFlowTitle());
+        assertTrue(stepRepo.findBookingConflicts(
+                -1L, -1L, false, 11L, active.getId(), flow.getId(), 0,
+                LocalDateTime.of(2026, 3, 10, 9, 30), LocalDateTime.of(2026, 3, 10, 10, 30)).isEmpty());
+    }
+
+    @Test
+    void bookingKeyQueries_shouldResolveOwnerAndParticipantWithoutLoadingEntities() {
+        Flow flow = flowRepo.save(new Flow("Interview", 60, LocalDateTime.of(2026, 3, 1, 9, 0), 7L));
+        FlowStep first = new FlowStep(flow.getId(), 1, 11L, "A");
+        first.activate();
+        FlowStep second = new FlowStep(flow.getId(), 2, 12L, "B");
+        stepRepo.saveAll(List.of(first, second));
+
+        FlowStepRepository.BookingKeyView active = stepRepo.findBookingKeyOfActiveStep(flow.getId()).orElseThrow();
+        assertEquals(7L, active.getOwnerUserId());
+        assertEquals(11L, active.getParticipantId());
+        assertEquals(12L, stepRepo.findBookingKeyOfStep(flow.getId(), second.getId()).orElseThrow().getParticipantId());
+        assertEquals(List.of(11L, 12L), stepRepo.findBookingKeysOfFlow(flow.getId()).stream()
+                .map(FlowStepRepository.BookingKeyView::getParticipantId)
+                .sorted()
+                .toList());
+        assertEquals(List.of(7L), flowRepo.findOwnerUserIdsByIdIn(List.of(flow.getId(), -1L)));
+        assertTrue(stepRepo.findBookingKeyOfActiveStep(-1L).isEmpty());
+    }
+}
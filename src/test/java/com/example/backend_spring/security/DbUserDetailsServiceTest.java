@@ -0,0 +1,142 @@
+package com.example.backend_spring.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
+
+import com.example.backend_spring.repository.UserAccountRepository;
+
+@ExtendWith(MockitoExtension.class)
+class DbUserDetailsServiceTest {
+
+    private static final Clock FIXED_CLOCK = Clock.fixed(Instant.parse("2025-01-06T00:00:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private UserAccountRepository userRepo;
+
+    @Test
+    void loadUserByUsername_shouldBuildPrincipalFromOneJoinQuery() {
+        PrincipalRefresher refresher = refresher(FIXED_CLOCK);
+        DbUserDetailsService service = new DbUserDetailsService(userRepo, refresher);
+        when(userRepo.findPrincipalRowsByUsername("alice")).thenReturn(List.of(
+                row("ROLE_ADMIN", 7L, "Alice", 0L),
+                row("ROLE_USER", 7L, "Alice", 0L)));
+
+        AppUserPrincipal principal = (AppUserPrincipal) service.loadUserByUsername("alice");
+
+        assertEquals(3L, principal.getUserId());
+        assertEquals(7L, principal.getParticipantId());
+        assertEquals("Alice", principal.getDisplayName());
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"),
+                principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).sorted().toList());
+    }
+
+    @Test
+    void principalRefresher_shouldFlagPrincipalsLoadedBeforeTheLastChange() {
+        PrincipalRefresher refresher = refresher(FIXED_CLOCK);
+        DbUserDetailsService service = new DbUserDetailsService(userRepo, refresher);
+        when(userRepo.findPrincipalRowsByUsername("alice")).thenReturn(List.of(row(null, null, null, 0L)));
+
+        AppUserPrincipal before = (AppUserPrincipal) service.loadUserByUsername("alice");
+        assertEquals("alice", before.getDisplayName());
+        assertEquals(List.of("ROLE_USER"), before.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        assertFalse(refresher.isStale(before));
+
+        refresher.markStale(3L);
+        verify(userRepo).incrementPrincipalGeneration(3L);
+        when(userRepo.findPrincipalGenerationById(3L)).thenReturn(Optional.of(1L));
+        assertTrue(refresher.isStale(before));
+
+        when(userRepo.findPrincipalRowsByUsername("alice")).thenReturn(List.of(row(null, null, null, 1L)));
+        AppUserPrincipal after = (AppUserPrincipal) service.loadUserByUsername("alice");
+        assertFalse(refresher.isStale(after));
+    }
+
+    @Test
+    void principalRefresher_shouldPickUpChangesMadeOnOtherNodesAfterTheCheckInterval() {
+        MutableClock clock = new MutableClock(Instant.parse("2025-01-06T00:00:00Z"));
+        PrincipalRefresher refresher = refresher(clock);
+        DbUserDetailsService service = new DbUserDetailsService(userRepo, refresher);
+        when(userRepo.findPrincipalRowsByUsername("alice")).thenReturn(List.of(row(null, null, null, 4L)));
+
+        AppUserPrincipal principal = (AppUserPrincipal) service.loadUserByUsername("alice");
+        assertFalse(refresher.isStale(principal));
+
+        // Another node bumped the generation; this node trusts its copy until the interval has passed.
+        when(userRepo.findPrincipalGenerationById(3L)).thenReturn(Optional.of(5L));
+        clock.advance(Duration.ofSeconds(11));
+        assertTrue(refresher.isStale(principal));
+    }
+
+    @Test
+    void principalRefresher_shouldTreatDeletedUsersAsStale() {
+        PrincipalRefresher refresher = refresher(FIXED_CLOCK);
+        when(userRepo.findPrincipalGenerationById(3L)).thenReturn(Optional.empty());
+
+        AppUserPrincipal principal = new AppUserPrincipal(
+                3L, "alice", "{noop}secret", true, List.of(), null, "alice", 0L);
+
+        assertTrue(refresher.isStale(principal));
+    }
+
+    private PrincipalRefresher refresher(Clock clock) {
+        return new PrincipalRefresher(userRepo, Duration.ofSeconds(10), clock);
+    }
+
+    private UserAccountRepository.UserPrincipalRow row(
+            String roleName, Long participantId, String displayName, Long principalGeneration) {
+        return new UserAccountRepository.UserPrincipalRow() {
+            public Long getUserId() { return 3L; }
+            public String getUsername() { return "alice"; }
+            public String getPassword() { return "{noop}secret"; }
+            public Boolean getEnabled() { return true; }
+            public Long getPrincipalGeneration() { return principalGeneration; }
+            public String getRoleName() { return roleName; }
+            public Long getParticipantId() { return participantId; }
+            public String getDisplayName() { return displayName; }
+        };
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
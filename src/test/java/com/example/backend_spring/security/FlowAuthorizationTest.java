@@ -0,0 +1,92 @@
+package com.example.backend_spring.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.example.backend_spring.repository.FlowRepository;
+import com.example.backend_spring.repository.UserAccountRepository;
+
+@ExtendWith(MockitoExtension.class)
+class FlowAuthorizationTest {
+
+    @Mock
+    private FlowRepository flowRepo;
+
+    @Mock
+    private UserAccountRepository userRepo;
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void checksWithinOneRequest_shouldShareOneAccessQuery() {
+        FlowAuthorization authorization = new FlowAuthorization(flowRepo, userRepo);
+        when(flowRepo.findAccessViewById(10L)).thenReturn(Optional.of(view(3L, 4L)));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        Authentication owner = principal(3L);
+        Authentication operator = principal(4L);
+        assertTrue(authorization.canManageFlow(10L, owner));
+        assertFalse(authorization.canOperateActiveStep(10L, owner));
+        assertFalse(authorization.canManageFlow(10L, operator));
+        assertTrue(authorization.canOperateActiveStep(10L, operator));
+
+        verify(flowRepo, times(1)).findAccessViewById(10L);
+    }
+
+    @Test
+    void checksOutsideRequest_shouldQueryEachTime() {
+        FlowAuthorization authorization = new FlowAuthorization(flowRepo, userRepo);
+        when(flowRepo.findAccessViewById(10L)).thenReturn(Optional.of(view(3L, null)));
+
+        Authentication owner = principal(3L);
+        assertTrue(authorization.canManageFlow(10L, owner));
+        assertFalse(authorization.canOperateActiveStep(10L, owner));
+
+        verify(flowRepo, times(2)).findAccessViewById(10L);
+    }
+
+    @Test
+    void canManageFlows_shouldRequireOwnershipOfEveryDistinctFlow() {
+        FlowAuthorization authorization = new FlowAuthorization(flowRepo, userRepo);
+        when(flowRepo.countByIdInAndCreatedByUserId(Set.of(10L, 11L), 3L)).thenReturn(2L, 1L);
+
+        assertTrue(authorization.canManageFlows(List.of(10L, 11L, 10L), principal(3L)));
+        assertFalse(authorization.canManageFlows(List.of(10L, 11L), principal(3L)));
+    }
+
+    private Authentication principal(Long userId) {
+        AppUserPrincipal principal = new AppUserPrincipal(
+                userId, "user" + userId, "{noop}secret", true,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), null, null, 0L);
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    private FlowRepository.FlowAccessView view(Long ownerUserId, Long activeStepUserId) {
+        return new FlowRepository.FlowAccessView() {
+            public Long getOwnerUserId() { return ownerUserId; }
+            public Long getActiveStepUserId() { return activeStepUserId; }
+        };
+    }
+}
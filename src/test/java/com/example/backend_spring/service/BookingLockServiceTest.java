@@ -0,0 +1,83 @@
+package com.example.backend_spring.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingLockServiceTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void lockForBooking_shouldMakeASecondBookingOfTheSameParticipantWaitAndTimeOut() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BookingLockService locks = new BookingLockService(dataSource, registry, Duration.ofMillis(300), true);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> tx.executeWithoutResult(status -> {
+            locks.lockForBooking(1L, 11L);
+            held.countDown();
+            await(finish);
+        }));
+        await(held);
+
+        // Owner 2 is free, but participant 11 is held by the first booking.
+        assertThrows(IllegalArgumentException.class,
+                () -> tx.executeWithoutResult(status -> locks.lockForBooking(2L, 11L)));
+        // A booking with disjoint keys does not wait.
+        tx.executeWithoutResult(status -> locks.lockForBooking(3L, 12L));
+
+        finish.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        tx.executeWithoutResult(status -> locks.lockForBooking(2L, 11L));
+
+        assertEquals(1.0, registry.get("flow.booking.lock.contended").counter().count());
+        assertEquals(1L, registry.get("flow.booking.lock.wait").tag("outcome", "timeout").timer().count());
+    }
+
+    @Test
+    void lockKeys_shouldBeSortedAndSkipMissingParties() {
+        assertEquals(
+                List.of("owner:7", "participant:11", "participant:3"),
+                List.copyOf(BookingLockService.lockKeys(7L, Arrays.asList(3L, null, 11L, 3L))));
+        assertEquals(List.of("participant:5"), List.copyOf(BookingLockService.lockKeys(null, List.of(5L))));
+        // A batch of several owners' flows is still one sorted pass.
+        assertEquals(
+                List.of("owner:2", "owner:9", "participant:5"),
+                List.copyOf(BookingLockService.lockKeysOf(Arrays.asList(9L, null, 2L), List.of(5L))));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
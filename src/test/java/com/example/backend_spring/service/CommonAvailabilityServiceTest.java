@@ -0,0 +1,100 @@
+package com.example.backend_spring.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static com.example.backend_spring.support.BlockingIntervals.blockingInterval;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend_spring.domain.Flow;
+import com.example.backend_spring.domain.FlowStep;
+import com.example.backend_spring.repository.FlowRepository;
+import com.example.backend_spring.repository.FlowStepRepository;
+import com.example.backend_spring.repository.ParticipantRepository;
+import com.example.backend_spring.repository.StepCandidateRepository;
+
+@ExtendWith(MockitoExtension.class)
+class CommonAvailabilityServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 2, 21);
+
+    @Mock
+    private FlowRepository flowRepo;
+
+    @Mock
+    private FlowStepRepository stepRepo;
+
+    @Mock
+    private StepCandidateRepository candidateRepo;
+
+    @Mock
+    private ParticipantRepository participantRepo;
+
+    private CommonAvailabilityService service;
+    private FlowAggregate aggregate;
+
+    @BeforeEach
+    void setUp() {
+        Clock fixedClock = Clock.fixed(Instant.parse("2026-02-20T00:00:00Z"), ZoneId.systemDefault());
+        FlowService flowService = new FlowService(flowRepo, stepRepo, candidateRepo, participantRepo, fixedClock);
+        service = new CommonAvailabilityService(stepRepo, flowService);
+
+        Flow flow = new Flow("common", 60, DAY.atStartOfDay(), 1L);
+        ReflectionTestUtils.setField(flow, "id", 7L);
+        FlowStep active = new FlowStep(7L, 1, 10L, "A");
+        ReflectionTestUtils.setField(active, "id", 71L);
+        active.updateReservableConstraints(null, null, 127, 540, 780);
+        active.activate();
+        FlowStep second = new FlowStep(7L, 2, 11L, "B");
+        ReflectionTestUtils.setField(second, "id", 72L);
+        aggregate = new FlowAggregate(flow, List.of(active, second), active, List.of(), Map.of());
+    }
+
+    @Test
+    void findCommonFreeWindows_shouldIntersectEveryonesFreeTimeWithTheActiveStepWindow() {
+        when(stepRepo.findBlockingIntervalsForOwnersOrParticipantsInWindow(
+                eq(List.of(1L)), anyCollection(), eq(DAY.atStartOfDay()), eq(DAY.plusDays(2).atStartOfDay())))
+                .thenReturn(List.of(
+                        // The ACTIVE step's own candidate does not block.
+                        blockingInterval(999L, 1L, 71L, 10L, "PROPOSED", DAY.atTime(9, 0), DAY.atTime(10, 0)),
+                        blockingInterval(999L, 5L, 90L, 11L, "CONFIRMED", DAY.atTime(10, 0), DAY.atTime(11, 0)),
+                        blockingInterval(999L, 1L, 91L, null, "PROPOSED", DAY.atTime(12, 0), DAY.atTime(12, 30))));
+
+        List<CommonAvailabilityService.FreeWindow> windows = service.findCommonFreeWindows(aggregate, DAY, DAY.plusDays(1));
+
+        // 12:30-13:00 is free but shorter than the 60-minute meeting.
+        assertEquals(3, windows.size());
+        assertWindow(windows.get(0), DAY.atTime(9, 0), DAY.atTime(10, 0));
+        assertWindow(windows.get(1), DAY.atTime(11, 0), DAY.atTime(12, 0));
+        assertWindow(windows.get(2), DAY.plusDays(1).atTime(9, 0), DAY.plusDays(1).atTime(13, 0));
+        assertEquals("top: 396.00px; height: 44.00px;", windows.get(0).getStyle());
+    }
+
+    @Test
+    void findCommonFreeWindows_shouldClampToTheReservablePeriodAndLimitTheRange() {
+        assertTrue(service.findCommonFreeWindows(aggregate, DAY.minusDays(10), DAY.minusDays(2)).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> service.findCommonFreeWindows(aggregate, DAY, DAY.plusDays(40)));
+    }
+
+    private void assertWindow(CommonAvailabilityService.FreeWindow window, LocalDateTime startAt, LocalDateTime endAt) {
+        assertEquals(startAt, window.getStartAt());
+        assertEquals(endAt, window.getEndAt());
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.backend_spring.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ConflictCheckMetricsTest {
+
+    @Test
+    void nestedBookings_shouldBeRecordedOnceUnderTheOutermostOperation() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ConflictCheckMetrics metrics = new ConflictCheckMetrics(registry);
+
+        try (var outer = metrics.openBooking("add_candidate")) {
+            metrics.recordCheck(ConflictCheckMetrics.PARTY_OWNER, ConflictCheckMetrics.SOURCE_DATABASE, 2);
+            try (var inner = metrics.openBooking("select_candidate")) {
+                metrics.recordCheck(ConflictCheckMetrics.PARTY_PARTICIPANT, ConflictCheckMetrics.SOURCE_DATABASE, 1);
+            }
+        }
+        try (var booking = metrics.openBooking("select_candidate")) {
+            metrics.recordCheck(ConflictCheckMetrics.PARTY_OWNER_AND_PARTICIPANT, ConflictCheckMetrics.SOURCE_DATABASE, 0);
+        }
+
+        DistributionSummary addCandidate = registry.get("flow.booking.conflict.queries").tag("operation", "add_candidate").summary();
+        assertEquals(1, addCandidate.count());
+        assertEquals(3.0, addCandidate.totalAmount());
+        DistributionSummary selectCandidate = registry.get("flow.booking.conflict.queries").tag("operation", "select_candidate").summary();
+        assertEquals(1, selectCandidate.count());
+        assertEquals(0.0, selectCandidate.totalAmount());
+        assertEquals(1.0, registry.get("flow.conflict.checks").tag("party", "participant").tag("source", "database").counter().count());
+        assertEquals(1.0, registry.get("flow.conflict.checks").tag("party", "owner_and_participant").tag("source", "database").counter().count());
+    }
+}
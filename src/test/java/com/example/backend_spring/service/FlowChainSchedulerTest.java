@@ -0,0 +1,197 @@
+package com.example.backend_spring.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static com.example.backend_spring.support.BlockingIntervals.blockingInterval;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend_spring.domain.Flow;
+import com.example.backend_spring.domain.FlowStep;
+import com.example.backend_spring.repository.FlowRepository;
+import com.example.backend_spring.repository.FlowStepRepository;
+import com.example.backend_spring.repository.ParticipantRepository;
+import com.example.backend_spring.repository.StepCandidateRepository;
+
+@ExtendWith(MockitoExtension.class)
+class FlowChainSchedulerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 2, 21);
+
+    @Mock
+    private FlowRepository flowRepo;
+
+    @Mock
+    private FlowStepRepository stepRepo;
+
+    @Mock
+    private StepCandidateRepository candidateRepo;
+
+    @Mock
+    private ParticipantRepository participantRepo;
+
+    private FlowChainScheduler scheduler;
+    private Flow flow;
+    private final List<FlowStep> steps = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Clock fixedClock = Clock.fixed(Instant.parse("2026-02-20T00:00:00Z"), ZoneId.systemDefault());
+        FlowService flowService = new FlowService(flowRepo, stepRepo, candidateRepo, participantRepo, fixedClock);
+        scheduler = new FlowChainScheduler(flowRepo, stepRepo, candidateRepo, flowService,
+                ScheduleConflictIndex.disabled(), SlotReservationService.disabled(), BookingLockService.disabled());
+        flow = new Flow("chain", 60, DAY.atStartOfDay(), 1L);
+        ReflectionTestUtils.setField(flow, "id", 7L);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void autoSchedule_shouldChainStepsAroundBusyTimeAndWindowsAndConfirmThemAll() {
+        addStep(1, 10L, 127).activate();
+        addStep(2, 11L, 127);
+        // Sundays are not allowed for the third step.
+        addStep(3, 10L, 126);
+        stubLoads(List.of(busy(11L, DAY.atTime(10, 0), DAY.atTime(11, 30))));
+        when(candidateRepo.findByFlowStepIdOrderByStartAtAsc(71L)).thenReturn(List.of());
+
+        FlowChainScheduler.ChainPlan plan = scheduler.autoSchedule(7L, null, false);
+
+        assertTrue(plan.isApplied());
+        assertEquals(3, plan.getSteps().size());
+        assertEquals(DAY.atTime(9, 0), plan.getSteps().get(0).getStartAt());
+        // Participant 11 is busy until 11:30 and the window closes at 12:00, so step 2 moves to Sunday.
+        assertEquals(DAY.plusDays(1).atTime(9, 0), plan.getSteps().get(1).getStartAt());
+        assertEquals(DAY.plusDays(2).atTime(9, 0), plan.getSteps().get(2).getStartAt());
+
+        ArgumentCaptor<List<FlowStep>> saved = ArgumentCaptor.forClass(List.class);
+        verify(stepRepo).saveAll(saved.capture());
+        assertEquals(4, saved.getValue().size());
+        for (FlowStep step : steps) {
+            assertEquals("CONFIRMED", step.getStatus());
+        }
+        FlowStep next = saved.getValue().get(3);
+        assertEquals(4, next.getStepOrder());
+        assertEquals("ACTIVE", next.getStatus());
+        assertEquals(10L, next.getParticipantId());
+        assertEquals(4, flow.getCurrentStepOrder());
+        verify(flowRepo).save(flow);
+    }
+
+    @Test
+    void autoSchedule_dryRunShouldReturnChainWithoutWriting() {
+        addStep(1, 10L, 127).activate();
+        addStep(2, 10L, 127);
+        stubLoads(List.of());
+
+        FlowChainScheduler.ChainPlan plan = scheduler.autoSchedule(7L, DAY.plusDays(3), true);
+
+        assertFalse(plan.isApplied());
+        assertEquals(DAY.plusDays(3).atTime(9, 0), plan.getSteps().get(0).getStartAt());
+        assertEquals(DAY.plusDays(3).atTime(10, 30), plan.getSteps().get(1).getStartAt());
+        assertEquals("ACTIVE", steps.get(0).getStatus());
+        verify(stepRepo, never()).saveAll(any());
+        verify(flowRepo, never()).save(any());
+    }
+
+    @Test
+    void autoSchedule_shouldRejectWhenAStepCannotFitBeforeAConfirmedLaterStep() {
+        addStep(1, 10L, 127).activate();
+        addStep(2, 11L, 127).confirm(DAY.atTime(9, 30), DAY.atTime(10, 30));
+        stubLoads(List.of());
+
+        assertThrows(IllegalArgumentException.class, () -> scheduler.autoSchedule(7L, null, false));
+        verify(stepRepo, never()).saveAll(any());
+    }
+
+    @Test
+    void simulateReschedules_shouldShiftOnlyTheFollowersThatWouldOverlap() {
+        addConfirmed(1, 10L, DAY.atTime(9, 0));
+        addConfirmed(2, 11L, DAY.atTime(11, 0));
+        addConfirmed(3, 10L, DAY.plusDays(1).atTime(9, 0));
+        stubLoads(List.of(busy(11L, DAY.atTime(12, 0), DAY.atTime(13, 0))));
+
+        List<FlowChainScheduler.ReschedulePlan> plans = scheduler.simulateReschedules(
+                7L, 71L, List.of(DAY.atTime(10, 30), DAY.atTime(8, 0), DAY.atTime(9, 0)));
+
+        FlowChainScheduler.ReschedulePlan later = plans.get(0);
+        assertTrue(later.isFeasible());
+        assertEquals(2, later.getShifts().size());
+        assertEquals(DAY.atTime(11, 30), later.getShifts().get(0).getToEndAt());
+        // Step 2 must start after 11:30 and participant 11 is busy 12:00-13:00; step 3 is already clear.
+        FlowChainScheduler.StepShift second = later.getShifts().get(1);
+        assertEquals(2, second.getStepOrder());
+        assertEquals(DAY.atTime(11, 0), second.getFromStartAt());
+        assertEquals(DAY.atTime(13, 0), second.getToStartAt());
+
+        assertFalse(plans.get(1).isFeasible());
+        assertTrue(plans.get(2).isFeasible());
+        assertTrue(plans.get(2).getShifts().isEmpty());
+        verify(stepRepo, never()).saveAll(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void applyReschedule_shouldWriteTheSimulatedShifts() {
+        addConfirmed(1, 10L, DAY.atTime(9, 0));
+        addConfirmed(2, 11L, DAY.atTime(10, 30));
+        stubLoads(List.of());
+
+        FlowChainScheduler.ReschedulePlan plan = scheduler.applyReschedule(7L, 71L, DAY.atTime(10, 0));
+
+        assertTrue(plan.isApplied());
+        ArgumentCaptor<List<FlowStep>> saved = ArgumentCaptor.forClass(List.class);
+        verify(stepRepo).saveAll(saved.capture());
+        assertEquals(2, saved.getValue().size());
+        assertEquals(DAY.atTime(10, 0), steps.get(0).getConfirmedStartAt());
+        assertEquals(DAY.atTime(11, 30), steps.get(1).getConfirmedStartAt());
+        assertThrows(IllegalArgumentException.class, () -> scheduler.applyReschedule(7L, 72L, DAY.atTime(10, 30)));
+    }
+
+    private void addConfirmed(int stepOrder, Long participantId, LocalDateTime startAt) {
+        FlowStep step = addStep(stepOrder, 10L, 127);
+        step.reassignParticipant(participantId, "participant " + participantId);
+        step.updateReservableConstraints(null, null, 127, 540, 1080);
+        step.confirm(startAt, startAt.plusMinutes(60));
+    }
+
+    private FlowStep addStep(int stepOrder, Long participantId, int weekdaysMask) {
+        FlowStep step = new FlowStep(7L, stepOrder, participantId, "participant " + participantId);
+        ReflectionTestUtils.setField(step, "id", 70L + stepOrder);
+        step.updateReservableConstraints(null, null, weekdaysMask, 540, 720);
+        steps.add(step);
+        return step;
+    }
+
+    private void stubLoads(List<FlowStepRepository.BlockingIntervalView> busy) {
+        when(flowRepo.findById(7L)).thenReturn(Optional.of(flow));
+        when(stepRepo.findByFlowIdOrderByStepOrder(7L)).thenReturn(steps);
+        when(stepRepo.findBlockingIntervalsForOwnersOrParticipantsInWindow(anyCollection(), anyCollection(), any(), any()))
+                .thenReturn(busy);
+    }
+
+    private FlowStepRepository.BlockingIntervalView busy(Long participantId, LocalDateTime startAt, LocalDateTime endAt) {
+        return blockingInterval(999L, 5L, 999L, participantId, "CONFIRMED", startAt, endAt);
+    }
+}
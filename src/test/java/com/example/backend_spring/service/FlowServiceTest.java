@@ -2,13 +2,17 @@ package com.example.backend_spring.service;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static com.example.backend_spring.support.BlockingIntervals.blockingInterval;
 
 import java.time.Clock;
 import java.time.Instant;
@@ -16,7 +20,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -25,6 +31,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import com.example.backend_spring.domain.Flow;
@@ -73,17 +80,16 @@ class FlowServiceTest {
 
     @Test
     void listFlows_shouldFilterByStatusAndKeyword() {
-        Flow f1 = new Flow("鬮ｱ・｢髫ｲ竭｡", 60, LocalDateTime.of(2026, 2, 21, 9, 0), 1L);
         Flow f2 = new Flow("done", 60, LocalDateTime.of(2026, 2, 22, 9, 0), 1L);
-        ReflectionTestUtils.setField(f1, "status", "IN_PROGRESS");
         ReflectionTestUtils.setField(f2, "status", "DONE");
 
-        when(flowRepo.findAll()).thenReturn(List.of(f1, f2));
+        when(flowRepo.findListPageOrderByCreatedDesc("DONE", "%done%", Limit.unlimited())).thenReturn(List.of(f2));
 
-        List<Flow> filtered = flowService.listFlows("DONE", "done", "created_desc");
+        List<Flow> filtered = flowService.listFlows(" DONE ", "Done", "created_desc");
 
         assertEquals(1, filtered.size());
         assertEquals("done", filtered.get(0).getTitle());
+        verify(flowRepo, never()).findAll();
     }
 
     @Test
@@ -91,10 +97,7 @@ class FlowServiceTest {
         Flow older = new Flow("old", 60, LocalDateTime.of(2026, 2, 21, 9, 0), 1L);
         Flow newer = new Flow("new", 60, LocalDateTime.of(2026, 2, 22, 9, 0), 1L);
 
-        ReflectionTestUtils.setField(older, "createdAt", LocalDateTime.of(2026, 2, 21, 8, 0));
-        ReflectionTestUtils.setField(newer, "createdAt", LocalDateTime.of(2026, 2, 22, 8, 0));
-
-        when(flowRepo.findAll()).thenReturn(List.of(newer, older));
+        when(flowRepo.findListPageOrderByCreatedAsc("", "", Limit.unlimited())).thenReturn(List.of(older, newer));
 
         List<Flow> sorted = flowService.listFlows("", "", "created_asc");
 
@@ -102,6 +105,75 @@ class FlowServiceTest {
         assertEquals("new", sorted.get(1).getTitle());
     }
 
+    @Test
+    void listFlows_shouldEscapeLikeWildcardsInKeyword() {
+        when(flowRepo.findListPageOrderByCreatedAsc("", "%50!%!_off%", Limit.unlimited())).thenReturn(List.of());
+
+        assertTrue(flowService.listFlows(null, "50%_off", "created_asc").isEmpty());
+    }
+
+    @Test
+    void listFlowPage_shouldReturnNextCursorWhenMoreRowsExist() {
+        Flow first = new Flow("a", 60, LocalDateTime.of(2026, 2, 21, 9, 0), 1L);
+        Flow second = new Flow("b", 60, LocalDateTime.of(2026, 2, 21, 9, 0), 1L);
+        Flow extra = new Flow("c", 60, LocalDateTime.of(2026, 2, 21, 9, 0), 1L);
+        ReflectionTestUtils.setField(first, "id", 1L);
+        ReflectionTestUtils.setField(second, "id", 2L);
+        ReflectionTestUtils.setField(extra, "id", 3L);
+        ReflectionTestUtils.setField(first, "createdAt", LocalDateTime.of(2026, 2, 21, 8, 0));
+        ReflectionTestUtils.setField(second, "createdAt", LocalDateTime.of(2026, 2, 21, 8, 30));
+        ReflectionTestUtils.setField(extra, "createdAt", LocalDateTime.of(2026, 2, 21, 9, 0));
+
+        when(flowRepo.findListPageOrderByCreatedAsc("", "", Limit.of(3))).thenReturn(List.of(first, second, extra));
+
+        FlowService.FlowListPage page = flowService.listFlowPage(null, null, "created_asc", null, 2);
+
+        assertEquals(2, page.getFlows().size());
+        assertTrue(page.hasNext());
+        assertEquals("2026-02-21T08:30_2", page.getNextCursor());
+    }
+
+    @Test
+    void listFlowPage_shouldContinueAfterCursor() {
+        Flow last = new Flow("z", 60, LocalDateTime.of(2026, 2, 21, 9, 0), 1L);
+
+        when(flowRepo.findListPageAfterOrderByCreatedDesc(
+                "IN_PROGRESS", "", LocalDateTime.of(2026, 2, 21, 8, 30), 2L, Limit.of(3)))
+                .thenReturn(List.of(last));
+
+        FlowService.FlowListPage page = flowService.listFlowPage("IN_PROGRESS", "", "created_desc", "2026-02-21T08:30_2", 2);
+
+        assertEquals(1, page.getFlows().size());
+        assertTrue(!page.hasNext());
+    }
+
+    @Test
+    void buildFlowScheduleLabels_shouldUseBatchQueriesAndFallBackToCandidates() {
+        Flow confirmedFlow = new Flow("a", 60, LocalDateTime.of(2026, 2, 21, 9, 0), 1L);
+        Flow proposedFlow = new Flow("b", 60, LocalDateTime.of(2026, 2, 21, 9, 0), 1L);
+        ReflectionTestUtils.setField(confirmedFlow, "id", 1L);
+        ReflectionTestUtils.setField(proposedFlow, "id", 2L);
+
+        FlowStepRepository.ScheduleSlotView confirmedSlot = new FlowStepRepository.ScheduleSlotView() {
+            public Long getFlowId() { return 1L; }
+            public LocalDateTime getStartAt() { return LocalDateTime.of(2026, 3, 9, 12, 0); }
+            public LocalDateTime getEndAt() { return LocalDateTime.of(2026, 3, 9, 13, 0); }
+        };
+        StepCandidateRepository.ScheduleSlotView candidateSlot = new StepCandidateRepository.ScheduleSlotView() {
+            public Long getFlowId() { return 2L; }
+            public LocalDateTime getStartAt() { return LocalDateTime.of(2026, 3, 10, 9, 0); }
+            public LocalDateTime getEndAt() { return LocalDateTime.of(2026, 3, 10, 10, 0); }
+        };
+
+        when(stepRepo.findFirstConfirmedSlotsByFlowIds(Set.of(1L, 2L))).thenReturn(List.of(confirmedSlot));
+        when(candidateRepo.findBlockingSlotsOfCurrentStepByFlowIds(Set.of(2L))).thenReturn(List.of(candidateSlot));
+
+        Map<Long, String> labels = flowService.buildFlowScheduleLabels(List.of(confirmedFlow, proposedFlow));
+
+        assertEquals("3月9日 12:00 ~ 13:00", labels.get(1L));
+        assertEquals("3月10日 09:00 ~ 10:00", labels.get(2L));
+        verify(stepRepo, never()).findByFlowIdOrderByStepOrder(any());
+    }
 
     @Test
     void addCandidateToActiveStep_shouldRejectWhenTimeOverlapsForSameOwner() {
@@ -110,25 +182,42 @@ class FlowServiceTest {
         active.activate();
         ReflectionTestUtils.setField(active, "id", 1L);
 
-        StepCandidateRepository.ConflictCandidateView conflict = new StepCandidateRepository.ConflictCandidateView() {
-            public String getFlowTitle() { return "隴鯉ｽ｢陝・･繝ｵ郢晢ｽｭ郢晢ｽｼ"; }
-            public String getParticipantName() { return "B"; }
-            public LocalDateTime getStartAt() { return LocalDateTime.of(2026, 2, 23, 10, 0); }
-            public LocalDateTime getEndAt() { return LocalDateTime.of(2026, 2, 23, 11, 0); }
-        };
-
         when(flowRepo.findById(30L)).thenReturn(Optional.of(flow));
         when(stepRepo.findByFlowIdAndStepOrder(30L, 1)).thenReturn(active);
-        when(candidateRepo.findFirstTimeConflictForOwner(eq(77L), any(), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(Optional.of(conflict));
+        when(stepRepo.findBookingConflicts(eq(77L), eq(-1L), eq(false), eq(-1L), eq(1L), any(), eq(0),
+                any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(
+                        bookingConflict("OWNER_CANDIDATE", LocalDateTime.of(2026, 2, 23, 10, 0)),
+                        bookingConflict("OWNER_CONFIRMED", LocalDateTime.of(2026, 2, 23, 11, 0))));
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
                 () -> flowService.addCandidateToActiveStep(30L, LocalDateTime.of(2026, 2, 23, 10, 30)));
 
-        assertTrue(ex.getMessage() != null);
+        // Every conflict found by the single statement is reported, not only the first.
+        assertTrue(ex.getMessage().contains("候補時間が重複しています: フロー=other, 参加者=B, 既存=2026-02-23T10:00"));
+        assertTrue(ex.getMessage().contains(" / 確定済み時間が重複しています: "));
         verify(candidateRepo, never()).save(any(StepCandidate.class));
     }
 
+    @Test
+    void addCandidateToActiveStep_shouldTreatOwnerlessFlowsAsTheSameOwner() {
+        Flow flow = new Flow("flow", 60, LocalDateTime.of(2026, 2, 21, 9, 0), null);
+        FlowStep active = new FlowStep(34L, 1, "A");
+        active.activate();
+        ReflectionTestUtils.setField(active, "id", 1L);
+
+        when(flowRepo.findById(34L)).thenReturn(Optional.of(flow));
+        when(stepRepo.findByFlowIdAndStepOrder(34L, 1)).thenReturn(active);
+        when(stepRepo.findBookingConflicts(eq(-1L), eq(-1L), eq(true), eq(-1L), eq(1L), any(), eq(0),
+                any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(bookingConflict("OWNER_CONFIRMED", LocalDateTime.of(2026, 2, 23, 10, 0))));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> flowService.addCandidateToActiveStep(34L, LocalDateTime.of(2026, 2, 23, 10, 30)));
+
+        assertTrue(ex.getMessage().startsWith("確定済み時間が重複しています: "));
+    }
+
     @Test
     void addCandidateToActiveStep_shouldAllowWhenBoundaryTouches() {
         Flow flow = new Flow("flow", 60, LocalDateTime.of(2026, 2, 21, 9, 0), 77L);
@@ -138,21 +227,14 @@ class FlowServiceTest {
 
         when(flowRepo.findById(31L)).thenReturn(Optional.of(flow));
         when(stepRepo.findByFlowIdAndStepOrder(31L, 1)).thenReturn(active);
-        when(candidateRepo.findFirstTimeConflictForOwner(eq(77L), any(), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(Optional.empty());
-        when(stepRepo.findFirstConfirmedConflictForOwner(eq(77L), any(), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(Optional.empty());
+        when(stepRepo.findBookingConflicts(eq(77L), eq(-1L), eq(false), eq(-1L), eq(1L), any(), eq(0),
+                any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
         when(candidateRepo.save(any(StepCandidate.class))).thenAnswer(invocation -> {
             StepCandidate saved = invocation.getArgument(0);
             ReflectionTestUtils.setField(saved, "id", 501L);
             return saved;
         });
-        when(candidateRepo.findById(501L)).thenAnswer(invocation -> {
-            Long id = invocation.getArgument(0);
-            StepCandidate c = new StepCandidate(1L, LocalDateTime.of(2026, 2, 23, 11, 0), LocalDateTime.of(2026, 2, 23, 12, 0));
-            ReflectionTestUtils.setField(c, "id", id);
-            return Optional.of(c);
-        });
         when(candidateRepo.findByFlowStepIdOrderByStartAtAsc(1L)).thenAnswer(invocation -> {
             StepCandidate c = new StepCandidate(1L, LocalDateTime.of(2026, 2, 23, 11, 0), LocalDateTime.of(2026, 2, 23, 12, 0));
             ReflectionTestUtils.setField(c, "id", 501L);
@@ -164,6 +246,8 @@ class FlowServiceTest {
         flowService.addCandidateToActiveStep(31L, LocalDateTime.of(2026, 2, 23, 11, 0));
 
         verify(candidateRepo, times(2)).save(any(StepCandidate.class));
+        // The new candidate is confirmed without checking the same slot a second time.
+        verify(stepRepo, times(1)).findBookingConflicts(any(), any(), anyBoolean(), any(), any(), any(), anyInt(), any(), any());
     }
 
     @Test
@@ -175,21 +259,14 @@ class FlowServiceTest {
 
         when(flowRepo.findById(32L)).thenReturn(Optional.of(flow));
         when(stepRepo.findByFlowIdAndStepOrder(32L, 1)).thenReturn(active);
-        when(candidateRepo.findFirstTimeConflictForOwner(eq(88L), any(), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(Optional.empty());
-        when(stepRepo.findFirstConfirmedConflictForOwner(eq(88L), any(), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(Optional.empty());
+        when(stepRepo.findBookingConflicts(eq(88L), eq(-1L), eq(false), eq(-1L), eq(1L), any(), eq(0),
+                any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
         when(candidateRepo.save(any(StepCandidate.class))).thenAnswer(invocation -> {
             StepCandidate saved = invocation.getArgument(0);
             ReflectionTestUtils.setField(saved, "id", 502L);
             return saved;
         });
-        when(candidateRepo.findById(502L)).thenAnswer(invocation -> {
-            Long id = invocation.getArgument(0);
-            StepCandidate c = new StepCandidate(1L, LocalDateTime.of(2026, 2, 23, 10, 0), LocalDateTime.of(2026, 2, 23, 11, 0));
-            ReflectionTestUtils.setField(c, "id", id);
-            return Optional.of(c);
-        });
         when(candidateRepo.findByFlowStepIdOrderByStartAtAsc(1L)).thenAnswer(invocation -> {
             StepCandidate c = new StepCandidate(1L, LocalDateTime.of(2026, 2, 23, 10, 0), LocalDateTime.of(2026, 2, 23, 11, 0));
             ReflectionTestUtils.setField(c, "id", 502L);
@@ -217,7 +294,9 @@ class FlowServiceTest {
 
         when(flowRepo.findById(40L)).thenReturn(Optional.of(flow));
         when(stepRepo.findByFlowIdAndStepOrder(40L, 2)).thenReturn(active);
-        when(stepRepo.findByFlowIdAndStepOrder(40L, 1)).thenReturn(previous);
+        when(stepRepo.findBookingConflicts(eq(1L), eq(-1L), eq(false), eq(-1L), eq(2L), any(), eq(1),
+                any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(bookingConflict("PREVIOUS_STEP", previous.getConfirmedStartAt())));
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
                 () -> flowService.addCandidateToActiveStep(40L, LocalDateTime.of(2026, 2, 23, 10, 30)));
@@ -226,6 +305,72 @@ class FlowServiceTest {
         verify(candidateRepo, never()).save(any(StepCandidate.class));
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    void proposeCandidatesForActiveStep_shouldReportEachSlotAndSaveAcceptedOnesWithOneRangeQuery() {
+        Flow flow = new Flow("flow", 60, LocalDateTime.of(2026, 2, 21, 9, 0), 77L);
+        FlowStep active = new FlowStep(33L, 1, 5L, "A");
+        active.activate();
+        ReflectionTestUtils.setField(active, "id", 1L);
+
+        when(flowRepo.findById(33L)).thenReturn(Optional.of(flow));
+        when(stepRepo.findByFlowIdAndStepOrder(33L, 1)).thenReturn(active);
+        when(stepRepo.findBlockingIntervalsForOwnersOrParticipantsInWindow(
+                List.of(77L), List.of(5L), LocalDateTime.of(2026, 2, 23, 10, 0), LocalDateTime.of(2026, 2, 23, 14, 0)))
+                .thenReturn(List.of(
+                        blockingInterval(999L, 77L, 90L, 6L, "CONFIRMED", LocalDateTime.of(2026, 2, 23, 10, 0), LocalDateTime.of(2026, 2, 23, 11, 0)),
+                        blockingInterval(999L, 50L, 91L, 5L, "SELECTED", LocalDateTime.of(2026, 2, 23, 13, 0), LocalDateTime.of(2026, 2, 23, 14, 0))));
+
+        List<FlowService.CandidateProposal> results = flowService.proposeCandidatesForActiveStep(33L, List.of(
+                LocalDateTime.of(2026, 2, 23, 10, 0),
+                LocalDateTime.of(2026, 2, 23, 11, 0),
+                LocalDateTime.of(2026, 2, 23, 11, 30),
+                LocalDateTime.of(2026, 2, 23, 12, 15),
+                LocalDateTime.of(2026, 2, 23, 13, 0)));
+
+        assertEquals(List.of(false, true, false, false, false),
+                results.stream().map(FlowService.CandidateProposal::isAccepted).collect(Collectors.toList()));
+        assertTrue(results.get(0).getReason().startsWith("確定済み時間が重複しています"));
+        assertTrue(results.get(2).getReason().startsWith("同じ依頼内の候補と重複しています"));
+        assertTrue(results.get(4).getReason().startsWith("参加者の候補時間が重複しています"));
+        ArgumentCaptor<List<StepCandidate>> saved = ArgumentCaptor.forClass(List.class);
+        verify(candidateRepo).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals("PROPOSED", saved.getValue().get(0).getStatus());
+        verify(candidateRepo, never()).save(any(StepCandidate.class));
+        assertEquals("ACTIVE", active.getStatus());
+    }
+
+    @Test
+    void proposeCandidatesForActiveStep_shouldTreatOwnerlessFlowsAsTheSameOwner() {
+        Flow flow = new Flow("flow", 60, LocalDateTime.of(2026, 2, 21, 9, 0), null);
+        FlowStep active = new FlowStep(33L, 1, 5L, "A");
+        active.activate();
+        ReflectionTestUtils.setField(active, "id", 1L);
+
+        when(flowRepo.findById(33L)).thenReturn(Optional.of(flow));
+        when(stepRepo.findByFlowIdAndStepOrder(33L, 1)).thenReturn(active);
+        when(stepRepo.findBlockingIntervalsForOwnersOrParticipantsInWindow(
+                List.of(-1L), List.of(5L), LocalDateTime.of(2026, 2, 23, 10, 0), LocalDateTime.of(2026, 2, 23, 11, 0)))
+                .thenReturn(List.of(
+                        blockingInterval(999L, null, 90L, 6L, "CONFIRMED", LocalDateTime.of(2026, 2, 23, 10, 0), LocalDateTime.of(2026, 2, 23, 11, 0))));
+
+        List<FlowService.CandidateProposal> results = flowService.proposeCandidatesForActiveStep(
+                33L, List.of(LocalDateTime.of(2026, 2, 23, 10, 0)));
+
+        assertFalse(results.get(0).isAccepted());
+    }
+
+    private FlowStepRepository.BookingConflictView bookingConflict(String conflictType, LocalDateTime startAt) {
+        return new FlowStepRepository.BookingConflictView() {
+            public String getConflictType() { return conflictType; }
+            public String getFlowTitle() { return "other"; }
+            public String getParticipantName() { return "B"; }
+            public LocalDateTime getStartAt() { return startAt; }
+            public LocalDateTime getEndAt() { return startAt.plusHours(1); }
+        };
+    }
+
     @Test
     void selectCandidateForActiveStep_shouldConfirmAndAdvanceToNextStep() {
         Flow flow = new Flow("flow", 60, LocalDateTime.of(2026, 2, 21, 9, 0), 1L);
@@ -234,6 +379,7 @@ class FlowServiceTest {
         ReflectionTestUtils.setField(active, "id", 1L);
 
         FlowStep next = new FlowStep(20L, 2, "B");
+        ReflectionTestUtils.setField(next, "id", 2L);
 
         StepCandidate candidate = new StepCandidate(1L, LocalDateTime.of(2026, 2, 22, 10, 0), LocalDateTime.of(2026, 2, 22, 11, 0));
         ReflectionTestUtils.setField(candidate, "id", 99L);
@@ -260,6 +406,32 @@ class FlowServiceTest {
         verify(flowRepo).save(flow);
     }
 
+    @Test
+    void selectCandidateForActiveStep_shouldRejectConflictsFoundByTheSingleBookingQuery() {
+        Flow flow = new Flow("flow", 60, LocalDateTime.of(2026, 2, 21, 9, 0), 1L);
+        FlowStep active = new FlowStep(22L, 1, 5L, "A");
+        active.activate();
+        ReflectionTestUtils.setField(active, "id", 1L);
+
+        StepCandidate candidate = new StepCandidate(1L, LocalDateTime.of(2026, 2, 22, 10, 0), LocalDateTime.of(2026, 2, 22, 11, 0));
+        ReflectionTestUtils.setField(candidate, "id", 99L);
+
+        when(flowRepo.findById(22L)).thenReturn(Optional.of(flow));
+        when(stepRepo.findByFlowIdAndStepOrder(22L, 1)).thenReturn(active);
+        when(candidateRepo.findById(99L)).thenReturn(Optional.of(candidate));
+        // Only the participant is checked: the owner branches get -1 and the previous-step order 0.
+        when(stepRepo.findBookingConflicts(eq(-1L), eq(-1L), eq(false), eq(5L), eq(1L), any(), eq(0),
+                eq(candidate.getStartAt()), eq(candidate.getEndAt())))
+                .thenReturn(List.of(bookingConflict("PARTICIPANT_CONFIRMED", LocalDateTime.of(2026, 2, 22, 10, 30))));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> flowService.selectCandidateForActiveStep(22L, 99L));
+
+        assertTrue(ex.getMessage().startsWith("参加者の確定済み時間が重複しています: "));
+        assertEquals("PROPOSED", candidate.getStatus());
+        verify(candidateRepo, never()).save(any(StepCandidate.class));
+    }
+
     @Test
     void selectCandidateForActiveStep_shouldAppendNewStepWhenLastStepIsSelected() {
         Flow flow = new Flow("flow", 60, LocalDateTime.of(2026, 2, 21, 9, 0), 1L);
@@ -298,19 +470,15 @@ class FlowServiceTest {
         Flow flow = new Flow("flow", 60, LocalDateTime.of(2026, 2, 21, 9, 0), 1L);
         ReflectionTestUtils.setField(flow, "id", 20L);
 
-        FlowStep confirmed = new FlowStep(20L, 1, "A");
-        confirmed.confirm(LocalDateTime.of(2026, 2, 23, 10, 0), LocalDateTime.of(2026, 2, 23, 11, 0));
-
-        FlowStep active = new FlowStep(20L, 2, "B");
-        active.activate();
-        ReflectionTestUtils.setField(active, "id", 200L);
-
-        StepCandidate proposed = new StepCandidate(200L,
-                LocalDateTime.of(2026, 2, 24, 9, 0),
-                LocalDateTime.of(2026, 2, 24, 10, 0));
-
-        when(stepRepo.findByFlowIdOrderByStepOrder(20L)).thenReturn(List.of(confirmed, active));
-        when(candidateRepo.findByFlowStepIdOrderByStartAtAsc(200L)).thenReturn(List.of(proposed));
+        when(stepRepo.findCalendarEventsByFlowIdsInWindow(
+                Set.of(20L),
+                LocalDateTime.of(2026, 2, 23, 0, 0),
+                LocalDateTime.of(2026, 3, 2, 0, 0)))
+                .thenReturn(List.of(
+                        calendarEvent(20L, "flow", "A", "CONFIRMED",
+                                LocalDateTime.of(2026, 2, 23, 10, 0), LocalDateTime.of(2026, 2, 23, 11, 0)),
+                        calendarEvent(20L, "flow", "B", "PROPOSED",
+                                LocalDateTime.of(2026, 2, 24, 9, 0), LocalDateTime.of(2026, 2, 24, 10, 0))));
 
         FlowService.WeeklyCalendarView view = flowService.buildWeeklyCalendarView(
                 List.of(flow),
@@ -339,16 +507,12 @@ class FlowServiceTest {
         Flow flow = new Flow("flow", 60, LocalDateTime.of(2026, 2, 21, 9, 0), 1L);
         ReflectionTestUtils.setField(flow, "id", 33L);
 
-        FlowStep active = new FlowStep(33L, 1, "A");
-        active.activate();
-        ReflectionTestUtils.setField(active, "id", 301L);
-
-        StepCandidate proposed = new StepCandidate(301L,
-                LocalDateTime.of(2026, 3, 3, 12, 0),
-                LocalDateTime.of(2026, 3, 3, 13, 0));
-
-        when(stepRepo.findByFlowIdOrderByStepOrder(33L)).thenReturn(List.of(active));
-        when(candidateRepo.findByFlowStepIdOrderByStartAtAsc(301L)).thenReturn(List.of(proposed));
+        when(stepRepo.findCalendarEventsByFlowIdsInWindow(
+                Set.of(33L),
+                LocalDateTime.of(2026, 3, 1, 0, 0),
+                LocalDateTime.of(2026, 4, 5, 0, 0)))
+                .thenReturn(List.of(calendarEvent(33L, "flow", "A", "PROPOSED",
+                        LocalDateTime.of(2026, 3, 3, 12, 0), LocalDateTime.of(2026, 3, 3, 13, 0))));
 
         FlowService.MonthlyCalendarView view = flowService.buildMonthlyCalendarView(List.of(flow), LocalDate.of(2026, 3, 10));
 
@@ -380,8 +544,7 @@ class FlowServiceTest {
             }
             return f;
         });
-        when(participantRepo.findById(11L)).thenReturn(Optional.of(p1));
-        when(participantRepo.findById(12L)).thenReturn(Optional.of(p2));
+        when(participantRepo.findAllById(Set.of(11L, 12L))).thenReturn(List.of(p1, p2));
 
         List<FlowService.StepCreationSpec> specs = List.of(
                 new FlowService.StepCreationSpec(11L, LocalDate.of(2026, 10, 1), LocalDate.of(2026, 10, 31), 62, 660, 1080),
@@ -465,4 +628,125 @@ class FlowServiceTest {
         assertEquals(1080, step.getAllowedEndMinute());
         verify(stepRepo).save(step);
     }
+
+    @Test
+    void buildWeeklyCalendarView_byListFilter_shouldQueryOnlyTheVisibleWeek() {
+        when(stepRepo.findCalendarEventsByFlowFilterInWindow(
+                "IN_PROGRESS",
+                "%flow%",
+                LocalDateTime.of(2026, 2, 23, 0, 0),
+                LocalDateTime.of(2026, 3, 2, 0, 0)))
+                .thenReturn(List.of(calendarEvent(20L, "flow", "A", "SELECTED",
+                        LocalDateTime.of(2026, 3, 1, 9, 0), LocalDateTime.of(2026, 3, 1, 10, 0))));
+
+        FlowService.WeeklyCalendarView view = flowService.buildWeeklyCalendarView(
+                "IN_PROGRESS", "Flow", LocalDate.of(2026, 2, 25));
+
+        assertEquals(1, view.getDays().get(6).getEvents().size());
+        assertEquals("#20 flow / A", view.getDays().get(6).getEvents().get(0).getTitle());
+        verify(flowRepo, never()).findAll();
+    }
+
+    @Test
+    void buildWeeklyCalendarViewForFlowParticipants_shouldQueryParticipantsWithinTheWeek() {
+        when(stepRepo.findDistinctParticipantIdsByFlowId(20L)).thenReturn(List.of(11L, 12L));
+        when(stepRepo.findCalendarEventsByParticipantIdsInWindow(
+                Set.of(11L, 12L),
+                LocalDateTime.of(2026, 2, 23, 0, 0),
+                LocalDateTime.of(2026, 3, 2, 0, 0)))
+                .thenReturn(List.of(calendarEvent(99L, "other", "A", "CONFIRMED",
+                        LocalDateTime.of(2026, 2, 23, 10, 0), LocalDateTime.of(2026, 2, 23, 11, 0))));
+
+        FlowService.WeeklyCalendarView view = flowService.buildWeeklyCalendarViewForFlowParticipants(
+                20L, LocalDate.of(2026, 2, 23));
+
+        assertEquals(1, view.getDays().get(0).getEvents().size());
+        assertEquals("/flows/99", view.getDays().get(0).getEvents().get(0).getDetailUrl());
+        verify(flowRepo, never()).findAll();
+    }
+
+    @Test
+    void findAvailableSlotsForActiveStep_shouldSkipBusyTimeAndHonourStepConstraints() {
+        Flow flow = new Flow("slots", 60, LocalDateTime.of(2026, 2, 21, 9, 0), 1L);
+        ReflectionTestUtils.setField(flow, "id", 80L);
+        flow.moveToStep(2);
+        FlowStep previous = new FlowStep(80L, 1, 11L, "A");
+        previous.confirm(LocalDateTime.of(2026, 3, 2, 9, 0), LocalDateTime.of(2026, 3, 2, 10, 0));
+        FlowStep active = new FlowStep(80L, 2, 12L, "B");
+        ReflectionTestUtils.setField(active, "id", 91L);
+        active.activate();
+        // Monday and Tuesday, 10:00-12:00.
+        active.updateReservableConstraints(null, null, 0b0000110, 600, 720);
+
+        when(flowRepo.findById(80L)).thenReturn(Optional.of(flow));
+        when(stepRepo.findByFlowIdAndStepOrder(80L, 2)).thenReturn(active);
+        when(stepRepo.findByFlowIdAndStepOrder(80L, 1)).thenReturn(previous);
+        when(stepRepo.findBlockingIntervalsForOwnerOrParticipantInWindow(
+                eq(1L), eq(12L), eq(LocalDateTime.of(2026, 3, 2, 10, 30)), eq(LocalDateTime.of(2026, 5, 22, 0, 0))))
+                .thenReturn(List.of(
+                        blockingInterval(1077L, 99L, 77L, 12L, "CONFIRMED", LocalDateTime.of(2026, 3, 2, 10, 30), LocalDateTime.of(2026, 3, 2, 11, 30)),
+                        blockingInterval(1055L, 1L, 55L, 13L, "PROPOSED", LocalDateTime.of(2026, 3, 3, 10, 0), LocalDateTime.of(2026, 3, 3, 11, 0)),
+                        // Candidates of the active step itself do not block the participant.
+                        blockingInterval(1091L, 99L, 91L, 12L, "SELECTED", LocalDateTime.of(2026, 3, 3, 11, 0), LocalDateTime.of(2026, 3, 3, 12, 0))));
+
+        List<FlowService.AvailableSlot> slots = flowService.findAvailableSlotsForActiveStep(80L, null, 3);
+
+        assertEquals(
+                List.of(
+                        LocalDateTime.of(2026, 3, 3, 11, 0),
+                        LocalDateTime.of(2026, 3, 9, 10, 0),
+                        LocalDateTime.of(2026, 3, 9, 10, 30)),
+                slots.stream().map(FlowService.AvailableSlot::getStartAt).toList());
+        assertEquals(LocalDateTime.of(2026, 3, 3, 12, 0), slots.get(0).getEndAt());
+    }
+
+    @Test
+    void loadFlowAggregate_shouldLoadStepsParticipantsAndActiveCandidatesInBatch() {
+        Flow flow = new Flow("aggregate", 60, LocalDateTime.of(2026, 2, 21, 9, 0), 1L);
+        ReflectionTestUtils.setField(flow, "id", 80L);
+        flow.moveToStep(2);
+        FlowStep confirmed = new FlowStep(80L, 1, 11L, "old A");
+        confirmed.confirm(LocalDateTime.of(2026, 3, 2, 9, 0), LocalDateTime.of(2026, 3, 2, 10, 0));
+        FlowStep active = new FlowStep(80L, 2, 12L, "old B");
+        ReflectionTestUtils.setField(active, "id", 91L);
+        active.activate();
+        Participant alice = new Participant("USER", 101L, "Alice");
+        ReflectionTestUtils.setField(alice, "id", 11L);
+        Participant bob = new Participant("USER", 102L, "Bob");
+        ReflectionTestUtils.setField(bob, "id", 12L);
+        StepCandidate candidate = new StepCandidate(91L, LocalDateTime.of(2026, 3, 3, 10, 0), LocalDateTime.of(2026, 3, 3, 11, 0));
+
+        when(flowRepo.findById(80L)).thenReturn(Optional.of(flow));
+        when(stepRepo.findByFlowIdOrderByStepOrder(80L)).thenReturn(List.of(confirmed, active));
+        when(participantRepo.findAllById(Set.of(11L, 12L))).thenReturn(List.of(alice, bob));
+        when(candidateRepo.findByFlowStepIdOrderByStartAtAsc(91L)).thenReturn(List.of(candidate));
+
+        FlowAggregate aggregate = flowService.loadFlowAggregate(80L);
+
+        assertEquals(List.of("Alice", "Bob"), aggregate.getSteps().stream().map(FlowStep::getParticipantName).toList());
+        assertEquals(active, aggregate.getActiveStep().orElseThrow());
+        assertEquals(List.of(candidate), aggregate.getActiveStepCandidates());
+        assertEquals(List.of(11L, 12L), List.copyOf(aggregate.getParticipantIds()));
+        assertTrue(aggregate.isOwnedBy(1L));
+        assertTrue(aggregate.isActiveStepAssignedTo(102L));
+        assertTrue(!aggregate.isActiveStepAssignedTo(101L));
+        verify(stepRepo, never()).findByFlowIdAndStepOrder(any(), any(Integer.class));
+    }
+
+    private FlowStepRepository.CalendarEventView calendarEvent(
+            Long flowId,
+            String flowTitle,
+            String participantName,
+            String status,
+            LocalDateTime startAt,
+            LocalDateTime endAt) {
+        return new FlowStepRepository.CalendarEventView() {
+            public Long getFlowId() { return flowId; }
+            public String getFlowTitle() { return flowTitle; }
+            public String getParticipantName() { return participantName; }
+            public String getStatus() { return status; }
+            public LocalDateTime getStartAt() { return startAt; }
+            public LocalDateTime getEndAt() { return endAt; }
+        };
+    }
 }
@@ -0,0 +1,105 @@
+package com.example.backend_spring.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static com.example.backend_spring.support.BlockingIntervals.blockingInterval;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.backend_spring.repository.FlowStepRepository;
+
+@ExtendWith(MockitoExtension.class)
+class FreeBusyServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    @Mock
+    private FlowStepRepository stepRepo;
+
+    private ScheduleConflictIndex index;
+    private FreeBusyService freeBusyService;
+
+    @BeforeEach
+    void setUp() {
+        Clock fixedClock = Clock.fixed(Instant.parse("2026-02-20T00:00:00Z"), ZoneId.systemDefault());
+        index = new ScheduleConflictIndex(stepRepo, fixedClock, true);
+        freeBusyService = new FreeBusyService(index, stepRepo);
+    }
+
+    @Test
+    void isAvailable_shouldBeFalseUntilTheIndexIsWarm() {
+        assertFalse(freeBusyService.isAvailable());
+        index.warmUp();
+        assertTrue(freeBusyService.isAvailable());
+    }
+
+    @Test
+    void busyBits_shouldFollowIndexedIntervalsAndClearOnReload() {
+        when(stepRepo.findBlockingIntervalsEndingAfter(any())).thenReturn(List.of(
+                blockingInterval(1L, 100L, 10L, 11L, "CONFIRMED", at(10, 0), at(11, 0)),
+                blockingInterval(2L, 100L, 20L, 12L, "CONFIRMED", at(10, 30), at(12, 0))));
+        when(stepRepo.findBlockingIntervalsByFlowId(2L)).thenReturn(List.of());
+        index.warmUp();
+
+        assertEquals(SlotOccupancy.slotMask(20, 22), index.getParticipantBusyBits(11L, DAY));
+        assertEquals(SlotOccupancy.slotMask(21, 24), index.getParticipantBusyBits(12L, DAY));
+
+        index.reloadFlowAfterCommit(2L);
+
+        assertEquals(SlotOccupancy.slotMask(20, 22), index.getParticipantBusyBits(11L, DAY));
+        assertEquals(0L, index.getParticipantBusyBits(12L, DAY));
+    }
+
+    @Test
+    void busyBitmaps_shouldPackSixBytesPerDayPerParticipant() {
+        when(stepRepo.findBlockingIntervalsEndingAfter(any())).thenReturn(List.of(
+                blockingInterval(1L, 100L, 10L, 11L, "CONFIRMED", at(10, 0), at(11, 0)),
+                blockingInterval(1L, 100L, 11L, 11L, "CONFIRMED", DAY.plusDays(1).atTime(0, 0), DAY.plusDays(1).atTime(0, 30))));
+        index.warmUp();
+
+        FreeBusyService.BusyBitmaps bitmaps = freeBusyService.getBusyBitmaps(List.of(11L, 12L), DAY, DAY.plusDays(1));
+
+        byte[] busy11 = Base64.getUrlDecoder().decode(bitmaps.getBusy().get(11L));
+        assertEquals(2 * FreeBusyService.BYTES_PER_DAY, busy11.length);
+        // 10:00-11:00 is slots 20 and 21: bits 4 and 5 of byte 2.
+        assertArrayEquals(new byte[] {0, 0, 0x30, 0, 0, 0, 1, 0, 0, 0, 0, 0}, busy11);
+        assertEquals(16, bitmaps.getBusy().get(12L).length());
+        assertArrayEquals(new byte[12], Base64.getUrlDecoder().decode(bitmaps.getBusy().get(12L)));
+    }
+
+    @Test
+    void busyBitmaps_shouldBeBuiltFromTheDatabaseWhenTheIndexIsOff() {
+        FreeBusyService fromDatabase = new FreeBusyService(ScheduleConflictIndex.disabled(), stepRepo);
+        when(stepRepo.findBlockingIntervalsForParticipantsInWindow(
+                List.of(11L), DAY.atStartOfDay(), DAY.plusDays(2).atStartOfDay())).thenReturn(List.of(
+                        // Starts before the window: only the part inside it is reported.
+                        blockingInterval(1L, 100L, 10L, 11L, "CONFIRMED", DAY.minusDays(1).atTime(23, 0), DAY.atTime(0, 30)),
+                        blockingInterval(1L, 100L, 11L, 11L, "CONFIRMED", DAY.plusDays(1).atTime(10, 0), DAY.plusDays(1).atTime(11, 0))));
+
+        FreeBusyService.BusyBitmaps bitmaps = fromDatabase.getBusyBitmaps(List.of(11L), DAY, DAY.plusDays(1));
+
+        assertArrayEquals(
+                new byte[] {1, 0, 0, 0, 0, 0, 0, 0, 0x30, 0, 0, 0},
+                Base64.getUrlDecoder().decode(bitmaps.getBusy().get(11L)));
+    }
+
+    private LocalDateTime at(int hour, int minute) {
+        return DAY.atTime(hour, minute);
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.backend_spring.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static com.example.backend_spring.support.BlockingIntervals.blockingInterval;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend_spring.domain.Flow;
+import com.example.backend_spring.domain.FlowStep;
+import com.example.backend_spring.domain.Participant;
+import com.example.backend_spring.repository.FlowRepository;
+import com.example.backend_spring.repository.FlowStepRepository;
+import com.example.backend_spring.repository.ParticipantRepository;
+import com.example.backend_spring.repository.StepCandidateRepository;
+
+@ExtendWith(MockitoExtension.class)
+class InterviewDayPlannerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 2, 21);
+
+    @Mock
+    private FlowRepository flowRepo;
+
+    @Mock
+    private FlowStepRepository stepRepo;
+
+    @Mock
+    private StepCandidateRepository candidateRepo;
+
+    @Mock
+    private ParticipantRepository participantRepo;
+
+    private InterviewDayPlanner planner;
+    private final List<Flow> flows = new ArrayList<>();
+    private final List<FlowStep> steps = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Clock fixedClock = Clock.fixed(Instant.parse("2026-02-20T00:00:00Z"), ZoneId.systemDefault());
+        FlowService flowService = new FlowService(flowRepo, stepRepo, candidateRepo, participantRepo, fixedClock);
+        planner = new InterviewDayPlanner(
+                flowRepo, stepRepo, candidateRepo, participantRepo, flowService,
+                ScheduleConflictIndex.disabled(), SlotReservationService.disabled(), BookingLockService.disabled());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void plan_shouldSpreadFlowsOverInterviewersAroundOwnerAndInterviewerBusyTime() {
+        addFlow(1L, 1L, 540, 720);
+        addFlow(2L, 1L, 540, 720);
+        addFlow(3L, 2L, 540, 720);
+        stubLoads(List.of(interviewer(10L), interviewer(11L)), List.of(
+                busy(5L, 99L, 10L, DAY.atTime(9, 0), DAY.atTime(10, 0))));
+        when(candidateRepo.findByFlowStepIdIn(anyCollection())).thenReturn(List.of());
+
+        InterviewDayPlanner.Plan plan = planner.plan(List.of(1L, 2L, 3L), List.of(10L, 11L), null, false);
+
+        assertTrue(plan.isApplied());
+        assertTrue(plan.getUnplanned().isEmpty());
+        Map<Long, InterviewDayPlanner.Assignment> byFlow = new HashMap<>();
+        plan.getAssignments().forEach(a -> byFlow.put(a.getFlowId(), a));
+        // Interviewer 10 is busy 9:00-10:00, so flow 1 goes to 11.
+        assertAssigned(byFlow.get(1L), 11L, DAY.atTime(9, 0));
+        // Flow 2 shares flow 1's owner; at 10:00 both interviewers are free and 10 has the lighter load.
+        assertAssigned(byFlow.get(2L), 10L, DAY.atTime(10, 0));
+        assertAssigned(byFlow.get(3L), 11L, DAY.atTime(10, 0));
+
+        ArgumentCaptor<List<FlowStep>> savedSteps = ArgumentCaptor.forClass(List.class);
+        verify(stepRepo).saveAll(savedSteps.capture());
+        FlowStep confirmed = savedSteps.getValue().get(0);
+        assertEquals("CONFIRMED", confirmed.getStatus());
+        assertEquals(11L, confirmed.getParticipantId());
+        assertEquals("ACTIVE", savedSteps.getValue().get(1).getStatus());
+        assertEquals(2, flows.get(0).getCurrentStepOrder());
+        verify(flowRepo).saveAll(anyList());
+    }
+
+    @Test
+    void plan_dryRunShouldOnlyReportThePlan() {
+        addFlow(1L, 1L, 540, 600);
+        addFlow(2L, 1L, 540, 600);
+        stubLoads(List.of(interviewer(10L)), List.of());
+
+        InterviewDayPlanner.Plan plan = planner.plan(List.of(1L, 2L, 404L), List.of(10L), null, true);
+
+        assertFalse(plan.isApplied());
+        assertEquals(2, plan.getAssignments().size());
+        // The 9:00-10:00 window holds one meeting per day, so the second flow moves to the next day.
+        assertEquals(DAY.atTime(9, 0), plan.getAssignments().get(0).getStartAt());
+        assertEquals(DAY.plusDays(1).atTime(9, 0), plan.getAssignments().get(1).getStartAt());
+        assertEquals(List.of(404L), plan.getUnplanned().stream().map(InterviewDayPlanner.Unplanned::getFlowId).toList());
+        verify(stepRepo, never()).saveAll(any());
+        verify(flowRepo, never()).saveAll(any());
+        assertEquals(1, flows.get(0).getCurrentStepOrder());
+    }
+
+    @Test
+    void plan_shouldAssignThousandsOfFlowsWithoutDoubleBookingAnInterviewer() {
+        List<Long> flowIds = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            addFlow(id, 1000L + id, 540, 1080);
+            flowIds.add(id);
+        }
+        List<Participant> interviewers = new ArrayList<>();
+        List<Long> interviewerIds = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            interviewers.add(interviewer(id));
+            interviewerIds.add(id);
+        }
+        stubLoads(interviewers, List.of());
+
+        InterviewDayPlanner.Plan plan = planner.plan(flowIds, interviewerIds, null, true);
+
+        assertEquals(2000, plan.getAssignments().size());
+        Map<String, Long> slots = new HashMap<>();
+        for (InterviewDayPlanner.Assignment assignment : plan.getAssignments()) {
+            Long previous = slots.put(assignment.getParticipantId() + "@" + assignment.getStartAt(), assignment.getFlowId());
+            assertEquals(null, previous, "double booking at " + assignment.getStartAt());
+        }
+    }
+
+    @Test
+    void plan_shouldKeepProposedCandidatesOfUnplannedFlowsBlocking() {
+        // Flow 1's window is shorter than its meeting, so it stays unplanned and keeps its candidate.
+        addFlow(1L, 1L, 540, 570);
+        addFlow(2L, 2L, 540, 600);
+        stubLoads(List.of(interviewer(10L)), List.of(
+                blockingInterval(999L, 1L, 10L, 10L, "PROPOSED", DAY.atTime(9, 0), DAY.atTime(10, 0))));
+
+        InterviewDayPlanner.Plan plan = planner.plan(List.of(1L, 2L), List.of(10L), null, true);
+
+        assertEquals(List.of(1L), plan.getUnplanned().stream().map(InterviewDayPlanner.Unplanned::getFlowId).toList());
+        assertEquals(1, plan.getAssignments().size());
+        assertAssigned(plan.getAssignments().get(0), 10L, DAY.plusDays(1).atTime(9, 0));
+    }
+
+    @Test
+    void plan_shouldLetAFlowReplaceItsOwnProposedCandidates() {
+        addFlow(1L, 1L, 540, 600);
+        stubLoads(List.of(interviewer(10L)), List.of(
+                blockingInterval(999L, 1L, 10L, 10L, "PROPOSED", DAY.atTime(9, 0), DAY.atTime(10, 0))));
+
+        InterviewDayPlanner.Plan plan = planner.plan(List.of(1L), List.of(10L), null, true);
+
+        assertAssigned(plan.getAssignments().get(0), 10L, DAY.atTime(9, 0));
+    }
+
+    private void assertAssigned(InterviewDayPlanner.Assignment assignment, Long participantId, LocalDateTime startAt) {
+        assertEquals(participantId, assignment.getParticipantId());
+        assertEquals(startAt, assignment.getStartAt());
+        assertEquals(startAt.plusMinutes(60), assignment.getEndAt());
+    }
+
+    private void addFlow(Long id, Long ownerUserId, int startMinute, int endMinute) {
+        Flow flow = new Flow("flow " + id, 60, DAY.atStartOfDay(), ownerUserId);
+        ReflectionTestUtils.setField(flow, "id", id);
+        flows.add(flow);
+        FlowStep first = new FlowStep(id, 1, 500L, "placeholder");
+        ReflectionTestUtils.setField(first, "id", id * 10);
+        first.updateReservableConstraints(null, null, 127, startMinute, endMinute);
+        first.activate();
+        FlowStep second = new FlowStep(id, 2, 500L, "placeholder");
+        ReflectionTestUtils.setField(second, "id", id * 10 + 1);
+        steps.add(first);
+        steps.add(second);
+    }
+
+    private void stubLoads(List<Participant> interviewers, List<FlowStepRepository.BlockingIntervalView> busy) {
+        when(participantRepo.findAllById(anyCollection())).thenReturn(interviewers);
+        when(flowRepo.findAllById(anyCollection())).thenReturn(flows);
+        when(stepRepo.findByFlowIdInOrderByFlowIdAscStepOrderAsc(anyCollection())).thenReturn(steps);
+        when(stepRepo.findBlockingIntervalsForOwnersOrParticipantsInWindow(anyCollection(), anyCollection(), any(), any()))
+                .thenReturn(busy);
+    }
+
+    private Participant interviewer(Long id) {
+        Participant participant = new Participant("USER", id + 100, "interviewer " + id);
+        ReflectionTestUtils.setField(participant, "id", id);
+        return participant;
+    }
+
+    private FlowStepRepository.BlockingIntervalView busy(
+            Long ownerUserId, Long stepId, Long participantId, LocalDateTime startAt, LocalDateTime endAt) {
+        return blockingInterval(999L, ownerUserId, stepId, participantId, "CONFIRMED", startAt, endAt);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.backend_spring.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend_spring.domain.Participant;
+import com.example.backend_spring.repository.ParticipantRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ParticipantNameCacheTest {
+
+    @Mock
+    private ParticipantRepository participantRepo;
+
+    @Test
+    void getDisplayName_shouldLoadOnceUntilInvalidated() {
+        ParticipantNameCache cache = new ParticipantNameCache(participantRepo, 10);
+        Participant participant = participant(11L, "Alice");
+        when(participantRepo.findById(11L)).thenReturn(Optional.of(participant));
+
+        assertEquals("Alice", cache.getDisplayName(11L));
+        assertEquals("Alice", cache.getDisplayName(11L));
+        verify(participantRepo, times(1)).findById(11L);
+
+        participant.updateDisplayName("Alice B");
+        cache.invalidate(11L);
+        assertEquals("Alice B", cache.getDisplayName(11L));
+        verify(participantRepo, times(2)).findById(11L);
+
+        ParticipantNameCache.Stats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+    }
+
+    @Test
+    void getDisplayName_shouldReturnUnknownWithoutCachingMissingParticipant() {
+        ParticipantNameCache cache = new ParticipantNameCache(participantRepo, 10);
+        when(participantRepo.findById(99L)).thenReturn(Optional.empty());
+
+        assertEquals("Unknown", cache.getDisplayName(99L));
+        assertEquals("Unknown", cache.getDisplayName(null));
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void getDisplayName_shouldReloadAfterTheTtlSoRenamesOnOtherNodesShowUp() {
+        MutableClock clock = new MutableClock(Instant.parse("2026-02-20T00:00:00Z"));
+        ParticipantNameCache cache = new ParticipantNameCache(participantRepo, 10, Duration.ofSeconds(60), clock);
+        Participant participant = participant(11L, "Alice");
+        when(participantRepo.findById(11L)).thenReturn(Optional.of(participant));
+
+        assertEquals("Alice", cache.getDisplayName(11L));
+        // Renamed elsewhere: this node gets no invalidation.
+        participant.updateDisplayName("Alice B");
+        clock.advance(Duration.ofSeconds(59));
+        assertEquals("Alice", cache.getDisplayName(11L));
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals("Alice B", cache.getDisplayName(11L));
+        verify(participantRepo, times(2)).findById(11L);
+    }
+
+    @Test
+    void getDisplayName_shouldNotStoreANameLoadedBeforeAConcurrentInvalidation() {
+        ParticipantNameCache cache = new ParticipantNameCache(participantRepo, 10);
+        when(participantRepo.findById(11L)).thenAnswer(invocation -> {
+            // The rename commits and invalidates while this load still holds the old name.
+            cache.invalidate(11L);
+            return Optional.of(participant(11L, "Alice"));
+        });
+
+        assertEquals("Alice", cache.getDisplayName(11L));
+
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void getDisplayNames_shouldBatchLoadMissesAndEvictLeastRecentlyUsed() {
+        ParticipantNameCache cache = new ParticipantNameCache(participantRepo, 2);
+        when(participantRepo.findAllById(anyCollection())).thenReturn(List.of(
+                participant(1L, "A"), participant(2L, "B"), participant(3L, "C")));
+
+        Map<Long, String> names = cache.getDisplayNames(List.of(1L, 2L, 3L, 2L));
+
+        assertEquals(Map.of(1L, "A", 2L, "B", 3L, "C"), names);
+        verify(participantRepo, times(1)).findAllById(List.of(1L, 2L, 3L));
+        ParticipantNameCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.getSize());
+        assertEquals(1, stats.getEvictions());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private Participant participant(Long id, String displayName) {
+        Participant participant = new Participant("USER", id, displayName);
+        ReflectionTestUtils.setField(participant, "id", id);
+        return participant;
+    }
+}
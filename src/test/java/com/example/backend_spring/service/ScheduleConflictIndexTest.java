@@ -0,0 +1,92 @@
+package com.example.backend_spring.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static com.example.backend_spring.support.BlockingIntervals.blockingInterval;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.backend_spring.repository.FlowStepRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleConflictIndexTest {
+
+    @Mock
+    private FlowStepRepository stepRepo;
+
+    private ScheduleConflictIndex index;
+
+    @BeforeEach
+    void setUp() {
+        Clock fixedClock = Clock.fixed(Instant.parse("2026-02-20T00:00:00Z"), ZoneId.systemDefault());
+        index = new ScheduleConflictIndex(stepRepo, fixedClock, true);
+    }
+
+    @Test
+    void warmUp_shouldKeepParticipantBusyBitsInMemory() {
+        when(stepRepo.findBlockingIntervalsEndingAfter(any())).thenReturn(List.of(
+                blockingInterval(1L, 100L, 10L, 11L, "CONFIRMED", at(3, 2, 10, 0), at(3, 2, 12, 0)),
+                blockingInterval(2L, 100L, 20L, 12L, "PROPOSED", at(3, 3, 9, 0), at(3, 3, 10, 0)),
+                blockingInterval(3L, 200L, 30L, 12L, "SELECTED", at(3, 4, 23, 30), at(3, 5, 0, 30))));
+
+        assertFalse(index.isReady());
+        index.warmUp();
+        assertTrue(index.isReady());
+
+        assertEquals(SlotOccupancy.slotMask(20, 24), index.getParticipantBusyBits(11L, LocalDate.of(2026, 3, 2)));
+        assertEquals(SlotOccupancy.slotMask(18, 20), index.getParticipantBusyBits(12L, LocalDate.of(2026, 3, 3)));
+        // An interval crossing midnight marks both days.
+        assertEquals(SlotOccupancy.slotMask(47, 48), index.getParticipantBusyBits(12L, LocalDate.of(2026, 3, 4)));
+        assertEquals(SlotOccupancy.slotMask(0, 1), index.getParticipantBusyBits(12L, LocalDate.of(2026, 3, 5)));
+        assertEquals(0L, index.getParticipantBusyBits(11L, LocalDate.of(2026, 3, 3)));
+    }
+
+    @Test
+    void reloadFlow_shouldReplaceTheFlowIntervals() {
+        when(stepRepo.findBlockingIntervalsEndingAfter(any())).thenReturn(List.of(
+                blockingInterval(1L, 100L, 10L, 11L, "CONFIRMED", at(3, 2, 10, 0), at(3, 2, 11, 0)),
+                blockingInterval(2L, 100L, 20L, 11L, "PROPOSED", at(3, 5, 10, 30), at(3, 5, 11, 30))));
+        when(stepRepo.findBlockingIntervalsByFlowId(1L)).thenReturn(List.of(
+                blockingInterval(1L, 100L, 10L, 11L, "CONFIRMED", at(3, 5, 10, 0), at(3, 5, 11, 0))));
+        index.warmUp();
+
+        index.reloadFlowAfterCommit(1L);
+
+        assertEquals(0L, index.getParticipantBusyBits(11L, LocalDate.of(2026, 3, 2)));
+        assertEquals(SlotOccupancy.slotMask(20, 23), index.getParticipantBusyBits(11L, LocalDate.of(2026, 3, 5)));
+
+        // Slots still covered by another flow stay busy.
+        index.removeFlowAfterCommit(1L);
+        assertEquals(SlotOccupancy.slotMask(21, 23), index.getParticipantBusyBits(11L, LocalDate.of(2026, 3, 5)));
+    }
+
+    @Test
+    void disabledIndex_shouldNeverLoad() {
+        ScheduleConflictIndex disabled = new ScheduleConflictIndex(stepRepo, Clock.systemDefaultZone(), false);
+        disabled.warmUp();
+        disabled.reloadFlowAfterCommit(1L);
+
+        assertFalse(disabled.isReady());
+        verify(stepRepo, never()).findBlockingIntervalsEndingAfter(any());
+    }
+
+    private LocalDateTime at(int month, int day, int hour, int minute) {
+        return LocalDateTime.of(2026, month, day, hour, minute);
+    }
+}
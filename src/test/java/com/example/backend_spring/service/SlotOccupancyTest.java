@@ -0,0 +1,65 @@
+package com.example.backend_spring.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+class SlotOccupancyTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    @Test
+    void maskOf_shouldRoundOutwardsAndSplitAcrossMidnight() {
+        // 09:00-10:00 -> slots 18 and 19.
+        assertEquals(0b11L << 18, SlotOccupancy.maskOf(at(2, 9, 0), at(2, 10, 0), DAY));
+        // 09:15-10:10 touches slots 18, 19 and 20.
+        assertEquals(0b111L << 18, SlotOccupancy.maskOf(at(2, 9, 15), at(2, 10, 10), DAY));
+        // 23:30-00:30 covers the last slot of the day and the first slot of the next.
+        assertEquals(1L << 47, SlotOccupancy.maskOf(at(2, 23, 30), at(3, 0, 30), DAY));
+        assertEquals(1L, SlotOccupancy.maskOf(at(2, 23, 30), at(3, 0, 30), DAY.plusDays(1)));
+        assertEquals(0L, SlotOccupancy.maskOf(at(3, 1, 0), at(3, 2, 0), DAY));
+    }
+
+    @Test
+    void fitStarts_shouldKeepOnlyStartsWithEnoughConsecutiveFreeSlots() {
+        long free = SlotOccupancy.slotMask(18, 22) | SlotOccupancy.slotMask(26, 27);
+
+        assertEquals(SlotOccupancy.slotMask(18, 21), SlotOccupancy.fitStarts(free, 2));
+        assertEquals(1L << 18, SlotOccupancy.fitStarts(free, 4));
+        assertEquals(0L, SlotOccupancy.fitStarts(free, 5));
+        assertTrue(SlotOccupancy.overlaps(free, 1L << 26));
+        assertFalse(SlotOccupancy.overlaps(free, 1L << 25));
+    }
+
+    @Test
+    void setAndOr_shouldStorePerIdAndDayAndDropEmptyDays() {
+        SlotOccupancy occupancy = new SlotOccupancy();
+        for (long id = 1; id <= 500; id++) {
+            occupancy.or(id, DAY, 1L << (id % 48));
+            occupancy.or(id, DAY, 1L);
+        }
+        occupancy.or(null, DAY, 1L << 5);
+
+        assertEquals(501, occupancy.size());
+        assertEquals((1L << 7) | 1L, occupancy.get(7L, DAY));
+        assertEquals(1L << 5, occupancy.get(null, DAY));
+        assertEquals(0L, occupancy.get(7L, DAY.plusDays(1)));
+
+        for (long id = 1; id <= 500; id += 2) {
+            occupancy.set(id, DAY, 0L);
+        }
+        assertEquals(251, occupancy.size());
+        assertEquals(0L, occupancy.get(7L, DAY));
+        assertEquals((1L << 8) | 1L, occupancy.get(8L, DAY));
+        assertEquals((1L << 2) | 1L, occupancy.get(50L, DAY));
+    }
+
+    private LocalDateTime at(int day, int hour, int minute) {
+        return LocalDateTime.of(2026, 3, day, hour, minute);
+    }
+}
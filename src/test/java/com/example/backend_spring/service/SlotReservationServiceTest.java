@@ -0,0 +1,89 @@
+package com.example.backend_spring.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com.example.backend_spring.domain.Flow;
+import com.example.backend_spring.domain.FlowStep;
+import com.example.backend_spring.domain.OwnerSlotReservation;
+import com.example.backend_spring.domain.ParticipantSlotReservation;
+import com.example.backend_spring.repository.FlowRepository;
+import com.example.backend_spring.repository.FlowStepRepository;
+import com.example.backend_spring.repository.OwnerSlotReservationRepository;
+import com.example.backend_spring.repository.ParticipantSlotReservationRepository;
+
+@DataJpaTest
+class SlotReservationServiceTest {
+
+    @Autowired
+    private FlowRepository flowRepo;
+
+    @Autowired
+    private FlowStepRepository stepRepo;
+
+    @Autowired
+    private ParticipantSlotReservationRepository participantReservationRepo;
+
+    @Autowired
+    private OwnerSlotReservationRepository ownerReservationRepo;
+
+    private SlotReservationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SlotReservationService(participantReservationRepo, ownerReservationRepo);
+    }
+
+    @Test
+    void reserve_shouldHoldEverySlotAndMoveThemWhenTheStepIsRescheduled() {
+        Flow flow = flowRepo.save(new Flow("Interview", 90, LocalDateTime.of(2026, 3, 1, 9, 0), 7L));
+        FlowStep step = new FlowStep(flow.getId(), 1, 11L, "A");
+        step.confirm(LocalDateTime.of(2026, 3, 10, 9, 0), LocalDateTime.of(2026, 3, 10, 10, 30));
+        stepRepo.save(step);
+
+        service.reserve(flow, step);
+
+        assertEquals(
+                List.of(LocalDateTime.of(2026, 3, 10, 9, 0), LocalDateTime.of(2026, 3, 10, 9, 30), LocalDateTime.of(2026, 3, 10, 10, 0)),
+                participantReservationRepo.findAll().stream().map(ParticipantSlotReservation::getSlotStart).sorted().toList());
+        assertEquals(3, ownerReservationRepo.findAll().size());
+
+        // Overlaps the old time, so the old rows must be gone before the new ones are inserted.
+        step.confirm(LocalDateTime.of(2026, 3, 10, 10, 0), LocalDateTime.of(2026, 3, 10, 11, 30));
+        service.reserve(flow, step);
+
+        assertEquals(
+                List.of(LocalDateTime.of(2026, 3, 10, 10, 0), LocalDateTime.of(2026, 3, 10, 10, 30), LocalDateTime.of(2026, 3, 10, 11, 0)),
+                participantReservationRepo.findAll().stream().map(ParticipantSlotReservation::getSlotStart).sorted().toList());
+        assertEquals(7L, ownerReservationRepo.findAll().stream().map(OwnerSlotReservation::getOwnerUserId).distinct().findFirst().orElseThrow());
+    }
+
+    @Test
+    void reserve_shouldRejectASecondBookingOfTheSameParticipantSlot() {
+        Flow first = flowRepo.save(new Flow("First", 60, LocalDateTime.of(2026, 3, 1, 9, 0), 7L));
+        Flow second = flowRepo.save(new Flow("Second", 60, LocalDateTime.of(2026, 3, 1, 9, 0), 8L));
+        FlowStep booked = new FlowStep(first.getId(), 1, 11L, "A");
+        booked.confirm(LocalDateTime.of(2026, 3, 10, 9, 0), LocalDateTime.of(2026, 3, 10, 10, 0));
+        FlowStep racing = new FlowStep(second.getId(), 1, 11L, "A");
+        racing.confirm(LocalDateTime.of(2026, 3, 10, 9, 30), LocalDateTime.of(2026, 3, 10, 10, 30));
+        stepRepo.saveAll(List.of(booked, racing));
+        service.reserve(first, booked);
+
+        assertThrows(IllegalArgumentException.class, () -> service.reserve(second, racing));
+    }
+
+    @Test
+    void slotStarts_shouldCoverPartialSlots() {
+        assertEquals(
+                List.of(LocalDateTime.of(2026, 3, 10, 9, 0), LocalDateTime.of(2026, 3, 10, 9, 30)),
+                SlotReservationService.slotStarts(LocalDateTime.of(2026, 3, 10, 9, 15), LocalDateTime.of(2026, 3, 10, 9, 45)));
+    }
+}
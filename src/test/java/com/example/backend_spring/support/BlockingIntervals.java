@@ -0,0 +1,34 @@
+package com.example.backend_spring.support;
+
+import java.time.LocalDateTime;
+
+import com.example.backend_spring.repository.FlowStepRepository;
+
+/**
+ * Builds {@link FlowStepRepository.BlockingIntervalView} rows for unit tests, with the arguments in the
+ * order of the view's getters.
+ */
+public final class BlockingIntervals {
+
+    private BlockingIntervals() {
+    }
+
+    public static FlowStepRepository.BlockingIntervalView blockingInterval(
+            Long flowId,
+            Long ownerUserId,
+            Long stepId,
+            Long participantId,
+            String status,
+            LocalDateTime startAt,
+            LocalDateTime endAt) {
+        return new FlowStepRepository.BlockingIntervalView() {
+            public Long getFlowId() { return flowId; }
+            public Long getOwnerUserId() { return ownerUserId; }
+            public Long getStepId() { return stepId; }
+            public Long getParticipantId() { return participantId; }
+            public String getStatus() { return status; }
+            public LocalDateTime getStartAt() { return startAt; }
+            public LocalDateTime getEndAt() { return endAt; }
+        };
+    }
+}
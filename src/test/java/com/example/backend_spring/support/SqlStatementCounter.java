@@ -0,0 +1,155 @@
+package com.example.backend_spring.support;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Counts SQL statements executed through the application {@link DataSource}, covering Hibernate,
+ * native queries and {@code JdbcTemplate} alike. Each {@code execute*} call is one statement;
+ * a JDBC batch counts once.
+ *
+ * Import {@link Config} into a Spring Boot test, {@link #reset()} before the request under test
+ * and check {@link #assertAtMost(int, String)} afterwards.
+ */
+public class SqlStatementCounter {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final List<String> statements = new ArrayList<>();
+
+    public synchronized void reset() {
+        statements.clear();
+    }
+
+    public synchronized int count() {
+        return statements.size();
+    }
+
+    public synchronized List<String> statements() {
+        return List.copyOf(statements);
+    }
+
+    public void assertAtMost(int budget, String label) {
+        List<String> executed = statements();
+        if (executed.size() > budget) {
+            StringBuilder message = new StringBuilder()
+                    .append(label).append(" executed ").append(executed.size())
+                    .append(" SQL statements, budget is ").append(budget).append(':');
+            for (int i = 0; i < executed.size(); i++) {
+                message.append(System.lineSeparator()).append("  ").append(i + 1).append(". ").append(executed.get(i));
+            }
+            throw new AssertionError(message.toString());
+        }
+    }
+
+    private synchronized void record(String sql) {
+        statements.add(sql == null ? "<unknown>" : sql.replaceAll("\\s+", " ").trim());
+    }
+
+    DataSource wrap(DataSource target) {
+        return proxy(DataSource.class, target, (method, args, result) -> {
+            if ("getConnection".equals(method.getName())) {
+                return wrapConnection((Connection) result);
+            }
+            return result;
+        });
+    }
+
+    private Connection wrapConnection(Connection target) {
+        return proxy(Connection.class, target, (method, args, result) -> {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return wrapStatement(PreparedStatement.class, (PreparedStatement) result, (String) args[0]);
+                case "prepareCall":
+                    return wrapStatement(CallableStatement.class, (CallableStatement) result, (String) args[0]);
+                case "createStatement":
+                    return wrapStatement(Statement.class, (Statement) result, null);
+                default:
+                    return result;
+            }
+        });
+    }
+
+    private <T extends Statement> T wrapStatement(Class<T> type, T target, String preparedSql) {
+        return proxy(type, target, (method, args, result) -> result, (method, args) -> {
+            if (EXECUTE_METHODS.contains(method.getName())) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                record(sql);
+            }
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, T target, ResultWrapper wrapper) {
+        return proxy(type, target, wrapper, (method, args) -> {
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, ResultWrapper wrapper, BeforeCall beforeCall) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if ("unwrap".equals(method.getName()) && type.equals(args[0])) {
+                return proxy;
+            }
+            if ("isWrapperFor".equals(method.getName()) && type.equals(args[0])) {
+                return true;
+            }
+            beforeCall.accept(method, args);
+            try {
+                return wrapper.apply(method, args, method.invoke(target, args));
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    @FunctionalInterface
+    private interface ResultWrapper {
+        Object apply(Method method, Object[] args, Object result) throws Throwable;
+    }
+
+    @FunctionalInterface
+    private interface BeforeCall {
+        void accept(Method method, Object[] args);
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Config {
+
+        @Bean
+        SqlStatementCounter sqlStatementCounter() {
+            return new SqlStatementCounter();
+        }
+
+        @Bean
+        static BeanPostProcessor sqlStatementCountingPostProcessor(
+                ObjectProvider<SqlStatementCounter> counter) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return counter.getObject().wrap(dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}